@@ -30,7 +30,6 @@ import org.bukkit.configuration.InvalidConfigurationException;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
 import java.io.IOException;
@@ -42,7 +41,7 @@ import java.util.logging.Level;
 
 /**
  * A cached ban configuration from a FileConfiguration
- * @version 3.1
+ * @version 3.5
  * @author Andross
  */
 public final class BanConfig {
@@ -54,27 +53,13 @@ public final class BanConfig {
     private final Set<String> ignoredInventoryTitles = new HashSet<>();
 
     /**
-     * Loading the FileConfiguration.
+     * Loading the ban configuration from an already loaded FileConfiguration.
      * This should not be used externally.
      * Use {@link fr.andross.banitem.BanItemAPI#load(CommandSender, File)} instead.
      */
-    BanConfig(@NotNull final BanItem pl, @NotNull final CommandSender sender, @Nullable final File configFile) {
-        if (configFile == null) {
-            pl.saveDefaultConfig();
-            pl.reloadConfig();
-            this.configFile = new File(pl.getDataFolder(), "config.yml");
-            this.config = pl.getConfig();
-        } else {
-            this.configFile = configFile;
-            this.config = new YamlConfiguration();
-            try {
-                config.load(configFile);
-            } catch (final IOException | InvalidConfigurationException e) {
-                pl.getLogger().log(Level.WARNING, "Can not load config file '" + configFile.getName() + "': " + e.getMessage(), e);
-                sender.sendMessage(Chat.color("&cCan not load config file '" + configFile.getName() + "': " + e.getMessage()));
-                sender.sendMessage(Chat.color("&cDetailled error message on console."));
-            }
-        }
+    BanConfig(@NotNull final CommandSender sender, @NotNull final File configFile, @NotNull final FileConfiguration config) {
+        this.configFile = configFile;
+        this.config = config;
 
         // Loading prefix
         final String prefix = this.config.getString("prefix");
@@ -93,6 +78,33 @@ public final class BanConfig {
         ignoredInventoryTitles.addAll(this.config.getStringList("actions.delete.ignored-inventories-titles"));
     }
 
+    /**
+     * Reading and parsing a config file into a detached configuration, which does not replace the plugin config.
+     * The default config.yml file is created if needed.
+     * This only reads the file, so it can be used asynchronously.
+     * @param pl main instance
+     * @param configFile the config file
+     * @return the parsed configuration
+     * @throws IOException if the file can not be read
+     * @throws InvalidConfigurationException if the file is not a valid configuration
+     */
+    @NotNull
+    static YamlConfiguration read(@NotNull final BanItem pl, @NotNull final File configFile) throws IOException, InvalidConfigurationException {
+        if (configFile.equals(getDefaultFile(pl))) pl.saveDefaultConfig();
+        final YamlConfiguration config = new YamlConfiguration();
+        config.load(configFile);
+        return config;
+    }
+
+    /**
+     * @param pl main instance
+     * @return the default config.yml file
+     */
+    @NotNull
+    static File getDefaultFile(@NotNull final BanItem pl) {
+        return new File(pl.getDataFolder(), "config.yml");
+    }
+
     /**
      * Get the current config file name used
      * @return the current config file name used
@@ -18,6 +18,8 @@
 package fr.andross.banitem;
 
 import fr.andross.banitem.actions.BanAction;
+import fr.andross.banitem.database.BanEvaluator;
+import fr.andross.banitem.database.BanIndex;
 import fr.andross.banitem.database.Blacklist;
 import fr.andross.banitem.database.Whitelist;
 import fr.andross.banitem.database.items.CustomItems;
@@ -25,6 +27,7 @@ import fr.andross.banitem.database.items.Items;
 import fr.andross.banitem.database.items.MetaItems;
 import fr.andross.banitem.items.BannedItem;
 import fr.andross.banitem.items.CustomBannedItem;
+import org.bukkit.World;
 import org.bukkit.command.CommandSender;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.inventory.ItemStack;
@@ -33,11 +36,12 @@ import org.jetbrains.annotations.NotNull;
 import java.io.File;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 /**
  * Class that contains all the maps
- * @version 3.1
+ * @version 3.5
  * @author Andross
  */
 public final class BanDatabase {
@@ -45,17 +49,25 @@ public final class BanDatabase {
     private final MetaItems metaItems;
     private final Blacklist blacklist;
     private final Whitelist whitelist;
+    private final BanEvaluator evaluator = new BanEvaluator(this);
+    private volatile BanIndex index;
 
     /**
-     * Loading the plugin database.
+     * Loading the plugin database, with the config and hooks being loaded,
+     * the already loaded <i>customitems.yml</i> and <i>metaitems.yml</i> files, and the loaded worlds.
+     * As nothing is published before the whole database is built, and the server worlds are not accessed,
+     * this can run asynchronously.
      * This should not be used externally.
      * Use {@link fr.andross.banitem.BanItemAPI#load(CommandSender, File)} instead.
      */
-    BanDatabase(@NotNull final BanItem pl, @NotNull final CommandSender sender, @NotNull final FileConfiguration config) {
-        this.customItems = new CustomItems(pl, sender);
-        this.metaItems = new MetaItems(pl, sender);
-        this.blacklist = new Blacklist(pl, this, sender, config.getConfigurationSection("blacklist"));
-        this.whitelist = new Whitelist(pl, this, sender, config.getConfigurationSection("whitelist"));
+    BanDatabase(@NotNull final BanItem pl, @NotNull final CommandSender sender, @NotNull final BanConfig banConfig, @NotNull final BanHooks hooks,
+                @NotNull final FileConfiguration customItemsConfig, @NotNull final FileConfiguration metaItemsConfig, @NotNull final List<World> worlds) {
+        final FileConfiguration config = banConfig.getConfig();
+        this.customItems = new CustomItems(pl, banConfig, sender, customItemsConfig);
+        this.metaItems = new MetaItems(pl, banConfig, sender, metaItemsConfig);
+        this.blacklist = new Blacklist(pl, this, banConfig, hooks, worlds, sender, config.getConfigurationSection("blacklist"));
+        this.whitelist = new Whitelist(pl, this, banConfig, hooks, worlds, sender, config.getConfigurationSection("whitelist"));
+        this.index = new BanIndex(blacklist, whitelist);
     }
 
     /**
@@ -146,6 +158,27 @@ public final class BanDatabase {
         return blacklist;
     }
 
+    /**
+     * Get the compiled index of the blacklist and whitelist.
+     * The index is rebuilt here if the blacklist or whitelist was modified since it was built.
+     * @return the compiled index
+     */
+    @NotNull
+    public BanIndex getIndex() {
+        BanIndex index = this.index;
+        if (!index.isUpToDate()) this.index = index = new BanIndex(blacklist, whitelist);
+        return index;
+    }
+
+    /**
+     * Get the evaluator, checking both blacklist and whitelist in a single pass
+     * @return the evaluator of this database
+     */
+    @NotNull
+    public BanEvaluator getEvaluator() {
+        return evaluator;
+    }
+
     /**
      * Get the whitelist map
      * @return map containing the whitelisted items
@@ -18,6 +18,7 @@
 package fr.andross.banitem;
 
 import com.sk89q.worldguard.bukkit.WorldGuardPlugin;
+import fr.andross.banitem.utils.Chat;
 import fr.andross.banitem.utils.hooks.IWorldGuardHook;
 import fr.andross.banitem.utils.hooks.WorldGuard6Hook;
 import fr.andross.banitem.utils.hooks.WorldGuard7Hook;
@@ -27,7 +28,7 @@ import org.jetbrains.annotations.Nullable;
 
 /**
  * Hooks manager
- * @version 3.1
+ * @version 3.5
  * @author Andross
  */
 public final class BanHooks {
@@ -40,9 +41,9 @@ public final class BanHooks {
      * This should not be used externally.
      * Use {@link fr.andross.banitem.BanItemAPI#load(CommandSender, java.io.File)} instead.
      */
-    BanHooks(@NotNull final BanItem pl, @NotNull final CommandSender sender) {
+    BanHooks(@NotNull final BanItem pl, @NotNull final BanConfig banConfig, @NotNull final CommandSender sender) {
         // WorldGuard?
-        if (pl.getBanConfig().getConfig().getBoolean("hooks.worldguard"))
+        if (banConfig.getConfig().getBoolean("hooks.worldguard"))
             try {
                 final WorldGuardPlugin worldGuardPlugin = WorldGuardPlugin.inst();
                 if (worldGuardPlugin == null || !worldGuardPlugin.isEnabled()) throw new Exception();
@@ -52,17 +53,17 @@ public final class BanHooks {
                 else throw new Exception();
                 isWorldGuardEnabled = true;
             } catch (final Throwable e) {
-                pl.getUtils().sendMessage(sender, "&c[Hooks] Can not hook with WorldGuard.");
+                sender.sendMessage(banConfig.getPrefix() + Chat.color("&c[Hooks] Can not hook with WorldGuard."));
                 isWorldGuardEnabled = false;
             }
 
         // AdvancedEnchantments?
-        if (pl.getBanConfig().getConfig().getBoolean("hooks.advancedenchantments") && pl.getServer().getPluginManager().isPluginEnabled("AdvancedEnchantments")) {
+        if (banConfig.getConfig().getBoolean("hooks.advancedenchantments") && pl.getServer().getPluginManager().isPluginEnabled("AdvancedEnchantments")) {
             try {
                 if (n3kas.ae.api.AEAPI.getAllEnchantments() == null) throw new Exception();
                 isAdvancedEnchantmentsEnabled = true;
             } catch (final Throwable e) {
-                pl.getUtils().sendMessage(sender, "&c[Hooks] Can not hook with AdvancedEnchantments.");
+                sender.sendMessage(banConfig.getPrefix() + Chat.color("&c[Hooks] Can not hook with AdvancedEnchantments."));
                 isAdvancedEnchantmentsEnabled = false;
             }
         }
@@ -18,11 +18,17 @@
 package fr.andross.banitem;
 
 import fr.andross.banitem.commands.BanCommand;
+import fr.andross.banitem.database.items.CustomItems;
+import fr.andross.banitem.database.items.MetaItems;
 import fr.andross.banitem.utils.Chat;
 import fr.andross.banitem.utils.metrics.Metrics;
 import org.bukkit.Bukkit;
+import org.bukkit.World;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.bukkit.util.StringUtil;
@@ -30,10 +36,13 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
 
 import me.nahu.scheduler.wrapper.FoliaWrappedJavaPlugin;
 import me.nahu.scheduler.wrapper.runnable.WrappedRunnable;
@@ -42,15 +51,14 @@ import me.nahu.scheduler.wrapper.WrappedSchedulerBuilder;
 
 /**
  * BanItemPlugin
- * @version 3.4
+ * @version 3.5
  * @author Andross
  */
 public final class BanItem extends FoliaWrappedJavaPlugin {
     private static BanItem instance;
     private BanItemAPI api;
-    private BanConfig banConfig;
-    private BanHooks hooks;
-    private BanDatabase banDatabase;
+    private volatile Snapshot snapshot;
+    private final AtomicInteger loads = new AtomicInteger();
     private final BanUtils utils = new BanUtils(this);
     private final BanListener listener = new BanListener(this);
 
@@ -67,42 +75,108 @@ public final class BanItem extends FoliaWrappedJavaPlugin {
         
             // Loading plugin on next tick after worlds
             load(Bukkit.getConsoleSender(), null);
-        
-            // Update checker
-            if (banConfig.getConfig().getBoolean("check-update"))
-                scheduler.runTaskAsynchronously(utils::checkForUpdate);
         }, 20L);        
     }
 
     /**
      * (re)Loading the plugin with this configuration file.
      * If no config file set, using the default config.yml one.
+     * The configuration files are read asynchronously. The config and hooks are then loaded on the main thread,
+     * along with the meta items <i>(item stacks)</i> and the loaded worlds, and the database is built asynchronously.
+     * Everything is finally applied all at once on the main thread. Until then, the current ones are still used.
      * @param sender command sender <i>(send the message debug to)</i>
      * @param configFile the file configuration to load. If null, using (and reloading) the default config
      */
     public void load(@NotNull final CommandSender sender, @Nullable final File configFile) {
         final long start = System.currentTimeMillis();
+        final int load = loads.incrementAndGet();
+
+        getScheduler().runTaskAsynchronously(() -> {
+            // Reading files
+            final Files files;
+            try {
+                files = new Files(this, configFile == null ? BanConfig.getDefaultFile(this) : configFile);
+            } catch (final Throwable e) {
+                sendLoadError(sender, "Can not load the plugin files: ", e);
+                return;
+            }
+
+            // Preparing on main thread
+            getScheduler().runTask(() -> prepare(sender, files, load, start));
+        });
+    }
+
+    private void prepare(@NotNull final CommandSender sender, @NotNull final Files files, final int load, final long start) {
+        // Another load has been requested meanwhile?
+        if (load != loads.get() || !isEnabled()) return;
+
+        // Config file error?
+        if (files.configError != null) {
+            getLogger().log(Level.WARNING, "Can not load config file '" + files.configFile.getName() + "': " + files.configError.getMessage(), files.configError);
+            sender.sendMessage(Chat.color("&cCan not load config file '" + files.configFile.getName() + "': " + files.configError.getMessage()));
+            sender.sendMessage(Chat.color("&cDetailled error message on console."));
+        }
+
+        final BanConfig banConfig;
+        final BanHooks hooks;
+        final FileConfiguration metaItems;
+        final List<World> worlds;
+        try {
+            // (re)Loading config
+            banConfig = new BanConfig(sender, files.configFile, files.config);
+
+            // (re)Loading hooks
+            hooks = new BanHooks(this, banConfig, sender);
+
+            // Deserializing meta items and getting worlds
+            metaItems = MetaItems.parse(files.metaItems);
+            worlds = new ArrayList<>(Bukkit.getWorlds());
+        } catch (final Throwable e) {
+            sendLoadError(sender, "Can not load the plugin: ", e);
+            return;
+        }
+
+        getScheduler().runTaskAsynchronously(() -> {
+            // (re)Loading database
+            final Snapshot loaded;
+            try {
+                loaded = new Snapshot(banConfig, hooks, new BanDatabase(this, sender, banConfig, hooks, files.customItems, metaItems, worlds));
+            } catch (final Throwable e) {
+                sendLoadError(sender, "Can not load the plugin: ", e);
+                return;
+            }
+
+            // Applying on main thread
+            getScheduler().runTask(() -> apply(sender, loaded, load, start));
+        });
+    }
+
+    private void apply(@NotNull final CommandSender sender, @NotNull final Snapshot loaded, final int load, final long start) {
+        // Another load has been requested meanwhile?
+        if (load != loads.get() || !isEnabled()) return;
 
         // Removing all tasks
         utils.getWearScanner().setEnabled(false);
         utils.getIllegalStackScanner().setEnabled(false);
         getScheduler().cancelAllTasks();
 
-        // (re)Loading config
-        banConfig = new BanConfig(this, sender, configFile);
-
-        // (re)Loading hooks
-        hooks = new BanHooks(this, sender);
-
-        // (re)Loading database
-        banDatabase = new BanDatabase(this, sender, banConfig.getConfig());
+        // Swapping config, hooks & database
+        final boolean firstLoad = snapshot == null;
+        snapshot = loaded;
+        final BanConfig banConfig = loaded.banConfig;
+        final BanDatabase banDatabase = loaded.banDatabase;
 
         // (re)Loading listeners
         listener.load(sender);
+        utils.getPermissionCache().clear();
 
         // (re)Loading illegal stack scanner
         utils.getIllegalStackScanner().load(sender, banConfig);
 
+        // Update checker
+        if (firstLoad && banConfig.getConfig().getBoolean("check-update"))
+            getScheduler().runTaskAsynchronously(utils::checkForUpdate);
+
         // Result
         final long end = System.currentTimeMillis();
         final boolean moredebug = banConfig.getConfig().getBoolean("debug.reload");
@@ -115,10 +189,16 @@ public final class BanItem extends FoliaWrappedJavaPlugin {
             utils.sendMessage(sender, "&2Successfully loaded &e" + banDatabase.getBlacklist().getTotal() + "&2 blacklisted & &e" + banDatabase.getWhitelist().getTotal() + "&2 whitelisted item(s).");
     }
 
+    private void sendLoadError(@NotNull final CommandSender sender, @NotNull final String message, @NotNull final Throwable e) {
+        getLogger().log(Level.SEVERE, message + e.getMessage(), e);
+        sender.sendMessage(Chat.color("&c" + message + e.getMessage()));
+        sender.sendMessage(Chat.color("&cDetailled error message on console."));
+    }
+
     @Override
     public boolean onCommand(@NotNull final CommandSender sender, @NotNull final Command command, final @NotNull String label, @NotNull final String[] args) {
         // Plugin not loaded yet?
-        if (banConfig == null) {
+        if (snapshot == null) {
             sender.sendMessage(Chat.color("&c&l[&e&lBanItem&c&l] &cThe plugin is not loaded yet. Please wait before using the command."));
             return true;
         }
@@ -138,7 +218,7 @@ public final class BanItem extends FoliaWrappedJavaPlugin {
 
         // Trying to show help?
         if (!sender.hasPermission("banitem.command.help")) {
-            final String message = getConfig().getString("no-permission");
+            final String message = getBanConfig().getConfig().getString("no-permission");
             if (message != null) utils.sendMessage(sender, message);
             return true;
         }
@@ -212,27 +292,38 @@ public final class BanItem extends FoliaWrappedJavaPlugin {
     /**
      * Get a the ban config helper
      * @return the ban config helper
+     * @throws IllegalStateException if the plugin is not loaded yet
      */
     @NotNull
     public BanConfig getBanConfig() {
-        return banConfig;
+        return getSnapshot().banConfig;
     }
 
     /**
      * Get the ban hooks
      * @return the ban hooks
+     * @throws IllegalStateException if the plugin is not loaded yet
      */
+    @NotNull
     public BanHooks getHooks() {
-        return hooks;
+        return getSnapshot().hooks;
     }
 
     /**
      * Get the ban database, containing blacklist, whitelist and customitems
      * @return the ban database
+     * @throws IllegalStateException if the plugin is not loaded yet
      */
     @NotNull
     public BanDatabase getBanDatabase() {
-        return banDatabase;
+        return getSnapshot().banDatabase;
+    }
+
+    @NotNull
+    private Snapshot getSnapshot() {
+        final Snapshot snapshot = this.snapshot;
+        if (snapshot == null) throw new IllegalStateException("The plugin is not loaded yet");
+        return snapshot;
     }
 
     /**
@@ -252,4 +343,47 @@ public final class BanItem extends FoliaWrappedJavaPlugin {
     public BanListener getListener() {
         return listener;
     }
+
+    /**
+     * Configuration files, read asynchronously into detached configurations.
+     * The meta items file is only read, as parsing it deserializes item stacks.
+     */
+    private static final class Files {
+        private final File configFile;
+        private final YamlConfiguration config;
+        private final Exception configError;
+        private final FileConfiguration customItems;
+        private final String metaItems;
+
+        private Files(@NotNull final BanItem pl, @NotNull final File configFile) {
+            this.configFile = configFile;
+            YamlConfiguration config;
+            Exception configError = null;
+            try {
+                config = BanConfig.read(pl, configFile);
+            } catch (final IOException | InvalidConfigurationException e) {
+                config = new YamlConfiguration();
+                configError = e;
+            }
+            this.config = config;
+            this.configError = configError;
+            this.customItems = CustomItems.loadFile(pl);
+            this.metaItems = MetaItems.readFile(pl);
+        }
+    }
+
+    /**
+     * The loaded config, hooks and database, published together
+     */
+    private static final class Snapshot {
+        private final BanConfig banConfig;
+        private final BanHooks hooks;
+        private final BanDatabase banDatabase;
+
+        private Snapshot(@NotNull final BanConfig banConfig, @NotNull final BanHooks hooks, @NotNull final BanDatabase banDatabase) {
+            this.banConfig = banConfig;
+            this.hooks = hooks;
+            this.banDatabase = banDatabase;
+        }
+    }
 }
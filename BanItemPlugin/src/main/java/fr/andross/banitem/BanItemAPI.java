@@ -24,8 +24,10 @@ import fr.andross.banitem.database.Blacklist;
 import fr.andross.banitem.database.Whitelist;
 import fr.andross.banitem.database.WhitelistedWorld;
 import fr.andross.banitem.database.items.CustomItems;
-import fr.andross.banitem.database.items.Items;
 import fr.andross.banitem.items.BannedItem;
+import fr.andross.banitem.items.ItemProbe;
+import fr.andross.banitem.items.meta.MetaTypeFactory;
+import fr.andross.banitem.items.meta.MetaTypeRegistry;
 import fr.andross.banitem.utils.Utils;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
@@ -50,9 +52,10 @@ import java.util.stream.Collectors;
  * <p>If you add/remove any action from a map <i>(blacklist/whitelist)</i>, you have to reload the plugin listeners
  * so it can handle correctly the actions, using {@link BanListener#load(CommandSender)} ()}</p>
  * @author Andross
- * @version 3.3
+ * @version 3.5
  */
 public final class BanItemAPI {
+    private static final BanData[] NO_DATA = new BanData[0];
     private static BanItemAPI instance;
     private final BanItem pl;
 
@@ -91,7 +94,8 @@ public final class BanItemAPI {
     }
 
     /**
-     * (re)Loading the plugin with this configuration file
+     * (re)Loading the plugin with this configuration file.
+     * The loading is done asynchronously, the current database is used until the new one is fully loaded.
      * @param sender command sender <i>(send the message debug to)</i>
      * @param configFile the file configuration to load. If null, using (and reloading) the default config
      */
@@ -115,7 +119,7 @@ public final class BanItemAPI {
      * @return true if this item is banned, otherwise false
      */
     public boolean isBanned(@NotNull final Player player, @NotNull final Material m, @NotNull final BanAction action, @Nullable final BanData... data) {
-        return isBanned(player, null, new BannedItem(m), false, action, data);
+        return isBanned(player, null, ItemProbe.of(m), false, action, data);
     }
 
     /**
@@ -129,7 +133,7 @@ public final class BanItemAPI {
      * @return true if this item is banned, otherwise false
      */
     public boolean isBanned(@NotNull final Player player, @Nullable final Location loc, @NotNull final Material m, @NotNull final BanAction action, @Nullable final BanData... data) {
-        return isBanned(player, loc, new BannedItem(m), false, action, data);
+        return isBanned(player, loc, ItemProbe.of(m), false, action, data);
     }
 
     /**
@@ -143,7 +147,7 @@ public final class BanItemAPI {
      * @return true if this item is banned, otherwise false
      */
     public boolean isBanned(@NotNull final Player player, @NotNull final Material m, final boolean sendMessage, @NotNull final BanAction action, @Nullable final BanData... data) {
-        return isBanned(player, null, new BannedItem(m), sendMessage, action, data);
+        return isBanned(player, null, ItemProbe.of(m), sendMessage, action, data);
     }
 
     /**
@@ -158,7 +162,7 @@ public final class BanItemAPI {
      * @return true if this item is banned, otherwise false
      */
     public boolean isBanned(@NotNull final Player player, @Nullable final Location loc, @NotNull final Material m, final boolean sendMessage, @NotNull final BanAction action, @Nullable final BanData... data) {
-        return isBanned(player, loc, new BannedItem(m), sendMessage, action, data);
+        return isBanned(player, loc, ItemProbe.of(m), sendMessage, action, data);
     }
 
 
@@ -178,7 +182,7 @@ public final class BanItemAPI {
      * @return true if this item is banned, otherwise false
      */
     public boolean isBanned(@NotNull final Player player, @NotNull final ItemStack item, @NotNull final BanAction action, @Nullable final BanData... data) {
-        return isBanned(player, null, new BannedItem(item), false, action, data);
+        return isBanned(player, null, ItemProbe.of(item), false, action, data);
     }
 
     /**
@@ -192,7 +196,20 @@ public final class BanItemAPI {
      * @return true if this item is banned, otherwise false
      */
     public boolean isBanned(@NotNull final Player player, @Nullable final Location loc, @NotNull final ItemStack item, @NotNull final BanAction action, @Nullable final BanData... data) {
-        return isBanned(player, loc, new BannedItem(item), false, action, data);
+        return isBanned(player, loc, ItemProbe.of(item), false, action, data);
+    }
+
+    /**
+     * Check if the ItemStack is banned, in both blacklist and whitelist, without any action data.
+     * This also consider the player bypass permissions.
+     * @param player the {@link Player} involved into this action
+     * @param item the {@link ItemStack} used
+     * @param sendMessage if the banned message should be send to the player
+     * @param action the {@link BanAction} to check
+     * @return true if this item is banned, otherwise false
+     */
+    public boolean isBanned(@NotNull final Player player, @NotNull final ItemStack item, final boolean sendMessage, @NotNull final BanAction action) {
+        return isBanned(player, null, ItemProbe.of(item), sendMessage, action, NO_DATA);
     }
 
     /**
@@ -206,7 +223,21 @@ public final class BanItemAPI {
      * @return true if this item is banned, otherwise false
      */
     public boolean isBanned(@NotNull final Player player, @NotNull final ItemStack item, final boolean sendMessage, @NotNull final BanAction action, @Nullable final BanData... data) {
-        return isBanned(player, null, new BannedItem(item), sendMessage, action, data);
+        return isBanned(player, null, ItemProbe.of(item), sendMessage, action, data);
+    }
+
+    /**
+     * Check if the ItemStack is banned, in both blacklist and whitelist, without any action data.
+     * This also consider the player bypass permissions.
+     * @param player the {@link Player} involved into this action
+     * @param loc the effective {@link Location} of the action
+     * @param item the {@link ItemStack} used
+     * @param sendMessage if the banned message should be send to the player
+     * @param action the {@link BanAction} to check
+     * @return true if this item is banned, otherwise false
+     */
+    public boolean isBanned(@NotNull final Player player, @Nullable final Location loc, @NotNull final ItemStack item, final boolean sendMessage, @NotNull final BanAction action) {
+        return isBanned(player, loc, ItemProbe.of(item), sendMessage, action, NO_DATA);
     }
 
     /**
@@ -221,7 +252,7 @@ public final class BanItemAPI {
      * @return true if this item is banned, otherwise false
      */
     public boolean isBanned(@NotNull final Player player, @Nullable final Location loc, @NotNull final ItemStack item, final boolean sendMessage, @NotNull final BanAction action, @Nullable final BanData... data) {
-        return isBanned(player, loc, new BannedItem(item), sendMessage, action, data);
+        return isBanned(player, loc, ItemProbe.of(item), sendMessage, action, data);
     }
 
 
@@ -284,8 +315,25 @@ public final class BanItemAPI {
      * @return true if this item is banned, otherwise false
      */
     public boolean isBanned(@NotNull final Player player, @Nullable final Location loc, @NotNull final BannedItem item, final boolean sendMessage, @NotNull final BanAction action, @Nullable final BanData... data) {
-        if (pl.getBanDatabase().getBlacklist().isBlacklisted(player, loc, item, sendMessage, action, data)) return true;
-        return !pl.getBanDatabase().getWhitelist().isWhitelisted(player, loc, item, sendMessage, action, data);
+        return isBanned(player, loc, ItemProbe.of(item), sendMessage, action, data);
+    }
+
+    /**
+     * Check if the probed item is banned, in both blacklist and whitelist, and release the probe.
+     * @param player the {@link Player} involved into this action
+     * @param loc the effective {@link Location} of the action
+     * @param probe the probed item
+     * @param sendMessage if the banned message should be send to the player
+     * @param action the {@link BanAction} to check
+     * @param data optional action datas
+     * @return true if this item is banned, otherwise false
+     */
+    private boolean isBanned(@NotNull final Player player, @Nullable final Location loc, @NotNull final ItemProbe probe, final boolean sendMessage, @NotNull final BanAction action, @Nullable final BanData... data) {
+        try {
+            return pl.getBanDatabase().getEvaluator().evaluate(player, loc, probe, sendMessage, action, data).isBanned();
+        } finally {
+            probe.release();
+        }
     }
 
     /**
@@ -298,7 +346,7 @@ public final class BanItemAPI {
      * @return true if the item is banned, otherwise false
      */
     public boolean isBanned(@NotNull final World world, @NotNull final Material material, @NotNull final BanAction action, @Nullable final BanData... data) {
-        return isBanned(world, new BannedItem(material), action, data);
+        return isBanned(world, ItemProbe.of(material), action, data);
     }
 
     /**
@@ -311,7 +359,19 @@ public final class BanItemAPI {
      * @return true if the item is banned, otherwise false
      */
     public boolean isBanned(@NotNull final World world, @NotNull final ItemStack item, @NotNull final BanAction action, @Nullable final BanData... data) {
-        return isBanned(world, new BannedItem(item), action, data);
+        return isBanned(world, ItemProbe.of(item), action, data);
+    }
+
+    /**
+     * This method is used to check if the item is banned, in both blacklist and whitelist, not involving a player nor any action data
+     * This method is mainly used to check dispensers <i>dispense</i> and hoppers <i>transfer</i>
+     * @param world bukkit world <i>({@link World})</i>
+     * @param item the involved ItemStack
+     * @param action the ban action to check
+     * @return true if the item is banned, otherwise false
+     */
+    public boolean isBanned(@NotNull final World world, @NotNull final ItemStack item, @NotNull final BanAction action) {
+        return isBanned(world, ItemProbe.of(item), action, NO_DATA);
     }
 
     /**
@@ -324,8 +384,23 @@ public final class BanItemAPI {
      * @return true if the item is banned, otherwise false
      */
     public boolean isBanned(@NotNull final World world, @NotNull final BannedItem item, @NotNull final BanAction action, @Nullable final BanData... data) {
-        if (pl.getBanDatabase().getBlacklist().isBlacklisted(world, item, action, data)) return true;
-        return !pl.getBanDatabase().getWhitelist().isWhitelisted(world, item, action, data);
+        return isBanned(world, ItemProbe.of(item), action, data);
+    }
+
+    /**
+     * Check if the probed item is banned, in both blacklist and whitelist, not involving a player, and release the probe.
+     * @param world bukkit world <i>({@link World})</i>
+     * @param probe the probed item
+     * @param action the ban action to check
+     * @param data the ban action datas to check
+     * @return true if the item is banned, otherwise false
+     */
+    private boolean isBanned(@NotNull final World world, @NotNull final ItemProbe probe, @NotNull final BanAction action, @Nullable final BanData... data) {
+        try {
+            return pl.getBanDatabase().getEvaluator().evaluate(world, probe, action, data).isBanned();
+        } finally {
+            probe.release();
+        }
     }
 
     /**
@@ -381,6 +456,51 @@ public final class BanItemAPI {
     }
 
 
+    /*------------------------------
+     * **********************
+     *       META TYPES
+     * **********************
+    ------------------------------*/
+
+    /**
+     * Registering a custom meta type, usable in customitems.yml.
+     * Custom items have to be reloaded to use it, see {@link #load(CommandSender, File)}.
+     * @param name the name of the meta type, used as key in customitems.yml <i>(case insensitive, '-' and '_' are equivalent)</i>
+     * @param cost the cost class of this meta, from 1 <i>(simple field)</i> to 4 <i>(NBT or external plugin)</i>
+     * @param factory the factory creating the comparators from their configuration value
+     * @throws IllegalArgumentException if a meta type with this name already exists
+     */
+    public void registerMetaType(@NotNull final String name, final int cost, @NotNull final MetaTypeFactory factory) {
+        MetaTypeRegistry.register(name, cost, factory);
+    }
+
+    /**
+     * Unregistering a custom meta type.
+     * Custom items have to be reloaded to stop using it, see {@link #load(CommandSender, File)}.
+     * @param name the name of the meta type
+     * @return true if the meta type was unregistered, otherwise false
+     */
+    public boolean unregisterMetaType(@NotNull final String name) {
+        return MetaTypeRegistry.unregister(name);
+    }
+
+
+    /*------------------------------
+     * **********************
+     *       PERMISSIONS
+     * **********************
+    ------------------------------*/
+
+    /**
+     * The bypass permissions of the players are cached for a few seconds.
+     * This should be called if the permissions of a player changed, to apply them immediately.
+     * @param player the player
+     */
+    public void invalidatePermissions(@NotNull final Player player) {
+        pl.getUtils().getPermissionCache().invalidate(player.getUniqueId());
+    }
+
+
     /*------------------------------
      * **********************
      *       BLACKLIST
@@ -422,7 +542,7 @@ public final class BanItemAPI {
             final String name = pl.getBanDatabase().getName(item);
 
             // Adding in map
-            appliedWorlds.forEach(w -> getDatabase().getBlacklist().addNewBan(w, item, actions));
+            getDatabase().getBlacklist().addNewBan(appliedWorlds, Collections.singletonList(item), actions);
 
             // Adding in config
             if (allWorlds) {
@@ -435,7 +555,7 @@ public final class BanItemAPI {
                             .collect(Collectors.joining(","));
                     pl.getBanConfig().getConfig().set("blacklist.*." + name + "." + actionNames, serializedData);
                 } else
-                    actions.forEach((k, v) -> pl.getConfig().set("blacklist.*." + name + "." + k.name().toLowerCase(), v.serialize()));
+                    actions.forEach((k, v) -> pl.getBanConfig().getConfig().set("blacklist.*." + name + "." + k.name().toLowerCase(), v.serialize()));
             } else {
                 // If all data are equals, we can unify them
                 if (Utils.areAllEquals(actions.values())) {
@@ -478,17 +598,14 @@ public final class BanItemAPI {
             final String name = pl.getBanDatabase().getName(item);
             final String typeName = item.getType().name().toLowerCase();
 
-            for (final World world : appliedWorlds) {
-                final Items map = getDatabase().getBlacklist().get(world);
-                if (map == null) continue;
-                if (map.getItems().remove(typeItem) != null) {
-                    removed = true;
-                    pl.getBanConfig().getConfig().set("blacklist." + world.getName() + "." + typeName, null);
-                }
-                if (map.getItems().remove(item) != null) {
-                    removed = true;
-                    pl.getBanConfig().getConfig().set("blacklist." + world.getName() + "." + name, null);
-                }
+            final Blacklist blacklist = getDatabase().getBlacklist();
+            for (final World world : blacklist.removeBan(appliedWorlds, typeItem)) {
+                removed = true;
+                pl.getBanConfig().getConfig().set("blacklist." + world.getName() + "." + typeName, null);
+            }
+            for (final World world : blacklist.removeBan(appliedWorlds, item)) {
+                removed = true;
+                pl.getBanConfig().getConfig().set("blacklist." + world.getName() + "." + name, null);
             }
             if (removed) {
                 // Removing from '*' configuration
@@ -20,20 +20,24 @@ package fr.andross.banitem;
 import fr.andross.banitem.actions.BanAction;
 import fr.andross.banitem.actions.BanData;
 import fr.andross.banitem.actions.BanDataType;
+import fr.andross.banitem.database.BanIndex;
 import fr.andross.banitem.events.PlayerRegionChangeEvent;
 import fr.andross.banitem.utils.BanVersion;
 import fr.andross.banitem.utils.Chat;
 import fr.andross.banitem.utils.ItemStackBuilder;
+import fr.andross.banitem.utils.RegionTracker;
 import fr.andross.banitem.utils.Utils;
 import fr.andross.banitem.utils.enchantments.EnchantmentWrapper;
 import fr.andross.banitem.utils.hooks.IWorldGuardHook;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Material;
+import org.bukkit.World;
 import org.bukkit.block.BlockState;
 import org.bukkit.command.CommandSender;
 import org.bukkit.enchantments.Enchantment;
 import org.bukkit.entity.Player;
+import org.bukkit.event.Cancellable;
 import org.bukkit.event.Event;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.HandlerList;
@@ -43,35 +47,47 @@ import org.bukkit.event.enchantment.EnchantItemEvent;
 import org.bukkit.event.entity.EntityDamageByEntityEvent;
 import org.bukkit.event.entity.EntityDamageEvent;
 import org.bukkit.event.entity.EntityDeathEvent;
+import org.bukkit.event.entity.EntityEvent;
+import org.bukkit.event.hanging.HangingEvent;
 import org.bukkit.event.hanging.HangingPlaceEvent;
 import org.bukkit.event.inventory.*;
 import org.bukkit.event.player.*;
 import org.bukkit.inventory.*;
 import org.bukkit.plugin.EventExecutor;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Supplier;
 
 /**
  * <p>This class is used to register only the needed listeners.
  * The listeners should be refreshed everytime you manually add/remove an action
  * from a map <i>(blacklist or whitelist)</i></p>
+ * <p>The handlers of a same event are fused into a single executor per priority,
+ * skipping the actions which can not apply in the world of the event.</p>
  * We are ignoring the deprecation warning, as these methods are used across multiple Bukkit version.
  *
  * @author Andross
- * @version 3.3.2
+ * @version 3.5
  */
 @SuppressWarnings("deprecation")
 public final class BanListener {
     private final BanItem pl;
     private final Listener listener = new Listener() {};
+    private final Map<Class<? extends Event>, Dispatcher> normal = new LinkedHashMap<>();
+    private final Map<Class<? extends Event>, Dispatcher> lowest = new LinkedHashMap<>();
+    private final Supplier<BanIndex> index;
+    private Set<BanAction> priority;
     private int activated = 0;
 
     BanListener(@NotNull final BanItem pl) {
         this.pl = pl;
+        this.index = () -> pl.getBanDatabase().getIndex();
     }
 
     /**
@@ -83,11 +99,13 @@ public final class BanListener {
         // Preparing variables
         final BanItemAPI api = pl.getApi();
         final BanDatabase db = pl.getBanDatabase();
-        final Set<BanAction> priority = pl.getBanConfig().getPriority();
+        priority = pl.getBanConfig().getPriority();
         final Set<BanAction> blacklist = db.getBlacklistActions();
         final boolean whitelist = !db.getWhitelist().isEmpty();
         final boolean all = blacklist.size() == BanAction.values().length; // check if a '*' is used, if so, do not notify for version uncompatibility
         HandlerList.unregisterAll(pl);
+        normal.clear();
+        lowest.clear();
         activated = 0;
 
         // Registering listeners, only if action is used
@@ -96,12 +114,12 @@ public final class BanListener {
                 if (!all && !whitelist) // notifying if used an action unavailable on the current minecraft version
                     sender.sendMessage(Chat.color("&cCan not use the '&earmorstandplace&c' action in Minecraft < 1.8."));
             } else
-                registerEvent(PlayerArmorStandManipulateEvent.class, (li, event) -> {
+                registerEvent(PlayerArmorStandManipulateEvent.class, BanAction.ARMORSTANDPLACE, (context, event) -> {
                     final PlayerArmorStandManipulateEvent e = (PlayerArmorStandManipulateEvent) event;
                     if (Utils.isNullOrAir(e.getPlayerItem())) return; // nothing to place
                     if (api.isBanned(e.getPlayer(), e.getRightClicked().getLocation(), e.getPlayerItem(), true, BanAction.ARMORSTANDPLACE))
                         e.setCancelled(true);
-                }, priority.contains(BanAction.ARMORSTANDPLACE));
+                });
         }
 
         if (blacklist.contains(BanAction.ARMORSTANDTAKE) || whitelist) {
@@ -109,16 +127,16 @@ public final class BanListener {
                 if (!all && !whitelist) // notifying if used an action unavailable on the current minecraft version
                     sender.sendMessage(Chat.color("&cCan not use the '&earmorstandtake&c' action in Minecraft < 1.8."));
             } else
-                registerEvent(PlayerArmorStandManipulateEvent.class, (li, event) -> {
+                registerEvent(PlayerArmorStandManipulateEvent.class, BanAction.ARMORSTANDTAKE, (context, event) -> {
                     final PlayerArmorStandManipulateEvent e = (PlayerArmorStandManipulateEvent) event;
                     if (e.getArmorStandItem().getType() == Material.AIR) return;
                     if (api.isBanned(e.getPlayer(), e.getRightClicked().getLocation(), e.getArmorStandItem(), true, BanAction.ARMORSTANDTAKE))
                         e.setCancelled(true);
-                }, priority.contains(BanAction.ARMORSTANDTAKE));
+                });
         }
 
         if (blacklist.contains(BanAction.ATTACK) || whitelist) {
-            registerEvent(EntityDamageByEntityEvent.class, (li, event) -> {
+            registerEvent(EntityDamageByEntityEvent.class, BanAction.ATTACK, (context, event) -> {
                 if (!(event instanceof EntityDamageByEntityEvent))
                     return; // this event is called even for EntityDamageByBlockEvent. Weird?
                 final EntityDamageByEntityEvent e = (EntityDamageByEntityEvent) event;
@@ -127,21 +145,21 @@ public final class BanListener {
                 final ItemStack itemInHand = Utils.getItemInHand(damager);
                 if (api.isBanned(damager, e.getEntity().getLocation(), itemInHand, true, BanAction.ATTACK, new BanData(BanDataType.ENTITY, e.getEntityType())))
                     e.setCancelled(true);
-            }, priority.contains(BanAction.ATTACK));
+            });
         }
 
         if (blacklist.contains(BanAction.BOOKEDIT) || whitelist) {
-            registerEvent(PlayerEditBookEvent.class, (li, event) -> {
+            registerEvent(PlayerEditBookEvent.class, BanAction.BOOKEDIT, (context, event) -> {
                 final PlayerEditBookEvent e = (PlayerEditBookEvent) event;
                 if (api.isBanned(e.getPlayer(), Utils.getItemInHand(e.getPlayer()), true, BanAction.BOOKEDIT)) {
                     e.setCancelled(true);
                     e.setNewBookMeta(e.getPreviousBookMeta());
                 }
-            }, priority.contains(BanAction.BOOKEDIT));
+            });
         }
 
         if (blacklist.contains(BanAction.BREAK) || whitelist) {
-            registerEvent(PlayerInteractEvent.class, (li, event) -> {
+            registerEvent(PlayerInteractEvent.class, BanAction.BREAK, (context, event) -> {
                 final PlayerInteractEvent e = (PlayerInteractEvent) event;
                 if (e.useInteractedBlock() == Event.Result.DENY || e.useItemInHand() == Event.Result.DENY) return;
                 if (e.getAction() == Action.LEFT_CLICK_BLOCK && e.getClickedBlock() != null) {
@@ -151,9 +169,9 @@ public final class BanListener {
                         if (!BanVersion.v12OrMore) e.getPlayer().updateInventory();
                     }
                 }
-            }, priority.contains(BanAction.BREAK));
+            });
 
-            registerEvent(BlockBreakEvent.class, (li, event) -> {
+            registerEvent(BlockBreakEvent.class, BanAction.BREAK, (context, event) -> {
                 if (!(event instanceof BlockBreakEvent)) return; // // also called for FurnaceExtractEvent...
                 final BlockBreakEvent e = (BlockBreakEvent) event;
                 final ItemStack itemInHand = Utils.getItemInHand(e.getPlayer());
@@ -161,11 +179,11 @@ public final class BanListener {
                     e.setCancelled(true);
                     if (!BanVersion.v12OrMore) e.getPlayer().updateInventory();
                 }
-            }, priority.contains(BanAction.BREAK));
+            });
         }
 
         if (blacklist.contains(BanAction.BREW) || whitelist) {
-            registerEvent(BrewEvent.class, (li, event) -> {
+            registerEvent(BrewEvent.class, BanAction.BREW, (context, event) -> {
                 final BrewEvent e = (BrewEvent) event;
                 final ItemStack ingridient = e.getContents().getIngredient() == null ? null : e.getContents().getIngredient().clone();
                 final List<ItemStack> items = new ArrayList<>();
@@ -187,11 +205,11 @@ public final class BanListener {
                         }
                     }
                 });
-            }, priority.contains(BanAction.BREW));
+            });
         }
 
         if (blacklist.contains(BanAction.CLICK) || whitelist) {
-            registerEvent(PlayerInteractEvent.class, (li, event) -> {
+            registerEvent(PlayerInteractEvent.class, BanAction.CLICK, (context, event) -> {
                 final PlayerInteractEvent e = (PlayerInteractEvent) event;
                 if (e.useItemInHand() == Event.Result.DENY || ((e.useInteractedBlock() == Event.Result.DENY) && e.getAction() != Action.LEFT_CLICK_AIR))
                     return;
@@ -209,22 +227,22 @@ public final class BanListener {
                         }
                     }
                 }
-            }, priority.contains(BanAction.CLICK));
+            });
         }
 
         if (blacklist.contains(BanAction.CONSUME) || whitelist) {
-            registerEvent(PlayerItemConsumeEvent.class, (li, event) -> {
+            registerEvent(PlayerItemConsumeEvent.class, BanAction.CONSUME, (context, event) -> {
                 final PlayerItemConsumeEvent e = (PlayerItemConsumeEvent) event;
                 if (Utils.isNullOrAir(e.getItem())) return;
                 if (api.isBanned(e.getPlayer(), e.getItem(), true, BanAction.CONSUME)) {
                     e.setCancelled(true);
                     if (!BanVersion.v12OrMore) e.getPlayer().updateInventory();
                 }
-            }, priority.contains(BanAction.CONSUME));
+            });
         }
 
         if (blacklist.contains(BanAction.CRAFT) || whitelist) {
-            registerEvent(CraftItemEvent.class, (ll, event) -> {
+            registerEvent(CraftItemEvent.class, BanAction.CRAFT, (context, event) -> {
                 if (!(event instanceof CraftItemEvent)) return;
                 final CraftItemEvent e = (CraftItemEvent) event;
                 final ItemStack item = e.getInventory().getResult();
@@ -234,60 +252,60 @@ public final class BanListener {
                     if (api.isBanned(p, item, true, BanAction.CRAFT))
                         e.getInventory().setResult(null);
                 }
-            }, priority.contains(BanAction.CRAFT));
+            });
         }
 
         if (blacklist.contains(BanAction.DELETE)) {
-            registerEvent(InventoryOpenEvent.class, (ll, event) -> {
+            registerEvent(InventoryOpenEvent.class, BanAction.DELETE, (context, event) -> {
                 final InventoryOpenEvent e = (InventoryOpenEvent) event;
                 pl.getUtils().deleteItemFromInventoryView((Player) e.getPlayer());
-            }, priority.contains(BanAction.DELETE));
-            registerEvent(InventoryCloseEvent.class, (ll, event) -> {
+            });
+            registerEvent(InventoryCloseEvent.class, BanAction.DELETE, (context, event) -> {
                 final InventoryCloseEvent e = (InventoryCloseEvent) event;
                 pl.getUtils().deleteItemFromInventoryView((Player) e.getPlayer());
-            }, priority.contains(BanAction.DELETE));
+            });
         }
 
         if (blacklist.contains(BanAction.DISPENSE) || whitelist) {
-            registerEvent(BlockDispenseEvent.class, (li, event) -> {
+            registerEvent(BlockDispenseEvent.class, BanAction.DISPENSE, (context, event) -> {
                 final BlockDispenseEvent e = (BlockDispenseEvent) event;
                 if (api.isBanned(e.getBlock().getWorld(), e.getItem(), BanAction.DISPENSE)) e.setCancelled(true);
-            }, priority.contains(BanAction.DISPENSE));
+            });
         }
 
         if (blacklist.contains(BanAction.DROP) || whitelist) {
-            registerEvent(PlayerDropItemEvent.class, (li, event) -> {
+            registerEvent(PlayerDropItemEvent.class, BanAction.DROP, (context, event) -> {
                 final PlayerDropItemEvent e = (PlayerDropItemEvent) event;
                 if (api.isBanned(e.getPlayer(), e.getItemDrop().getItemStack(), true, BanAction.DROP))
                     e.setCancelled(true);
-            }, priority.contains(BanAction.DROP));
+            });
         }
 
         if (blacklist.contains(BanAction.DROPS) || whitelist) {
             if (BanVersion.v13OrMore)
-                registerEvent(BlockDropItemEvent.class, (li, event) -> {
+                registerEvent(BlockDropItemEvent.class, BanAction.DROPS, (context, event) -> {
                     if (!(event instanceof BlockDropItemEvent)) return; // also called for FurnaceExtractEvent...
                     final BlockDropItemEvent e = (BlockDropItemEvent) event;
                     final ItemStack itemInHand = Utils.getItemInHand(e.getPlayer());
                     e.getItems().removeIf(item -> api.isBanned(e.getPlayer(), e.getBlock().getLocation(), item.getItemStack(), true, BanAction.DROPS, new BanData(BanDataType.MATERIAL, itemInHand.getType())));
-                }, priority.contains(BanAction.DROPS));
+                });
             else
-                registerEvent(BlockBreakEvent.class, (li, event) -> {
+                registerEvent(BlockBreakEvent.class, BanAction.DROPS, (context, event) -> {
                     if (!(event instanceof BlockBreakEvent)) return; // also called for FurnaceExtractEvent...
                     final BlockBreakEvent e = (BlockBreakEvent) event;
                     final ItemStack itemInHand = Utils.getItemInHand(e.getPlayer());
                     if (e.getBlock().getDrops(itemInHand).stream().anyMatch(item -> api.isBanned(e.getPlayer(), e.getBlock().getLocation(), item, true, BanAction.DROPS, new BanData(BanDataType.MATERIAL, itemInHand.getType()))))
                         e.setDropItems(false);
-                }, priority.contains(BanAction.DROPS));
+                });
         }
 
         if (blacklist.contains(BanAction.ENCHANT) || whitelist) {
-            registerEvent(EnchantItemEvent.class, (li, event) -> {
+            registerEvent(EnchantItemEvent.class, BanAction.ENCHANT, (context, event) -> {
                 if (!(event instanceof EnchantItemEvent)) return;
                 final EnchantItemEvent e = (EnchantItemEvent) event;
                 if (api.isBanned(e.getEnchanter(), e.getEnchantBlock().getLocation(), e.getItem(), true, BanAction.ENCHANT, new BanData(BanDataType.ENCHANTMENT, EnchantmentWrapper.from(e.getEnchantsToAdd()))))
                     e.setCancelled(true);
-            }, priority.contains(BanAction.ENCHANT));
+            });
 
             if (BanVersion.v9OrMore) {
                 // Getting denied item
@@ -299,7 +317,7 @@ public final class BanListener {
                     denied = new ItemStack(Material.BARRIER);
                 }
                 final ItemStack finalDenied = denied;
-                registerEvent(PrepareAnvilEvent.class, (li, event) -> {
+                registerEvent(PrepareAnvilEvent.class, BanAction.ENCHANT, (context, event) -> {
                     if (!(event instanceof PrepareAnvilEvent)) return;
                     final PrepareAnvilEvent e = (PrepareAnvilEvent) event;
                     final ItemStack item = e.getInventory().getItem(0);
@@ -316,9 +334,9 @@ public final class BanListener {
                         e.setResult(finalDenied);
                         e.getInventory().setRepairCost(0);
                     }
-                }, priority.contains(BanAction.ENCHANT));
+                });
             } else
-                registerEvent(InventoryClickEvent.class, (li, event) -> {
+                registerEvent(InventoryClickEvent.class, BanAction.ENCHANT, (context, event) -> {
                     final InventoryClickEvent e = (InventoryClickEvent) event;
                     if (e.getView().getTopInventory().getType() != InventoryType.ANVIL) return;
 
@@ -350,11 +368,11 @@ public final class BanListener {
                             if (e.getRawSlot() == 2) e.setCancelled(true);
                         }
                     });
-                }, priority.contains(BanAction.ENCHANT));
+                });
         }
 
         if (blacklist.contains(BanAction.ENTITYDROP) || whitelist) {
-            registerEvent(EntityDeathEvent.class, (li, event) -> {
+            registerEvent(EntityDeathEvent.class, BanAction.ENTITYDROP, (context, event) -> {
                 final EntityDeathEvent e = (EntityDeathEvent) event;
                 final Player killer = e.getEntity().getKiller();
                 if (killer != null)
@@ -367,12 +385,12 @@ public final class BanListener {
                         if (i == null) return false;
                         return api.isBanned(e.getEntity().getWorld(), i, BanAction.ENTITYDROP, new BanData(BanDataType.ENTITY, e.getEntity().getType()));
                     });
-            }, priority.contains(BanAction.ENTITYDROP));
+            });
         }
 
         if (blacklist.contains(BanAction.ENTITYINTERACT) || whitelist) {
             if (BanVersion.v9OrMore)
-                registerEvent(PlayerInteractEntityEvent.class, (li, event) -> {
+                registerEvent(PlayerInteractEntityEvent.class, BanAction.ENTITYINTERACT, (context, event) -> {
                     final PlayerInteractEntityEvent e = (PlayerInteractEntityEvent) event;
 
                     if (e.getHand() != EquipmentSlot.HAND && e.getHand() != EquipmentSlot.OFF_HAND) {
@@ -385,22 +403,22 @@ public final class BanListener {
 
                     if (api.isBanned(e.getPlayer(), e.getRightClicked().getLocation(), item, true, BanAction.ENTITYINTERACT, new BanData(BanDataType.ENTITY, e.getRightClicked().getType())))
                         e.setCancelled(true);
-                }, priority.contains(BanAction.ENTITYINTERACT));
+                });
             else
-                registerEvent(PlayerInteractEntityEvent.class, (li, event) -> {
+                registerEvent(PlayerInteractEntityEvent.class, BanAction.ENTITYINTERACT, (context, event) -> {
                     final PlayerInteractEntityEvent e = (PlayerInteractEntityEvent) event;
                     if (api.isBanned(e.getPlayer(), e.getRightClicked().getLocation(), Utils.getItemInHand(e.getPlayer()), true, BanAction.ENTITYINTERACT, new BanData(BanDataType.ENTITY, e.getRightClicked().getType())))
                         e.setCancelled(true);
-                }, priority.contains(BanAction.ENTITYINTERACT));
+                });
         }
 
         if (blacklist.contains(BanAction.FILL) || whitelist) {
-            registerEvent(PlayerBucketFillEvent.class, (li, event) -> {
+            registerEvent(PlayerBucketFillEvent.class, BanAction.FILL, (context, event) -> {
                 final PlayerBucketFillEvent e = (PlayerBucketFillEvent) event;
                 final ItemStack item = Utils.getItemInHand(e.getPlayer());
                 if (api.isBanned(e.getPlayer(), e.getBlockClicked().getLocation(), item, true, BanAction.FILL, new BanData(BanDataType.MATERIAL, e.getBlockClicked().getType())))
                     e.setCancelled(true);
-            }, priority.contains(BanAction.FILL));
+            });
         }
 
         if (blacklist.contains(BanAction.GLIDE) || whitelist) {
@@ -408,7 +426,7 @@ public final class BanListener {
                 if (!all && !whitelist) // notifying if used an action unavailable on the current minecraft version
                     sender.sendMessage(Chat.color("&cCan not use the '&eglide&c' action in Minecraft < 1.9."));
             } else
-                registerEvent(org.bukkit.event.entity.EntityToggleGlideEvent.class, (li, event) -> {
+                registerEvent(org.bukkit.event.entity.EntityToggleGlideEvent.class, BanAction.GLIDE, (context, event) -> {
                     final org.bukkit.event.entity.EntityToggleGlideEvent e = (org.bukkit.event.entity.EntityToggleGlideEvent) event;
                     if (!(e.getEntity() instanceof Player)) return;
                     final Player p = (Player) e.getEntity();
@@ -443,36 +461,36 @@ public final class BanListener {
                             ee.setChestplate(null);
                         });
                     }
-                }, priority.contains(BanAction.GLIDE));
+                });
         }
 
         if (blacklist.contains(BanAction.HANGINGPLACE) || whitelist) {
-            registerEvent(HangingPlaceEvent.class, (li, event) -> {
+            registerEvent(HangingPlaceEvent.class, BanAction.HANGINGPLACE, (context, event) -> {
                 final HangingPlaceEvent e = (HangingPlaceEvent) event;
                 if (e.getPlayer() == null) return;
                 final ItemStack item = Utils.getItemInHand(e.getPlayer());
                 if (api.isBanned(e.getPlayer(), e.getEntity().getLocation(), item, true, BanAction.HANGINGPLACE, new BanData(BanDataType.ENTITY, e.getEntity().getType())))
                     e.setCancelled(true);
-            }, priority.contains(BanAction.HANGINGPLACE));
+            });
         }
 
         if (blacklist.contains(BanAction.HOLD) || whitelist) {
-            registerEvent(PlayerItemHeldEvent.class, (li, event) -> {
+            registerEvent(PlayerItemHeldEvent.class, BanAction.HOLD, (context, event) -> {
                 final PlayerItemHeldEvent e = (PlayerItemHeldEvent) event;
                 final ItemStack item = e.getPlayer().getInventory().getItem(e.getNewSlot());
                 if (item != null && api.isBanned(e.getPlayer(), item, true, BanAction.HOLD))
                     e.setCancelled(true);
-            }, priority.contains(BanAction.HOLD));
+            });
 
-            registerEvent(InventoryDragEvent.class, (li, event) -> {
+            registerEvent(InventoryDragEvent.class, BanAction.HOLD, (context, event) -> {
                 final InventoryDragEvent e = (InventoryDragEvent) event;
                 final Player p = (Player) e.getWhoClicked();
                 final ItemStack item = e.getOldCursor();
                 if (e.getInventorySlots().contains(p.getInventory().getHeldItemSlot()) && api.isBanned(p, item, true, BanAction.HOLD))
                     e.setCancelled(true);
-            }, priority.contains(BanAction.HOLD));
+            });
 
-            registerEvent(InventoryClickEvent.class, (li, event) -> {
+            registerEvent(InventoryClickEvent.class, BanAction.HOLD, (context, event) -> {
                 final InventoryClickEvent e = (InventoryClickEvent) event;
                 final Player p = (Player) e.getWhoClicked();
                 final int heldItemSlot = p.getInventory().getHeldItemSlot();
@@ -495,8 +513,8 @@ public final class BanListener {
                 }
 
                 // Shift click from another inventory?
-                if (!e.getView().getTopInventory().equals(e.getView().getBottomInventory()) && e.getView().getTopInventory().equals(Utils.getClickedInventory(e.getView(), e.getRawSlot())) && e.isShiftClick()) {
-                    final ItemStack item = e.getCurrentItem();
+                if (!e.getView().getTopInventory().equals(e.getView().getBottomInventory()) && e.getView().getTopInventory().equals(context.getClickedInventory(e)) && e.isShiftClick()) {
+                    final ItemStack item = context.getCurrentItem(e);
                     if (item == null) return;
                     final List<Integer> changedSlots = Utils.getChangedSlots(p.getInventory(), item);
                     if (changedSlots.contains(heldItemSlot) && api.isBanned(p, item, true, BanAction.HOLD)) {
@@ -511,33 +529,33 @@ public final class BanListener {
                     if (cursor != null && api.isBanned(p, cursor, true, BanAction.HOLD))
                         e.setCancelled(true);
                 }
-            }, priority.contains(BanAction.HOLD));
+            });
 
             // Pickup
             // >=1.12: EntityPickupItemEvent
             // <1.12: PlayerPickupItemEvent
             if (BanVersion.v12OrMore) {
-                registerEvent(org.bukkit.event.entity.EntityPickupItemEvent.class, (li, event) -> {
+                registerEvent(org.bukkit.event.entity.EntityPickupItemEvent.class, BanAction.HOLD, (context, event) -> {
                     final org.bukkit.event.entity.EntityPickupItemEvent e = (org.bukkit.event.entity.EntityPickupItemEvent) event;
                     if (!(e.getEntity() instanceof Player)) return;
                     final Player p = (Player) e.getEntity();
                     final int toSlot = p.getInventory().firstEmpty();
                     if (toSlot == p.getInventory().getHeldItemSlot() && api.isBanned(p, e.getItem().getLocation(), e.getItem().getItemStack(), true, BanAction.HOLD))
                         e.setCancelled(true);
-                }, priority.contains(BanAction.HOLD));
+                });
             } else {
-                registerEvent(org.bukkit.event.player.PlayerPickupItemEvent.class, (li, event) -> {
+                registerEvent(org.bukkit.event.player.PlayerPickupItemEvent.class, BanAction.HOLD, (context, event) -> {
                     final org.bukkit.event.player.PlayerPickupItemEvent e = (org.bukkit.event.player.PlayerPickupItemEvent) event;
                     final Player p = e.getPlayer();
                     final int toSlot = p.getInventory().firstEmpty();
                     if (toSlot == p.getInventory().getHeldItemSlot() && api.isBanned(p, e.getItem().getLocation(), e.getItem().getItemStack(), true, BanAction.HOLD))
                         e.setCancelled(true);
-                }, priority.contains(BanAction.HOLD));
+                });
             }
         }
 
         if (blacklist.contains(BanAction.INTERACT) || whitelist) {
-            registerEvent(PlayerInteractEvent.class, (li, event) -> {
+            registerEvent(PlayerInteractEvent.class, BanAction.INTERACT, (context, event) -> {
                 final PlayerInteractEvent e = (PlayerInteractEvent) event;
                 if (e.useInteractedBlock() == Event.Result.DENY || e.useItemInHand() == Event.Result.DENY) return;
                 if (e.getClickedBlock() != null && e.getAction() == Action.RIGHT_CLICK_BLOCK) {
@@ -547,35 +565,13 @@ public final class BanListener {
                         e.setCancelled(true);
                     }
                 }
-            }, priority.contains(BanAction.INTERACT));
-        }
-
-        if (blacklist.contains(BanAction.INVENTORYCLICK) || whitelist) {
-            registerEvent(InventoryClickEvent.class, (li, event) -> {
-                final InventoryClickEvent e = (InventoryClickEvent) event;
-                if (Utils.getClickedInventory(e.getView(), e.getRawSlot()) == null) return;
-
-                final Inventory inv;
-                final ItemStack item;
-
-                if (e.getHotbarButton() >= 0) {
-                    inv = e.getRawSlot() < e.getView().getTopInventory().getSize() ? e.getView().getTopInventory() : e.getView().getBottomInventory();
-                    item = e.getView().getBottomInventory().getItem(e.getHotbarButton());
-                } else {
-                    inv = Utils.getClickedInventory(e.getView(), e.getRawSlot());
-                    item = e.getCurrentItem();
-                }
-
-                if (!Utils.isNullOrAir(item))
-                    if (api.isBanned((Player) e.getWhoClicked(), item, true, BanAction.INVENTORYCLICK, new BanData(BanDataType.INVENTORY_FROM, inv.getType())))
-                        e.setCancelled(true);
-            }, priority.contains(BanAction.INVENTORYCLICK));
+            });
         }
 
         if (blacklist.contains(BanAction.INVENTORYCLICK) || whitelist) {
-            registerEvent(InventoryClickEvent.class, (li, event) -> {
+            registerEvent(InventoryClickEvent.class, BanAction.INVENTORYCLICK, (context, event) -> {
                 final InventoryClickEvent e = (InventoryClickEvent) event;
-                if (Utils.getClickedInventory(e.getView(), e.getRawSlot()) == null) return;
+                if (context.getClickedInventory(e) == null) return;
 
                 final Inventory inv;
                 final ItemStack item;
@@ -584,14 +580,14 @@ public final class BanListener {
                     inv = e.getRawSlot() < e.getView().getTopInventory().getSize() ? e.getView().getTopInventory() : e.getView().getBottomInventory();
                     item = e.getView().getBottomInventory().getItem(e.getHotbarButton());
                 } else {
-                    inv = Utils.getClickedInventory(e.getView(), e.getRawSlot());
-                    item = e.getCurrentItem();
+                    inv = context.getClickedInventory(e);
+                    item = context.getCurrentItem(e);
                 }
 
                 if (!Utils.isNullOrAir(item))
                     if (api.isBanned((Player) e.getWhoClicked(), item, true, BanAction.INVENTORYCLICK, new BanData(BanDataType.INVENTORY_FROM, inv.getType())))
                         e.setCancelled(true);
-            }, priority.contains(BanAction.INVENTORYCLICK));
+            });
         }
 
         if (blacklist.contains(BanAction.MENDING) || whitelist) {
@@ -599,45 +595,45 @@ public final class BanListener {
                 if (!all && !whitelist) // notifying if used an action unavailable on the current minecraft version
                     sender.sendMessage(Chat.color("&cCan not use the '&emending&c' action in Minecraft < 1.13."));
             } else
-                registerEvent(PlayerItemMendEvent.class, (ll, event) -> {
+                registerEvent(PlayerItemMendEvent.class, BanAction.MENDING, (context, event) -> {
                     final PlayerItemMendEvent e = (PlayerItemMendEvent) event;
                     if (api.isBanned(e.getPlayer(), e.getItem(), true, BanAction.MENDING))
                         e.setCancelled(true);
-                }, priority.contains(BanAction.MENDING));
+                });
         }
 
         if (blacklist.contains(BanAction.PICKUP) || whitelist) {
             // Pickup cooldown map clearing
-            registerEvent(PlayerQuitEvent.class, (li, event) -> pl.getUtils().getMessagesCooldown().remove(((PlayerQuitEvent) event).getPlayer().getUniqueId()), priority.contains(BanAction.PICKUP));
+            registerEvent(PlayerQuitEvent.class, null, (context, event) -> pl.getUtils().getMessagesCooldown().remove(((PlayerQuitEvent) event).getPlayer().getUniqueId()));
 
             if (BanVersion.v12OrMore)
-                registerEvent(org.bukkit.event.entity.EntityPickupItemEvent.class, (li, event) -> {
+                registerEvent(org.bukkit.event.entity.EntityPickupItemEvent.class, BanAction.PICKUP, (context, event) -> {
                     final org.bukkit.event.entity.EntityPickupItemEvent e = (org.bukkit.event.entity.EntityPickupItemEvent) event;
                     if (!(e.getEntity() instanceof Player)) return;
                     if (api.isBanned((Player) e.getEntity(), e.getItem().getLocation(), e.getItem().getItemStack(), true, BanAction.PICKUP))
                         e.setCancelled(true);
-                }, priority.contains(BanAction.PICKUP));
+                });
             else
-                registerEvent(org.bukkit.event.player.PlayerPickupItemEvent.class, (li, event) -> {
+                registerEvent(org.bukkit.event.player.PlayerPickupItemEvent.class, BanAction.PICKUP, (context, event) -> {
                     final org.bukkit.event.player.PlayerPickupItemEvent e = (org.bukkit.event.player.PlayerPickupItemEvent) event;
                     if (api.isBanned(e.getPlayer(), e.getItem().getLocation(), e.getItem().getItemStack(), true, BanAction.PICKUP))
                         e.setCancelled(true);
-                }, priority.contains(BanAction.PICKUP));
+                });
         }
 
         if (blacklist.contains(BanAction.PLACE) || whitelist) {
-            registerEvent(BlockPlaceEvent.class, (li, event) -> {
+            registerEvent(BlockPlaceEvent.class, BanAction.PLACE, (context, event) -> {
                 final BlockPlaceEvent e = (BlockPlaceEvent) event;
                 if (Utils.isNullOrAir(e.getItemInHand())) return;
                 if (api.isBanned(e.getPlayer(), e.getItemInHand(), true, BanAction.PLACE, new BanData(BanDataType.MATERIAL, e.getBlockAgainst().getType()))) {
                     e.setCancelled(true);
                     if (!BanVersion.v12OrMore) e.getPlayer().updateInventory();
                 }
-            }, priority.contains(BanAction.PLACE));
+            });
         }
 
         if (blacklist.contains(BanAction.USE) || whitelist) {
-            registerEvent(PlayerInteractEvent.class, (li, event) -> {
+            registerEvent(PlayerInteractEvent.class, BanAction.USE, (context, event) -> {
                 final PlayerInteractEvent e = (PlayerInteractEvent) event;
                 if (Utils.isNullOrAir(e.getItem())) return;
                 if (e.getAction() == Action.RIGHT_CLICK_BLOCK || e.getAction() == Action.RIGHT_CLICK_AIR) {
@@ -653,13 +649,13 @@ public final class BanListener {
                         }
                     }
                 }
-            }, priority.contains(BanAction.USE));
+            });
         }
 
         if (blacklist.contains(BanAction.RENAME) || whitelist) {
-            registerEvent(InventoryClickEvent.class, (li, event) -> {
+            registerEvent(InventoryClickEvent.class, BanAction.RENAME, (context, event) -> {
                 final InventoryClickEvent e = (InventoryClickEvent) event;
-                final Inventory inv = Utils.getClickedInventory(e.getView(), e.getRawSlot());
+                final Inventory inv = context.getClickedInventory(e);
                 if (inv == null) return;
                 if (inv.getType() != InventoryType.ANVIL || e.getRawSlot() != 2) return;
 
@@ -679,11 +675,11 @@ public final class BanListener {
                     if (api.isBanned((Player) e.getWhoClicked(), item, true, BanAction.RENAME))
                         e.setCancelled(true);
 
-            }, priority.contains(BanAction.RENAME));
+            });
 
             final List<String> renameCommands = pl.getBanConfig().getConfig().getStringList("actions.rename");
             if (renameCommands.size() > 0)
-                registerEvent(PlayerCommandPreprocessEvent.class, (li, event) -> {
+                registerEvent(PlayerCommandPreprocessEvent.class, BanAction.RENAME, (context, event) -> {
                     final PlayerCommandPreprocessEvent e = (PlayerCommandPreprocessEvent) event;
                     for (final String command : renameCommands)
                         if (e.getMessage().toLowerCase().startsWith(command.toLowerCase()))
@@ -691,11 +687,11 @@ public final class BanListener {
                                 e.setCancelled(true);
                                 return;
                             }
-                }, priority.contains(BanAction.RENAME));
+                });
         }
 
         if (blacklist.contains(BanAction.SMELT) || whitelist) {
-            registerEvent(FurnaceSmeltEvent.class, (li, event) -> {
+            registerEvent(FurnaceSmeltEvent.class, BanAction.SMELT, (context, event) -> {
                 if (!(event instanceof FurnaceSmeltEvent)) return;
                 final FurnaceSmeltEvent e = (FurnaceSmeltEvent) event;
                 final ItemStack item = e.getSource();
@@ -709,7 +705,7 @@ public final class BanListener {
                         e.setCancelled(true);
                     }
                 }
-            }, priority.contains(BanAction.SMELT));
+            });
         }
 
         if (blacklist.contains(BanAction.SMITH) || whitelist) {
@@ -717,7 +713,7 @@ public final class BanListener {
                 if (!all && !whitelist) // notifying if used an action unavailable on the current minecraft version
                     sender.sendMessage(Chat.color("&cCan not use the '&esmith&c' action in Minecraft < 1.16."));
             } else
-                registerEvent(PrepareSmithingEvent.class, (ll, event) -> {
+                registerEvent(PrepareSmithingEvent.class, BanAction.SMITH, (context, event) -> {
                     if (!(event instanceof PrepareSmithingEvent)) return; // called for PrepareResultEvent too...
                     final PrepareSmithingEvent e = (PrepareSmithingEvent) event;
                     final ItemStack item = e.getResult();
@@ -727,7 +723,7 @@ public final class BanListener {
                         if (api.isBanned(p, item, true, BanAction.SMITH))
                             e.setResult(null);
                     }
-                }, priority.contains(BanAction.SMITH));
+                });
         }
 
         if (blacklist.contains(BanAction.SWAP) || whitelist) {
@@ -735,7 +731,7 @@ public final class BanListener {
                 if (!all && !whitelist) // notifying if used an action unavailable on the current minecraft version
                     sender.sendMessage(Chat.color("&cCan not use the '&eswap&c' action in Minecraft < 1.9."));
             } else {
-                registerEvent(org.bukkit.event.player.PlayerSwapHandItemsEvent.class, (li, event) -> {
+                registerEvent(org.bukkit.event.player.PlayerSwapHandItemsEvent.class, BanAction.SWAP, (context, event) -> {
                     final org.bukkit.event.player.PlayerSwapHandItemsEvent e = (org.bukkit.event.player.PlayerSwapHandItemsEvent) event;
                     if (e.getMainHandItem() != null && api.isBanned(e.getPlayer(), e.getMainHandItem(), true, BanAction.SWAP)) {
                         e.setCancelled(true);
@@ -743,9 +739,9 @@ public final class BanListener {
                     }
                     if (e.getOffHandItem() != null && api.isBanned(e.getPlayer(), e.getOffHandItem(), true, BanAction.SWAP))
                         e.setCancelled(true);
-                }, priority.contains(BanAction.SWAP));
+                });
 
-                registerEvent(InventoryClickEvent.class, (li, event) -> {
+                registerEvent(InventoryClickEvent.class, BanAction.SWAP, (context, event) -> {
                     final InventoryClickEvent e = (InventoryClickEvent) event;
                     if (e.getInventory().getType() != InventoryType.PLAYER && e.getInventory().getType() != InventoryType.CRAFTING)
                         return;
@@ -762,14 +758,14 @@ public final class BanListener {
                     }
 
                     if (e.isShiftClick()) {
-                        final ItemStack item = e.getCurrentItem();
+                        final ItemStack item = context.getCurrentItem(e);
                         if (!Utils.isNullOrAir(item))
                             if (api.isBanned((Player) e.getWhoClicked(), item, true, BanAction.SWAP))
                                 e.setCancelled(true);
                     }
-                }, priority.contains(BanAction.SWAP));
+                });
 
-                registerEvent(InventoryDragEvent.class, (li, event) -> {
+                registerEvent(InventoryDragEvent.class, BanAction.SWAP, (context, event) -> {
                     final InventoryDragEvent e = (InventoryDragEvent) event;
                     if (e.getRawSlots().contains(45)) {
                         final ItemStack item = e.getNewItems().get(45);
@@ -777,7 +773,7 @@ public final class BanListener {
                             if (api.isBanned((Player) e.getWhoClicked(), item, true, BanAction.SWAP))
                                 e.setCancelled(true);
                     }
-                }, priority.contains(BanAction.SWAP));
+                });
             }
         }
 
@@ -786,7 +782,7 @@ public final class BanListener {
                 if (!all && !whitelist) // notifying if used an action unavailable on the current minecraft version
                     sender.sendMessage(Chat.color("&cCan not use the '&esweepingedge&c' action in Minecraft < 1.12."));
             } else
-                registerEvent(EntityDamageByEntityEvent.class, (li, event) -> {
+                registerEvent(EntityDamageByEntityEvent.class, BanAction.SWEEPINGEDGE, (context, event) -> {
                     if (!(event instanceof EntityDamageByEntityEvent))
                         return; // this event is called even for EntityDamageByBlockEvent. Weird?
                     final EntityDamageByEntityEvent e = (EntityDamageByEntityEvent) event;
@@ -796,14 +792,14 @@ public final class BanListener {
                     final ItemStack itemInHand = Utils.getItemInHand(damager);
                     if (api.isBanned(damager, e.getEntity().getLocation(), itemInHand, true, BanAction.SWEEPINGEDGE, new BanData(BanDataType.ENTITY, e.getEntityType())))
                         e.setCancelled(true);
-                }, priority.contains(BanAction.SWEEPINGEDGE));
+                });
         }
 
         if (blacklist.contains(BanAction.TRANSFER) || whitelist) {
             // Clicking
-            registerEvent(InventoryClickEvent.class, (li, event) -> {
+            registerEvent(InventoryClickEvent.class, BanAction.TRANSFER, (context, event) -> {
                 final InventoryClickEvent e = (InventoryClickEvent) event;
-                final Inventory invClicked = Utils.getClickedInventory(e.getView(), e.getRawSlot());
+                final Inventory invClicked = context.getClickedInventory(e);
                 if (invClicked == null) return;
 
                 final Player p = (Player) e.getWhoClicked();
@@ -821,7 +817,7 @@ public final class BanListener {
 
                 if (invClicked.equals(bottom)) { // Player Inventory clicked
                     if (e.isShiftClick() && e.getAction() == InventoryAction.MOVE_TO_OTHER_INVENTORY) {
-                        final ItemStack item = e.getCurrentItem();
+                        final ItemStack item = context.getCurrentItem(e);
                         if (Utils.isNullOrAir(item)) return;
                         // Banned?
                         if (api.isBanned(p, item, true, BanAction.TRANSFER, new BanData(BanDataType.INVENTORY_FROM, bottom.getType()), new BanData(BanDataType.INVENTORY_TO, top.getType())))
@@ -830,7 +826,7 @@ public final class BanListener {
                 } else { // Top container clicked
                     // Shift
                     if (e.isShiftClick() && e.getAction() == InventoryAction.MOVE_TO_OTHER_INVENTORY) {
-                        final ItemStack item = e.getCurrentItem();
+                        final ItemStack item = context.getCurrentItem(e);
                         if (Utils.isNullOrAir(item)) return;
                         if (api.isBanned(p, item, true, BanAction.TRANSFER, new BanData(BanDataType.INVENTORY_FROM, top.getType()), new BanData(BanDataType.INVENTORY_TO, bottom.getType())))
                             e.setCancelled(true);
@@ -852,7 +848,7 @@ public final class BanListener {
                         }
 
                         // Normal click
-                        final ItemStack clickedItem = e.getCurrentItem();
+                        final ItemStack clickedItem = context.getCurrentItem(e);
                         final ItemStack cursorItem = e.getCursor();
 
                         // Trying to place the cursor item?
@@ -871,10 +867,10 @@ public final class BanListener {
                     }
                 }
 
-            }, priority.contains(BanAction.TRANSFER));
+            });
 
             // Dragging
-            registerEvent(InventoryDragEvent.class, (li, event) -> {
+            registerEvent(InventoryDragEvent.class, BanAction.TRANSFER, (context, event) -> {
                 final InventoryDragEvent e = (InventoryDragEvent) event;
                 final Player p = (Player) e.getWhoClicked();
                 // In its own inventory?
@@ -896,11 +892,11 @@ public final class BanListener {
                         new BanData(BanDataType.INVENTORY_FROM, e.getView().getBottomInventory().getType()),
                         new BanData(BanDataType.INVENTORY_TO, e.getView().getTopInventory().getType())))
                     e.setCancelled(true);
-            }, priority.contains(BanAction.TRANSFER));
+            });
 
             // Hoppers block?
             if (pl.getBanConfig().getConfig().getBoolean("actions.transfer.hoppers-block")) {
-                registerEvent(InventoryMoveItemEvent.class, (li, event) -> {
+                registerEvent(InventoryMoveItemEvent.class, BanAction.TRANSFER, (context, event) -> {
                     final InventoryMoveItemEvent e = (InventoryMoveItemEvent) event;
                     if (e.getSource().getHolder() instanceof BlockState) {
                         final BlockState bs = (BlockState) e.getSource().getHolder();
@@ -909,29 +905,29 @@ public final class BanListener {
                                 new BanData(BanDataType.INVENTORY_TO, e.getDestination().getType())))
                             e.setCancelled(true);
                     }
-                }, priority.contains(BanAction.TRANSFER));
+                });
 
-                registerEvent(InventoryPickupItemEvent.class, (li, event) -> {
+                registerEvent(InventoryPickupItemEvent.class, BanAction.TRANSFER, (context, event) -> {
                     final InventoryPickupItemEvent e = (InventoryPickupItemEvent) event;
                     if (api.isBanned(e.getItem().getWorld(), e.getItem().getItemStack(), BanAction.TRANSFER, new BanData(BanDataType.INVENTORY_TO, InventoryType.HOPPER)))
                         e.setCancelled(true);
-                }, priority.contains(BanAction.TRANSFER));
+                });
             }
         }
 
         if (blacklist.contains(BanAction.UNFILL) || whitelist) {
-            registerEvent(PlayerBucketEmptyEvent.class, (li, event) -> {
+            registerEvent(PlayerBucketEmptyEvent.class, BanAction.FILL, (context, event) -> {
                 final PlayerBucketEmptyEvent e = (PlayerBucketEmptyEvent) event;
                 final ItemStack item = Utils.getItemInHand(e.getPlayer());
                 if (api.isBanned(e.getPlayer(), e.getBlockClicked().getLocation(), item, true, BanAction.UNFILL, new BanData(BanDataType.MATERIAL, e.getBlockClicked().getType()))) {
                     e.setCancelled(true);
                     e.getPlayer().updateInventory();
                 }
-            }, priority.contains(BanAction.FILL));
+            });
         }
 
         if (blacklist.contains(BanAction.WEAR) || whitelist) {
-            registerEvent(InventoryClickEvent.class, (li, event) -> {
+            registerEvent(InventoryClickEvent.class, BanAction.WEAR, (context, event) -> {
                 final InventoryClickEvent e = (InventoryClickEvent) event;
                 if (e.getInventory().getType() != InventoryType.PLAYER && e.getInventory().getType() != InventoryType.CRAFTING)
                     return;
@@ -943,7 +939,7 @@ public final class BanListener {
                 }
 
                 // Trying to shift click item to armor?
-                final ItemStack currentItem = e.getCurrentItem();
+                final ItemStack currentItem = context.getCurrentItem(e);
                 if (e.isShiftClick() && !Utils.isNullOrAir(currentItem)) {
                     pl.getScheduler().runTask(() -> pl.getUtils().checkPlayerArmors((Player) e.getWhoClicked()));
                     return;
@@ -955,12 +951,12 @@ public final class BanListener {
                     if (!Utils.isNullOrAir(item))
                         pl.getScheduler().runTask(() -> pl.getUtils().checkPlayerArmors((Player) e.getWhoClicked()));
                 }
-            }, priority.contains(BanAction.WEAR));
+            });
 
-            registerEvent(PlayerChangedWorldEvent.class, (li, event) -> {
+            registerEvent(PlayerChangedWorldEvent.class, BanAction.WEAR, (context, event) -> {
                 final PlayerChangedWorldEvent e = (PlayerChangedWorldEvent) event;
                 pl.getScheduler().runTask(() -> pl.getUtils().checkPlayerArmors(e.getPlayer()));
-            }, priority.contains(BanAction.WEAR));
+            });
 
             if (pl.getBanConfig().getConfig().getBoolean("actions.wear.region-check") && pl.getHooks().isWorldGuardEnabled()) {
                 final IWorldGuardHook hook = pl.getHooks().getWorldGuardHook();
@@ -968,41 +964,65 @@ public final class BanListener {
                     sender.sendMessage(Chat.color("&cCan not use the region checker for wear action, as worldguard is not reachable."));
                 else {
                     // Register the region change event
-                    registerEvent(PlayerMoveEvent.class, (li, event) -> {
+                    final RegionTracker tracker = new RegionTracker(hook);
+                    registerEvent(PlayerMoveEvent.class, BanAction.WEAR, (context, event) -> {
                         final PlayerMoveEvent e = (PlayerMoveEvent) event;
                         if (e.getTo() == null) return;
                         final Location from = e.getFrom();
                         final Location to = e.getTo();
                         if (from.getBlockX() == to.getBlockX() && from.getBlockY() == to.getBlockY() && from.getBlockZ() == to.getBlockZ())
                             return;
-                        if (!hook.getStandingRegions(from).equals(hook.getStandingRegions(to)))
+                        if (tracker.move(e.getPlayer(), from, to))
                             Bukkit.getPluginManager().callEvent(new PlayerRegionChangeEvent(e.getPlayer()));
-                    }, priority.contains(BanAction.WEAR));
+                    });
+                    registerEvent(PlayerQuitEvent.class, null, (context, event) -> tracker.remove(((PlayerQuitEvent) event).getPlayer().getUniqueId()));
 
-                    registerEvent(PlayerRegionChangeEvent.class, (li, event) -> {
+                    registerEvent(PlayerRegionChangeEvent.class, BanAction.WEAR, (context, event) -> {
                         final PlayerRegionChangeEvent e = (PlayerRegionChangeEvent) event;
                         pl.getScheduler().runTask(() -> pl.getUtils().checkPlayerArmors(e.getPlayer()));
-                    }, priority.contains(BanAction.WEAR));
+                    });
                 }
             }
 
             // Scanner?
             pl.getUtils().getWearScanner().setEnabled(pl.getBanConfig().getConfig().getBoolean("actions.wear.scanner"));
         }
+
+        // Cached bypass permissions clearing
+        if (!blacklist.isEmpty() || whitelist) {
+            registerEvent(PlayerQuitEvent.class, null, (context, event) -> pl.getUtils().getPermissionCache().invalidate(((PlayerQuitEvent) event).getPlayer().getUniqueId()));
+            registerEvent(PlayerChangedWorldEvent.class, null, (context, event) -> pl.getUtils().getPermissionCache().invalidate(((PlayerChangedWorldEvent) event).getPlayer().getUniqueId()));
+        }
+
+        registerDispatchers();
     }
 
     /**
-     * Registering a needed event
+     * Registering a needed event handler.
+     * Handlers of the same event class and priority are fused into a single {@link Dispatcher},
+     * registered once all the handlers are known.
      *
-     * @param c        the event class
-     * @param ee       the event executor
-     * @param priority if the event should have maximum priority
+     * @param c       the event class
+     * @param action  the action handled, using maximum priority if set in config, or null for a handler always run in normal priority
+     * @param handler the event handler
      */
-    private void registerEvent(@NotNull final Class<? extends Event> c, @NotNull final EventExecutor ee, final boolean priority) {
-        Bukkit.getPluginManager().registerEvent(c, listener, (priority ? EventPriority.LOWEST : EventPriority.NORMAL), ee, pl, !priority);
+    private void registerEvent(@NotNull final Class<? extends Event> c, @Nullable final BanAction action, @NotNull final Handler handler) {
+        final boolean maximum = action != null && priority.contains(action);
+        final Dispatcher dispatcher = (maximum ? lowest : normal).computeIfAbsent(c, k -> new Dispatcher(index));
+        dispatcher.add(action, handler);
         activated++;
     }
 
+    /**
+     * Registering the dispatchers of the needed events
+     */
+    private void registerDispatchers() {
+        for (final Map.Entry<Class<? extends Event>, Dispatcher> e : lowest.entrySet())
+            Bukkit.getPluginManager().registerEvent(e.getKey(), listener, EventPriority.LOWEST, e.getValue(), pl, false);
+        for (final Map.Entry<Class<? extends Event>, Dispatcher> e : normal.entrySet())
+            Bukkit.getPluginManager().registerEvent(e.getKey(), listener, EventPriority.NORMAL, e.getValue(), pl, true);
+    }
+
     /**
      * Get the amount of events listened
      *
@@ -1011,4 +1031,108 @@ public final class BanListener {
     public int getActivated() {
         return activated;
     }
+
+    /**
+     * An event handler of an action
+     */
+    @FunctionalInterface
+    interface Handler {
+        void handle(@NotNull Context context, @NotNull Event event);
+    }
+
+    /**
+     * Executor running all the handlers of an event class & priority, sharing the same context.
+     * Handlers of actions which can not apply in the world of the event are skipped, and the dispatch
+     * stops as soon as a handler cancelled the event <i>(events already cancelled are checked by all handlers in maximum priority)</i>.
+     */
+    static final class Dispatcher implements EventExecutor {
+        private final Supplier<BanIndex> index;
+        private final List<Handler> handlers = new ArrayList<>();
+        private final List<BanAction> actions = new ArrayList<>();
+
+        /**
+         * @param index supplier of the current index, used to check the actions of the world of the events
+         */
+        Dispatcher(@NotNull final Supplier<BanIndex> index) {
+            this.index = index;
+        }
+
+        /**
+         * Adding a handler, run after the handlers already added
+         * @param action the action handled, or null for a handler run in every world
+         * @param handler the event handler
+         */
+        void add(@Nullable final BanAction action, @NotNull final Handler handler) {
+            handlers.add(handler);
+            actions.add(action);
+        }
+
+        @Override
+        public void execute(@NotNull final Listener listener, @NotNull final Event event) {
+            final World world = getWorld(event);
+            final BanIndex index = world == null ? null : this.index.get();
+            final Cancellable cancellable = event instanceof Cancellable ? (Cancellable) event : null;
+            final boolean cancelled = cancellable != null && cancellable.isCancelled();
+            Context context = null;
+            for (int i = 0; i < handlers.size(); i++) {
+                // Checking if the action can apply in this world
+                final BanAction action = actions.get(i);
+                if (action != null && index != null && !index.isActive(world, action)) continue;
+
+                if (context == null) context = new Context();
+                handlers.get(i).handle(context, event);
+                if (!cancelled && cancellable != null && cancellable.isCancelled()) return;
+            }
+        }
+    }
+
+    /**
+     * Get the world where an event happens, used to skip the actions not used in this world
+     * @param event the event
+     * @return the world of the event, or null if unknown
+     */
+    @Nullable
+    private static World getWorld(@NotNull final Event event) {
+        if (event instanceof PlayerEvent) return ((PlayerEvent) event).getPlayer().getWorld();
+        if (event instanceof InventoryEvent) return ((InventoryEvent) event).getView().getPlayer().getWorld();
+        if (event instanceof BlockEvent) return ((BlockEvent) event).getBlock().getWorld();
+        if (event instanceof EntityEvent) return ((EntityEvent) event).getEntity().getWorld();
+        if (event instanceof HangingEvent) return ((HangingEvent) event).getEntity().getWorld();
+        return null;
+    }
+
+    /**
+     * Values shared by the handlers of a same event, computed once when first needed
+     */
+    static final class Context {
+        private Inventory clickedInventory;
+        private ItemStack currentItem;
+        private boolean clickedInventoryComputed, currentItemComputed;
+
+        /**
+         * @param e the click event
+         * @return the clicked inventory
+         */
+        @Nullable
+        private Inventory getClickedInventory(@NotNull final InventoryClickEvent e) {
+            if (!clickedInventoryComputed) {
+                clickedInventory = Utils.getClickedInventory(e.getView(), e.getRawSlot());
+                clickedInventoryComputed = true;
+            }
+            return clickedInventory;
+        }
+
+        /**
+         * @param e the click event
+         * @return the clicked item
+         */
+        @Nullable
+        private ItemStack getCurrentItem(@NotNull final InventoryClickEvent e) {
+            if (!currentItemComputed) {
+                currentItem = e.getCurrentItem();
+                currentItemComputed = true;
+            }
+            return currentItem;
+        }
+    }
 }
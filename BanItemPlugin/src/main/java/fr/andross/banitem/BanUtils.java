@@ -25,6 +25,7 @@ import fr.andross.banitem.database.Blacklist;
 import fr.andross.banitem.events.DeleteBannedItemEvent;
 import fr.andross.banitem.items.BannedItem;
 import fr.andross.banitem.utils.Chat;
+import fr.andross.banitem.utils.PermissionCache;
 import fr.andross.banitem.utils.Utils;
 import fr.andross.banitem.utils.debug.Debug;
 import fr.andross.banitem.utils.enchantments.EnchantmentWrapper;
@@ -58,7 +59,7 @@ import java.util.stream.Collectors;
 
 /**
  * An utility class for the plugin
- * @version 3.4
+ * @version 3.5
  * @author Andross
  */
 public final class BanUtils {
@@ -68,6 +69,7 @@ public final class BanUtils {
     private final Map<String, String> commandsAliases = new HashMap<>();
     private final Map<UUID, Long> messagesCooldown = new HashMap<>();
     private final Set<UUID> logging = new HashSet<>();
+    private final PermissionCache permissionCache = new PermissionCache();
 
     BanUtils(final BanItem pl) {
         this.pl = pl;
@@ -86,6 +88,19 @@ public final class BanUtils {
      */
     @NotNull
     public Map<BanAction, BanActionData> getBanActionsFromItemSection(@NotNull final List<World> worlds, @Nullable final ConfigurationSection section, @NotNull final Debug d) {
+        return getBanActionsFromItemSection(pl.getHooks(), worlds, section, d);
+    }
+
+    /**
+     * Get a map of actions and actions data from a section, using these hooks
+     * @param hooks the hooks to use, which can be the ones being loaded
+     * @param worlds list of worlds
+     * @param section section
+     * @param d debug
+     * @return a map containing the ban actions and their respective data from the ConfigurationSection
+     */
+    @NotNull
+    public Map<BanAction, BanActionData> getBanActionsFromItemSection(@NotNull final BanHooks hooks, @NotNull final List<World> worlds, @Nullable final ConfigurationSection section, @NotNull final Debug d) {
         final Map<BanAction, BanActionData> actions = new HashMap<>();
         if (section == null) return actions;
         final List<BanAction> ignoredActions = new ArrayList<>();
@@ -93,7 +108,7 @@ public final class BanUtils {
             for (String action : key.toUpperCase().trim().replaceAll("\\s+", "").split(",")) {
                 final Debug newDebug = d.clone();
                 try {
-                    final BanActionData bo = getBanActionsForItem(worlds, section, key, newDebug.add(ListType.ACTION, key));
+                    final BanActionData bo = getBanActionsForItem(hooks, worlds, section, key, newDebug.add(ListType.ACTION, key));
                     if (action.equals("*")) {
                         for (final BanAction banAction : BanAction.values()) actions.put(banAction, bo);
                         continue;
@@ -123,6 +138,20 @@ public final class BanUtils {
      */
     @NotNull
     public BanActionData getBanActionsForItem(@NotNull final List<World> worlds, @NotNull final ConfigurationSection itemSection, @NotNull final String key, @NotNull final Debug d) {
+        return getBanActionsForItem(pl.getHooks(), worlds, itemSection, key, d);
+    }
+
+    /**
+     * Get ban actions data for a section, using these hooks
+     * @param hooks the hooks to use, which can be the ones being loaded
+     * @param worlds list of worlds, used for regions
+     * @param itemSection the item section
+     * @param key the current data key
+     * @param d debug
+     * @return actions data from the section of the specific action
+     */
+    @NotNull
+    public BanActionData getBanActionsForItem(@NotNull final BanHooks hooks, @NotNull final List<World> worlds, @NotNull final ConfigurationSection itemSection, @NotNull final String key, @NotNull final Debug d) {
         final BanActionData banActionData = new BanActionData();
         final ConfigurationSection section = itemSection.getConfigurationSection(key);
         if (section == null) {
@@ -184,8 +213,11 @@ public final class BanUtils {
 
                 case MATERIAL: {
                     final List<BannedItem> list = Listable.getList(ListType.ITEM, o, d.add(ListType.ITEM, actionData));
-                    if (!list.isEmpty())
-                        banActionData.getMap().put(BanDataType.MATERIAL, list.stream().map(BannedItem::getType).collect(Collectors.toSet()));
+                    if (!list.isEmpty()) {
+                        final Set<Material> materials = EnumSet.noneOf(Material.class);
+                        for (final BannedItem item : list) materials.add(item.getType());
+                        banActionData.getMap().put(BanDataType.MATERIAL, materials);
+                    }
                     break;
                 }
 
@@ -204,11 +236,11 @@ public final class BanUtils {
                 }
 
                 case REGION: {
-                    if (!pl.getHooks().isWorldGuardEnabled()) {
+                    if (!hooks.isWorldGuardEnabled()) {
                         d.clone().add(ListType.REGION, "&cUsed region metadata, but WorldGuard is not available.").sendDebug();
                         continue;
                     }
-                    final List<com.sk89q.worldguard.protection.regions.ProtectedRegion> regions = Listable.getRegionsList(pl, o, d.add(ListType.REGION, actionData), worlds);
+                    final List<com.sk89q.worldguard.protection.regions.ProtectedRegion> regions = Listable.getRegionsList(hooks, o, d.add(ListType.REGION, actionData), worlds);
                     if (!regions.isEmpty())
                         banActionData.getMap().put(BanDataType.REGION, new HashSet<>(regions));
                     break;
@@ -258,7 +290,7 @@ public final class BanUtils {
                 if (Utils.isNullOrAir(item)) continue;
                 final BannedItem bannedItem = new BannedItem(item);
                 if (pl.getApi().isBanned(player, player.getLocation(), bannedItem, BanAction.DELETE)) {
-                    if (pl.getConfig().getBoolean("api.deletebanneditemevent")) {
+                    if (pl.getBanConfig().getConfig().getBoolean("api.deletebanneditemevent")) {
                         final DeleteBannedItemEvent event = new DeleteBannedItemEvent(player, bannedItem);
                         Bukkit.getPluginManager().callEvent(event);
                         if (event.isCancelled()) continue;
@@ -346,44 +378,16 @@ public final class BanUtils {
     }
 
     /**
-     * Method to check if the player has the bypass permission for either the item <i>(material name)</i> or custom name
+     * Method to check if the player has the bypass permission for either the item <i>(material name)</i> or custom name.
+     * The answers are cached per player, see {@link #getPermissionCache()}
      * @param player player to check
-     * @param itemName name of the item
+     * @param itemName name to lower case of the item
      * @param action action name
      * @param data additional data to check
      * @return true if the player has the permission to bypass the ban, otherwise false
      */
     public boolean hasPermission(@NotNull final Player player, @NotNull final String itemName, @NotNull final BanAction action, @Nullable final BanData... data) {
-        final String world = player.getWorld().getName().toLowerCase();
-        if (player.hasPermission("banitem.bypass.*")) return true;
-        if (player.hasPermission("banitem.bypass." + world + ".*")) return true;
-        if (player.hasPermission("banitem.bypass.allworlds.*")) return true;
-
-        if (!Utils.isNullOrEmpty(data)) {
-            if (player.hasPermission("banitem.bypass." + world + "." + itemName + "." + action.getName() + ".*")) return true;
-            if (player.hasPermission("banitem.bypass.allworlds." + itemName + "." + action.getName() + ".*")) return true;
-            if (player.hasPermission("banitem.bypass." + world + ".allitems." + action.getName() + ".*")) return true;
-            if (player.hasPermission("banitem.bypass.allworlds.allitems." + action.getName() + ".*")) return true;
-            for (final BanData bd : data) {
-                final String dataName = String.valueOf(bd.getObject()).toLowerCase(Locale.ROOT);
-                if (player.hasPermission("banitem.bypass." + world + "." + itemName + "." + action.getName() + "." + dataName)) return true;
-                if (player.hasPermission("banitem.bypass.allworlds." + itemName + "." + action.getName() + "." + dataName)) return true;
-                if (player.hasPermission("banitem.bypass." + world + ".allitems." + action.getName() + "." + dataName)) return true;
-                if (player.hasPermission("banitem.bypass.allworlds.allitems." + action.getName() + "." + dataName)) return true;
-            }
-        } else {
-            if (player.hasPermission("banitem.bypass." + world + "." + itemName + ".*")) return true;
-            if (player.hasPermission("banitem.bypass.allworlds." + itemName + "." + ".*")) return true;
-            if (player.hasPermission("banitem.bypass." + world + "." + itemName + "." + action.getName())) return true;
-            if (player.hasPermission("banitem.bypass.allworlds." + itemName + "." + action.getName())) return true;
-
-            if (player.hasPermission("banitem.bypass." + world + ".allitems.*")) return true;
-            if (player.hasPermission("banitem.bypass.allworlds.allitems." + ".*")) return true;
-            if (player.hasPermission("banitem.bypass." + world + ".allitems." + action.getName())) return true;
-            if (player.hasPermission("banitem.bypass.allworlds.allitems." + action.getName())) return true;
-        }
-
-        return false;
+        return permissionCache.hasPermission(player, itemName, action, data);
     }
 
     /**
@@ -591,6 +595,15 @@ public final class BanUtils {
         return messagesCooldown;
     }
 
+    /**
+     * The cache of the resolved bypass permissions of the players
+     * @return the permission cache
+     */
+    @NotNull
+    public PermissionCache getPermissionCache() {
+        return permissionCache;
+    }
+
     /**
      * This map contains the players who activated the log in game with <i>/banitem log</i>
      * Players which log mode is activated will receive the logs messages for the banned items, if set in config
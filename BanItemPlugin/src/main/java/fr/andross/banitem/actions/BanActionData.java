@@ -19,9 +19,11 @@ package fr.andross.banitem.actions;
 
 import fr.andross.banitem.utils.BanVersion;
 import fr.andross.banitem.utils.Chat;
+import fr.andross.banitem.utils.ObservedMap;
 import fr.andross.banitem.utils.enchantments.EnchantmentWrapper;
 import org.bukkit.GameMode;
 import org.bukkit.Material;
+import org.bukkit.enchantments.Enchantment;
 import org.bukkit.entity.EntityType;
 import org.bukkit.event.inventory.InventoryType;
 import org.jetbrains.annotations.NotNull;
@@ -35,12 +37,17 @@ import java.util.stream.Collectors;
  * Example: the messages, if the action should be logged, any item...
  * The data type is written as description in {@link BanDataType} description.
  * I've also included some clear api methods to get them, at the bottom.
- * @version 3.1
+ * The sets of enums and enchantments are compiled into lookup tables, to check the ban datas
+ * without any allocation. They are compiled again when the map is modified, so the sets should
+ * be replaced rather than modified directly.
+ * @version 3.5
  * @author Andross
  */
 public final class BanActionData {
-    private final Map<BanDataType, Object> map = new EnumMap<>(BanDataType.class);
+    private static final int TYPES = BanDataType.values().length;
+    private final Map<BanDataType, Object> map = new ObservedMap<>(new EnumMap<>(BanDataType.class), () -> conditions = null);
     private final Map<UUID, Long> cooldowns = new HashMap<>();
+    private volatile Conditions conditions;
 
     /**
      * Trying to get the data from this map
@@ -65,18 +72,67 @@ public final class BanActionData {
      * @param data the ban data to check
      * @return true if the data matches, otherwise false
      */
-    @SuppressWarnings("unchecked")
     public boolean contains(@Nullable final BanData data) {
+        return data == null || contains(data.getType(), data.getObject());
+    }
+
+    /**
+     * Trying to check if all the datas are present in this ban action datas.
+     * @param data the ban datas to check
+     * @return true if all the datas match <i>(or if there is no data)</i>, otherwise false
+     */
+    public boolean containsAll(@Nullable final BanData... data) {
         if (data == null) return true;
-        final Set<Object> s = getData(data.getType());
+        for (final BanData d : data)
+            if (!contains(d)) return false;
+        return true;
+    }
+
+    /**
+     * Trying to check if an object is present in the set of this data type.
+     * @param type the data type
+     * @param o the object, an instance described in {@link BanDataType}
+     * @return true if there is no set for this data type, or if the object is contained, otherwise false
+     */
+    @SuppressWarnings("unchecked")
+    public boolean contains(@NotNull final BanDataType type, @NotNull final Object o) {
+        final Conditions c = getConditions();
+        final int ordinal = type.ordinal();
+
+        // Enums?
+        final boolean[] ordinals = c.ordinals[ordinal];
+        if (ordinals != null) {
+            if (!(o instanceof Enum)) return false;
+            final int i = ((Enum<?>) o).ordinal();
+            return i < ordinals.length && ordinals[i];
+        }
 
         // Enchantment?
-        if (s != null && data.getType() == BanDataType.ENCHANTMENT) {
-            final Set<EnchantmentWrapper> enchants = (Set<EnchantmentWrapper>) data.getObject();
-            return !Collections.disjoint(s, enchants);
+        if (type == BanDataType.ENCHANTMENT && c.enchantments != null) {
+            for (final EnchantmentWrapper e : (Set<EnchantmentWrapper>) o) {
+                final BitSet levels = c.enchantments.get(getKey(e.getEnchantment()));
+                if (levels != null && e.getLevel() >= 0 && levels.get(e.getLevel())) return true;
+            }
+            return false;
+        }
+
+        final Object s = map.get(type);
+        return !(s instanceof Set) || ((Set<Object>) s).contains(o);
+    }
+
+    @NotNull
+    private Conditions getConditions() {
+        Conditions c = conditions;
+        if (c == null) {
+            c = new Conditions(map);
+            conditions = c;
         }
+        return c;
+    }
 
-        return s == null || s.contains(data.getObject());
+    @NotNull
+    private static Object getKey(@NotNull final Enchantment enchantment) {
+        return BanVersion.v13OrMore ? enchantment.getKey() : enchantment.getName();
     }
 
     /**
@@ -231,4 +287,41 @@ public final class BanActionData {
         return map;
     }
 
+    /**
+     * Compiled sets of the ban datas
+     */
+    private static final class Conditions {
+        private final boolean[][] ordinals = new boolean[TYPES][]; // enums sets, indexed by the enum ordinal
+        private final Map<Object, BitSet> enchantments; // enchantment levels
+
+        private Conditions(@NotNull final Map<BanDataType, Object> map) {
+            Map<Object, BitSet> enchantments = null;
+            for (final Map.Entry<BanDataType, Object> entry : map.entrySet()) {
+                if (!(entry.getValue() instanceof Collection)) continue;
+                final Collection<?> c = (Collection<?>) entry.getValue();
+                if (c.isEmpty()) continue;
+                final Object first = c.iterator().next();
+
+                // Enums
+                if (first instanceof Enum) {
+                    final boolean[] table = new boolean[((Enum<?>) first).getDeclaringClass().getEnumConstants().length];
+                    for (final Object o : c) table[((Enum<?>) o).ordinal()] = true;
+                    ordinals[entry.getKey().ordinal()] = table;
+                    continue;
+                }
+
+                // Enchantments
+                if (first instanceof EnchantmentWrapper && entry.getKey() == BanDataType.ENCHANTMENT) {
+                    enchantments = new HashMap<>();
+                    for (final Object o : c) {
+                        final EnchantmentWrapper e = (EnchantmentWrapper) o;
+                        if (e.getLevel() >= 0)
+                            enchantments.computeIfAbsent(getKey(e.getEnchantment()), k -> new BitSet()).set(e.getLevel());
+                    }
+                }
+            }
+            this.enchantments = enchantments;
+        }
+    }
+
 }
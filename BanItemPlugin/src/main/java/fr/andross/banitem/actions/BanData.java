@@ -19,16 +19,22 @@ package fr.andross.banitem.actions;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * The ban data used into a ban check
  * The object will be an instance of the described {@link BanDataType}
  * Example: if type == BanDataType.CREATIVE, the object is a boolean.
- * @version 3.1
+ * @version 3.5
  * @author Andross
  */
 public final class BanData {
+    private static final Map<Object, String> NAMES = new ConcurrentHashMap<>();
     private final BanDataType type;
     private final Object o;
+    private String name;
 
     public BanData(@NotNull final BanDataType type, @NotNull final Object o) {
         this.type = type;
@@ -50,4 +56,21 @@ public final class BanData {
     public Object getObject() {
         return o;
     }
+
+    /**
+     * Get the name to lower case of the object, used for the bypass permissions.
+     * Names of enum constants <i>(materials, entities...)</i> are only computed once.
+     * @return the name to lower case of the object
+     */
+    @NotNull
+    public String getName() {
+        if (name == null)
+            name = o instanceof Enum ? NAMES.computeIfAbsent(o, BanData::toName) : toName(o);
+        return name;
+    }
+
+    @NotNull
+    private static String toName(@NotNull final Object o) {
+        return String.valueOf(o).toLowerCase(Locale.ROOT);
+    }
 }
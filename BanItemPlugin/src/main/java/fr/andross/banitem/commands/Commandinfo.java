@@ -20,6 +20,7 @@ package fr.andross.banitem.commands;
 import fr.andross.banitem.BanItem;
 import fr.andross.banitem.items.BannedItem;
 import fr.andross.banitem.items.CustomBannedItem;
+import fr.andross.banitem.items.ItemFeatures;
 import fr.andross.banitem.utils.BanVersion;
 import fr.andross.banitem.utils.Utils;
 import org.bukkit.Bukkit;
@@ -38,7 +39,7 @@ import java.util.stream.Collectors;
 
 /**
  * Sub command info
- * @version 3.2
+ * @version 3.5
  * @author Andross
  */
 public class Commandinfo extends BanCommand {
@@ -91,6 +92,7 @@ public class Commandinfo extends BanCommand {
                 message("&7NBTAPI: &c" + UNCHECK);
 
             message("&7Bukkit version: " + Bukkit.getVersion());
+            message("&7Index cache hit rate: &e" + String.format(Locale.ROOT, "%.1f%%", pl.getBanDatabase().getIndex().getCacheHitRate() * 100));
             return;
         }
 
@@ -106,9 +108,10 @@ public class Commandinfo extends BanCommand {
         if (metaItemName != null) message("&7Meta item name: &e" + metaItemName);
 
         // Displaying matching custom items
+        final ItemFeatures features = new ItemFeatures(item);
         final List<CustomBannedItem> customItems = pl.getBanDatabase().getCustomItems().values()
                 .stream()
-                .filter(ci -> ci.matches(item))
+                .filter(ci -> ci.matches(features))
                 .collect(Collectors.toList());
         if (!customItems.isEmpty())
             message("&7Matching custom items: &e" + customItems.stream().map(CustomBannedItem::getName).collect(Collectors.joining(",")));
@@ -0,0 +1,66 @@
+/*
+ * BanItem - Lightweight, powerful & configurable per world ban item plugin
+ * Copyright (C) 2021 André Sustac
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your action) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.andross.banitem.database;
+
+import fr.andross.banitem.BanUtils;
+import fr.andross.banitem.actions.BanAction;
+import fr.andross.banitem.actions.BanData;
+import fr.andross.banitem.items.ItemProbe;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * State of a single ban check, shared by the blacklist and whitelist,
+ * so the bypass permissions of an item are only checked once.
+ * A check is reused by its {@link ItemProbe}, see {@link ItemProbe#getCheck(Player)}.
+ * @version 3.5
+ * @author Andross
+ */
+public final class BanCheck {
+    private Player player;
+    private String itemName;
+    private boolean bypass;
+
+    /**
+     * Creating an empty check, only used by the {@link ItemProbe}
+     */
+    public BanCheck() {
+    }
+
+    /**
+     * Starting a new check for this player, forgetting the previous bypass permission
+     * @param player the player checked, or null to only forget the previous check
+     */
+    public void reset(@Nullable final Player player) {
+        this.player = player;
+        this.itemName = null;
+    }
+
+    /**
+     * Check if the player has a bypass permission for this item, using the previous result for the same item name
+     * @see BanUtils#hasPermission(Player, String, BanAction, BanData...)
+     */
+    boolean hasPermission(@NotNull final BanUtils utils, @NotNull final String itemName, @NotNull final BanAction action, @Nullable final BanData... data) {
+        if (!itemName.equals(this.itemName)) {
+            bypass = utils.hasPermission(player, itemName, action, data);
+            this.itemName = itemName;
+        }
+        return bypass;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * BanItem - Lightweight, powerful & configurable per world ban item plugin
+ * Copyright (C) 2021 André Sustac
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your action) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.andross.banitem.database;
+
+import fr.andross.banitem.BanDatabase;
+import fr.andross.banitem.actions.BanAction;
+import fr.andross.banitem.actions.BanActionData;
+import fr.andross.banitem.actions.BanData;
+import fr.andross.banitem.items.ItemProbe;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Check an item against both blacklist and whitelist in a single pass.
+ * The world rules are resolved once from the {@link BanIndex}, the item is resolved once per list,
+ * and the bypass permissions are only checked once.
+ * Messages, events and commands are the same as {@link Blacklist#isBlacklisted(Player, Location, ItemProbe, boolean, BanAction, BanData...)}
+ * then {@link Whitelist#isWhitelisted(Player, Location, ItemProbe, boolean, BanAction, BanData...)}.
+ * @version 3.5
+ * @author Andross
+ */
+public final class BanEvaluator {
+    private final BanDatabase database;
+
+    /**
+     * Create an evaluator for this database
+     * @param database the database
+     */
+    public BanEvaluator(@NotNull final BanDatabase database) {
+        this.database = database;
+    }
+
+    /**
+     * Check if the probed item is banned for the player, in both blacklist and whitelist
+     * @param player player involved
+     * @param location the effective location where the action occurs, using player location if null
+     * @param probe the probed item
+     * @param sendMessage send a message to the player if banned
+     * @param action action to check
+     * @param data some ban data
+     * @return the verdict, with the list which banned the item
+     */
+    @NotNull
+    public BanVerdict evaluate(@NotNull final Player player, @Nullable final Location location, @NotNull final ItemProbe probe, final boolean sendMessage, @NotNull final BanAction action, @Nullable final BanData... data) {
+        final BanIndex.Rules rules = database.getIndex().get(player.getWorld());
+        if (rules == null || !rules.concerns(probe.getType(), action)) return BanVerdict.ALLOWED;
+
+        // Blacklist
+        final BanCheck check = probe.getCheck(player);
+        if (database.getBlacklist().isBlacklisted(player, location, probe, rules.getBlacklisted(probe), sendMessage, action, check, data))
+            return BanVerdict.BLACKLISTED;
+
+        // Whitelist
+        final WhitelistedWorld ww = rules.getWhitelistedWorld();
+        if (ww == null || ww.getIgnored().contains(action)) return BanVerdict.ALLOWED;
+        final BanActionData[] whitelisted = rules.getWhitelisted(probe);
+        final BanActionData whitelistData = whitelisted == null ? null : whitelisted[action.ordinal()];
+        return database.getWhitelist().isWhitelisted(player, location, probe, ww, whitelistData, sendMessage, action, check, data) ? BanVerdict.ALLOWED : BanVerdict.NOT_WHITELISTED;
+    }
+
+    /**
+     * Check if the probed item is banned, in both blacklist and whitelist, not involving a player
+     * @param world bukkit world
+     * @param probe the probed item
+     * @param action ban action
+     * @param data optional ban data
+     * @return the verdict, with the list which banned the item
+     */
+    @NotNull
+    public BanVerdict evaluate(@NotNull final World world, @NotNull final ItemProbe probe, @NotNull final BanAction action, @Nullable final BanData... data) {
+        final BanIndex.Rules rules = database.getIndex().get(world);
+        if (rules == null || !rules.concerns(probe.getType(), action)) return BanVerdict.ALLOWED;
+
+        // Blacklist
+        final BanActionData[] blacklisted = rules.getBlacklisted(probe);
+        final BanActionData blacklistData = blacklisted == null ? null : blacklisted[action.ordinal()];
+        if (blacklistData != null && blacklistData.containsAll(data)) return BanVerdict.BLACKLISTED;
+
+        // Whitelist
+        final WhitelistedWorld ww = rules.getWhitelistedWorld();
+        if (ww == null || ww.getIgnored().contains(action)) return BanVerdict.ALLOWED;
+        final BanActionData[] whitelisted = rules.getWhitelisted(probe);
+        final BanActionData whitelistData = whitelisted == null ? null : whitelisted[action.ordinal()];
+        return whitelistData != null && whitelistData.containsAll(data) ? BanVerdict.ALLOWED : BanVerdict.NOT_WHITELISTED;
+    }
+}
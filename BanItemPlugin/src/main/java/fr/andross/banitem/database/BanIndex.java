@@ -0,0 +1,351 @@
+/*
+ * BanItem - Lightweight, powerful & configurable per world ban item plugin
+ * Copyright (C) 2021 André Sustac
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your action) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.andross.banitem.database;
+
+import fr.andross.banitem.actions.BanAction;
+import fr.andross.banitem.actions.BanActionData;
+import fr.andross.banitem.database.items.Items;
+import fr.andross.banitem.items.BannedItem;
+import fr.andross.banitem.items.CustomBannedItem;
+import fr.andross.banitem.items.ItemProbe;
+import fr.andross.banitem.utils.LruCache;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compiled and immutable view of the blacklist and whitelist, merged per world.
+ * Ban actions are stored in arrays indexed by world, material ordinal and ban action ordinal,
+ * so a simple material lookup does not involve any map nor allocation.
+ * Items having meta or custom rules are still resolved through their {@link Items} map,
+ * and the result is cached per world table, as it does not depend on the player.
+ * Tables and their caches are never reused by a rebuilt index, so a modification of the lists also clears the cached results.
+ * This index is built by the {@link fr.andross.banitem.BanDatabase}, and rebuilt on its next lookup
+ * once the blacklist or whitelist is modified <i>(see {@link #isUpToDate()})</i>.
+ * @version 3.5
+ * @author Andross
+ */
+public final class BanIndex {
+    private static final int MATERIALS = Material.values().length;
+    private static final int ACTIONS = BanAction.values().length;
+    private static final int CACHE_SIZE = 1024;
+    private final Map<World, Rules> worlds = new IdentityHashMap<>();
+    private final Map<Map<BanAction, BanActionData>, BanActionData[]> rows = new IdentityHashMap<>();
+    private final Blacklist blacklist;
+    private final Whitelist whitelist;
+    private final int blacklistModifications;
+    private final int whitelistModifications;
+
+    /**
+     * Compiling the index of the blacklist.
+     * Worlds sharing the same items instance also share the same compiled table.
+     * @param blacklist the blacklist to compile
+     */
+    public BanIndex(@NotNull final Blacklist blacklist) {
+        this(blacklist, null);
+    }
+
+    /**
+     * Compiling the index of the blacklist and whitelist.
+     * Worlds sharing the same items instance also share the same compiled table.
+     * @param blacklist the blacklist to compile
+     * @param whitelist the whitelist to compile
+     */
+    public BanIndex(@NotNull final Blacklist blacklist, @Nullable final Whitelist whitelist) {
+        // Counted before compiling, so a modification made meanwhile is not missed
+        this.blacklist = blacklist;
+        this.whitelist = whitelist;
+        this.blacklistModifications = blacklist.getModifications();
+        this.whitelistModifications = whitelist == null ? 0 : whitelist.getModifications();
+
+        final Map<Items, Table> compiled = new IdentityHashMap<>();
+        for (final Map.Entry<World, Items> e : blacklist.entrySet()) {
+            final Rules rules = getRules(e.getKey());
+            rules.blacklist = compiled.computeIfAbsent(e.getValue(), this::compile);
+            rules.actions.addAll(e.getValue().getAllActions());
+        }
+        if (whitelist != null)
+            for (final Map.Entry<World, WhitelistedWorld> e : whitelist.entrySet()) {
+                final Rules rules = getRules(e.getKey());
+                rules.whitelistedWorld = e.getValue();
+                rules.whitelist = compile(e.getValue());
+                for (final BanAction action : BanAction.values()) // all actions not ignored are concerned by the whitelist
+                    if (!e.getValue().getIgnored().contains(action)) rules.actions.add(action);
+            }
+    }
+
+    /**
+     * Check if the blacklist and whitelist were not modified since this index was built
+     * @return true if this index is up to date, otherwise false
+     */
+    public boolean isUpToDate() {
+        return blacklist.getModifications() == blacklistModifications && (whitelist == null || whitelist.getModifications() == whitelistModifications);
+    }
+
+    @NotNull
+    private Rules getRules(@NotNull final World world) {
+        return worlds.computeIfAbsent(world, w -> new Rules());
+    }
+
+    @NotNull
+    private Table compile(@NotNull final Items items) {
+        final Table table = new Table(items);
+
+        // Simple materials & meta items
+        for (final Map.Entry<BannedItem, Map<BanAction, BanActionData>> e : items.getItems().entrySet()) {
+            final BannedItem item = e.getKey();
+            final BanActionData[] row = compileRow(e.getValue());
+            final int ordinal = item.getType().ordinal();
+            if (item.getItemMeta() == null && item.getData() == 0)
+                table.plain[ordinal] = row;
+            else
+                table.complex.set(ordinal);
+        }
+
+        // Custom items
+        for (final Map.Entry<CustomBannedItem, Map<BanAction, BanActionData>> e : items.getCustomItems().entrySet()) {
+            compileRow(e.getValue());
+            for (final Material m : e.getKey().getMaterials())
+                table.complex.set(m.ordinal());
+        }
+        return table;
+    }
+
+    @NotNull
+    private BanActionData[] compileRow(@NotNull final Map<BanAction, BanActionData> map) {
+        return rows.computeIfAbsent(map, BanIndex::toRow);
+    }
+
+    @NotNull
+    private static BanActionData[] toRow(@NotNull final Map<BanAction, BanActionData> map) {
+        final BanActionData[] row = new BanActionData[ACTIONS];
+        for (final Map.Entry<BanAction, BanActionData> e : map.entrySet())
+            row[e.getKey().ordinal()] = e.getValue();
+        return row;
+    }
+
+    /**
+     * Get the merged blacklist and whitelist rules of this world
+     * @param world the world
+     * @return the rules of this world, or null if this world has no blacklisted nor whitelisted item
+     */
+    @Nullable
+    public Rules get(@NotNull final World world) {
+        return worlds.get(world);
+    }
+
+    /**
+     * Quick check if this action could apply in this world, either by the blacklist or the whitelist
+     * @param world the world
+     * @param action the action
+     * @return true if this action may be banned in this world, otherwise false
+     */
+    public boolean isActive(@NotNull final World world, @NotNull final BanAction action) {
+        final Rules rules = worlds.get(world);
+        return rules != null && rules.actions.contains(action);
+    }
+
+    /**
+     * Get the ban actions data of the item in this world, indexed by {@link BanAction#ordinal()}.
+     * The returned array is shared and must not be modified.
+     * @param world the world
+     * @param item the item
+     * @return an array of ban actions data indexed by ban action ordinal, or null if this item is not banned in this world
+     */
+    @Nullable
+    public BanActionData[] get(@NotNull final World world, @NotNull final BannedItem item) {
+        final Rules rules = worlds.get(world);
+        return rules == null || rules.blacklist == null ? null : get(rules.blacklist, item);
+    }
+
+    /**
+     * Get the ban actions data of the probed item in this world, indexed by {@link BanAction#ordinal()}.
+     * The item meta of the probe is only accessed if a meta or custom rule exists for its material.
+     * The returned array is shared and must not be modified.
+     * @param world the world
+     * @param probe the probed item
+     * @return an array of ban actions data indexed by ban action ordinal, or null if this item is not banned in this world
+     */
+    @Nullable
+    public BanActionData[] get(@NotNull final World world, @NotNull final ItemProbe probe) {
+        final Rules rules = worlds.get(world);
+        return rules == null ? null : rules.getBlacklisted(probe);
+    }
+
+    /**
+     * Get the ban actions data of the item in this world, as a map.
+     * @param world the world
+     * @param item the item
+     * @return a new map of the ban actions and their data, or null if this item is not banned in this world
+     */
+    @Nullable
+    public Map<BanAction, BanActionData> getActions(@NotNull final World world, @NotNull final BannedItem item) {
+        final BanActionData[] row = get(world, item);
+        if (row == null) return null;
+        final Map<BanAction, BanActionData> map = new EnumMap<>(BanAction.class);
+        for (final BanAction action : BanAction.values())
+            if (row[action.ordinal()] != null) map.put(action, row[action.ordinal()]);
+        return map;
+    }
+
+    /**
+     * Get the ban action data of the item in this world for the said action.
+     * @param world the world
+     * @param item the item
+     * @param action the ban action
+     * @return the ban action data, or null if this item is not banned for this action in this world
+     */
+    @Nullable
+    public BanActionData get(@NotNull final World world, @NotNull final BannedItem item, @NotNull final BanAction action) {
+        final BanActionData[] row = get(world, item);
+        return row == null ? null : row[action.ordinal()];
+    }
+
+    @Nullable
+    private BanActionData[] get(@NotNull final Table table, @NotNull final BannedItem item) {
+        final int ordinal = item.getType().ordinal();
+        if (!table.complex.get(ordinal)) return table.plain[ordinal];
+
+        // Meta or custom item, resolving it through the items map
+        return table.cache.get(item, i -> getRow(table.items.get(i)));
+    }
+
+    @Nullable
+    private BanActionData[] get(@NotNull final Table table, @NotNull final ItemProbe probe) {
+        final int ordinal = probe.getType().ordinal();
+        if (!table.complex.get(ordinal)) return table.plain[ordinal];
+
+        // Meta or custom item, resolving it through the items map
+        return table.cache.get(probe.getItem(), i -> getRow(table.items.get(probe)));
+    }
+
+    @Nullable
+    private BanActionData[] getRow(@Nullable final Map<BanAction, BanActionData> map) {
+        if (map == null || map.isEmpty()) return null;
+        final BanActionData[] row = rows.get(map);
+        return row == null ? toRow(map) : row; // not compiled, ex: modified in place
+    }
+
+    /**
+     * Get the ratio of meta or custom items resolved from the cache, since this index was built
+     * @return the ratio of items resolved from the cache, between 0 and 1
+     */
+    public double getCacheHitRate() {
+        long hits = 0, total = 0;
+        for (final Table table : getTables()) {
+            final long tableHits = table.cache.getHits();
+            hits += tableHits;
+            total += tableHits + table.cache.getMisses();
+        }
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    @NotNull
+    private Set<Table> getTables() {
+        final Set<Table> set = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (final Rules rules : worlds.values()) {
+            if (rules.blacklist != null) set.add(rules.blacklist);
+            if (rules.whitelist != null) set.add(rules.whitelist);
+        }
+        return set;
+    }
+
+    /**
+     * Blacklist and whitelist rules of a world
+     */
+    public final class Rules {
+        private final Set<BanAction> actions = EnumSet.noneOf(BanAction.class);
+        private Table blacklist;
+        private WhitelistedWorld whitelistedWorld;
+        private Table whitelist;
+
+        private Rules() {
+        }
+
+        /**
+         * @return an unmodifiable set of the actions which could apply in this world
+         */
+        @NotNull
+        public Set<BanAction> getActions() {
+            return Collections.unmodifiableSet(actions);
+        }
+
+        /**
+         * Quick check if this item may be concerned by this action, without resolving its meta.
+         * @param m the material of the item
+         * @param action the action
+         * @return true if the material is blacklisted, or if the whitelist applies to this action, otherwise false
+         */
+        public boolean concerns(@NotNull final Material m, @NotNull final BanAction action) {
+            return (blacklist != null && blacklist.items.contains(m)) || (whitelistedWorld != null && !whitelistedWorld.getIgnored().contains(action));
+        }
+
+        /**
+         * Get the blacklisted actions data of the probed item, indexed by {@link BanAction#ordinal()}.
+         * The returned array is shared and must not be modified.
+         * @param probe the probed item
+         * @return an array of ban actions data indexed by ban action ordinal, or null if this item is not blacklisted
+         */
+        @Nullable
+        public BanActionData[] getBlacklisted(@NotNull final ItemProbe probe) {
+            return blacklist == null ? null : get(blacklist, probe);
+        }
+
+        /**
+         * @return the whitelisted world, or null if this world is not whitelisted
+         */
+        @Nullable
+        public WhitelistedWorld getWhitelistedWorld() {
+            return whitelistedWorld;
+        }
+
+        /**
+         * Get the whitelisted actions data of the probed item, indexed by {@link BanAction#ordinal()}.
+         * The returned array is shared and must not be modified.
+         * @param probe the probed item
+         * @return an array of ban actions data indexed by ban action ordinal, or null if this item is not whitelisted
+         */
+        @Nullable
+        public BanActionData[] getWhitelisted(@NotNull final ItemProbe probe) {
+            return whitelist == null ? null : get(whitelist, probe);
+        }
+    }
+
+    /**
+     * Compiled table of a world
+     */
+    private static final class Table {
+        private final Items items;
+        private final BanActionData[][] plain = new BanActionData[MATERIALS][];
+        private final BitSet complex = new BitSet(MATERIALS);
+        private final LruCache<BannedItem, BanActionData[]> cache = new LruCache<>(CACHE_SIZE, BannedItem::snapshot); // dropped with the index
+
+        private Table(@NotNull final Items items) {
+            this.items = items;
+        }
+    }
+}
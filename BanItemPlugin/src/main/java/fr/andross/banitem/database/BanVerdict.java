@@ -0,0 +1,64 @@
+/*
+ * BanItem - Lightweight, powerful & configurable per world ban item plugin
+ * Copyright (C) 2021 André Sustac
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your action) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.andross.banitem.database;
+
+import fr.andross.banitem.events.PlayerBanItemEvent;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The result of a ban check, with the list which produced it
+ * @version 3.5
+ * @author Andross
+ */
+public enum BanVerdict {
+    /**
+     * The item is allowed
+     */
+    ALLOWED(null),
+
+    /**
+     * The item is blacklisted
+     */
+    BLACKLISTED(PlayerBanItemEvent.Type.BLACKLIST),
+
+    /**
+     * The item is not allowed in a whitelisted world
+     */
+    NOT_WHITELISTED(PlayerBanItemEvent.Type.WHITELIST);
+
+    private final PlayerBanItemEvent.Type type;
+
+    BanVerdict(@Nullable final PlayerBanItemEvent.Type type) {
+        this.type = type;
+    }
+
+    /**
+     * @return true if the item is banned, by the blacklist or the whitelist
+     */
+    public boolean isBanned() {
+        return type != null;
+    }
+
+    /**
+     * @return the list which banned the item, or null if the item is allowed
+     */
+    @Nullable
+    public PlayerBanItemEvent.Type getType() {
+        return type;
+    }
+}
@@ -19,6 +19,7 @@ package fr.andross.banitem.database;
 
 import fr.andross.banitem.BanConfig;
 import fr.andross.banitem.BanDatabase;
+import fr.andross.banitem.BanHooks;
 import fr.andross.banitem.BanItem;
 import fr.andross.banitem.actions.BanAction;
 import fr.andross.banitem.actions.BanActionData;
@@ -29,14 +30,13 @@ import fr.andross.banitem.events.PlayerBanItemEvent;
 import fr.andross.banitem.items.BannedItem;
 import fr.andross.banitem.items.CustomBannedItem;
 import fr.andross.banitem.items.ICustomName;
-import fr.andross.banitem.utils.Utils;
+import fr.andross.banitem.items.ItemProbe;
 import fr.andross.banitem.utils.debug.Debug;
 import fr.andross.banitem.utils.debug.DebugMessage;
 import fr.andross.banitem.utils.hooks.IWorldGuardHook;
 import fr.andross.banitem.utils.list.ListType;
 import fr.andross.banitem.utils.list.Listable;
 import org.bukkit.Bukkit;
-import org.bukkit.GameMode;
 import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.command.CommandSender;
@@ -49,11 +49,15 @@ import java.util.*;
 
 /**
  * Map that contains the blacklisted items
- * @version 3.3
+ * Worlds having the same entries <i>(ex: '*' or regex worlds)</i> share the same {@link Items} map,
+ * so entries should be modified through {@link #addNewBan(Collection, Collection, Map)} and {@link #removeBan(Collection, BannedItem)}.
+ * The database index is rebuilt on the next lookup after any modification; the actions maps must be replaced, not modified in place.
+ * @version 3.5
  * @author Andross
  */
-public final class Blacklist extends HashMap<World, Items> {
+public final class Blacklist extends WorldItemsMap<Items> {
     private final BanItem pl;
+    private final BanDatabase database;
 
     /**
      * Constructor for a blacklist map
@@ -63,14 +67,28 @@ public final class Blacklist extends HashMap<World, Items> {
      * @param section {@link ConfigurationSection} which contains the blacklist node
      */
     public Blacklist(@NotNull final BanItem pl, @NotNull final BanDatabase database, @NotNull final CommandSender sender, @Nullable final ConfigurationSection section) {
+        this(pl, database, pl.getBanConfig(), pl.getHooks(), Bukkit.getWorlds(), sender, section);
+    }
+
+    /**
+     * Constructor for a blacklist map, using the config and hooks being loaded
+     * @param pl the main instance
+     * @param database the database instance
+     * @param banConfig the ban config being loaded, for debug
+     * @param hooks the hooks being loaded
+     * @param loadedWorlds the loaded worlds, so the server worlds are not accessed while loading
+     * @param sender {@link CommandSender} to send the debug messages to
+     * @param section {@link ConfigurationSection} which contains the blacklist node
+     */
+    public Blacklist(@NotNull final BanItem pl, @NotNull final BanDatabase database, @NotNull final BanConfig banConfig, @NotNull final BanHooks hooks, @NotNull final Collection<World> loadedWorlds, @NotNull final CommandSender sender, @Nullable final ConfigurationSection section) {
         this.pl = pl;
+        this.database = database;
         if (section == null) return;
 
         // Loading blacklist
-        final BanConfig banConfig = pl.getBanConfig();
         for (final String worldKey : section.getKeys(false)) { // Looping through worlds
             // Getting world(s)
-            final List<World> worlds = Listable.getWorlds(worldKey, new Debug(banConfig, sender, new DebugMessage(banConfig.getConfigName()), new DebugMessage("blacklist"), new DebugMessage(ListType.WORLD, worldKey)));
+            final List<World> worlds = Listable.getWorlds(worldKey, new Debug(banConfig, sender, new DebugMessage(banConfig.getConfigName()), new DebugMessage("blacklist"), new DebugMessage(ListType.WORLD, worldKey)), loadedWorlds);
             if (worlds.isEmpty()) continue;
 
             // Getting items(s)
@@ -86,13 +104,11 @@ public final class Blacklist extends HashMap<World, Items> {
 
                 // Getting Actions & Actions data
                 final ConfigurationSection actionCs = itemsCs.getConfigurationSection(itemKey);
-                final Map<BanAction, BanActionData> actions = pl.getUtils().getBanActionsFromItemSection(worlds, actionCs, d);
+                final Map<BanAction, BanActionData> actions = pl.getUtils().getBanActionsFromItemSection(hooks, worlds, actionCs, d);
                 if (actions.isEmpty()) continue;
 
                 // Adding into the map
-                for (final World w : worlds)
-                    for (final BannedItem item : items)
-                        addNewBan(w, item, actions);
+                addNewBan(worlds, items, actions);
             }
         }
     }
@@ -104,27 +120,107 @@ public final class Blacklist extends HashMap<World, Items> {
      * @param map map containing {@link BanAction} and their respective {@link BanActionData}
      */
     public void addNewBan(@NotNull final World world, @NotNull final BannedItem item, @NotNull final Map<BanAction, BanActionData> map) {
-        final Items items = getOrDefault(world, new Items());
+        addNewBan(Collections.singletonList(world), Collections.singletonList(item), map);
+    }
+
+    /**
+     * This will add new entries to the blacklist of those worlds.
+     * Worlds having the same entries share the same items map, which is copied only for the worlds
+     * which are modified separately.
+     * @param worlds bukkit worlds <i>({@link World})</i>
+     * @param items banned items <i>({@link BannedItem})</i>
+     * @param map map containing {@link BanAction} and their respective {@link BanActionData}
+     */
+    public void addNewBan(@NotNull final Collection<World> worlds, @NotNull final Collection<? extends BannedItem> items, @NotNull final Map<BanAction, BanActionData> map) {
+        final Map<BanAction, BanActionData> actions = copy(map); // shared by all new entries, never modified
+        for (final Items worldItems : getEditableItems(worlds))
+            for (final BannedItem item : items)
+                addNewBan(worldItems, item, actions);
+    }
+
+    private static void addNewBan(@NotNull final Items items, @NotNull final BannedItem item, @NotNull final Map<BanAction, BanActionData> map) {
         final String customName = item instanceof ICustomName ? ((ICustomName) item).getName() : null;
         final CustomBannedItem customBannedItem = item instanceof CustomBannedItem ? (CustomBannedItem) item : null;
-        final Map<BanAction, BanActionData> bannedItemMap = customBannedItem != null ? items.getCustomItems().getOrDefault(customBannedItem, new EnumMap<>(BanAction.class)) : items.getItems().getOrDefault(item, new EnumMap<>(BanAction.class));
+        final Map<BanAction, BanActionData> existing = customBannedItem != null ? items.getCustomItems().get(customBannedItem) : items.getItems().get(item);
 
-        if (customName == null)
-            bannedItemMap.putAll(map);
-        else
+        // Existing actions maps can be shared, so they are copied before being modified
+        final Map<BanAction, BanActionData> bannedItemMap;
+        if (customName == null) {
+            if (existing == null)
+                bannedItemMap = map;
+            else {
+                bannedItemMap = copy(existing);
+                bannedItemMap.putAll(map);
+            }
+        } else {
+            bannedItemMap = existing == null ? new EnumMap<>(BanAction.class) : copy(existing);
             for (final Entry<BanAction, BanActionData> e : map.entrySet()) {
                 final BanActionData data = new BanActionData();
                 data.getMap().putAll(e.getValue().getMap());
                 data.getMap().put(BanDataType.CUSTOMNAME, customName);
                 bannedItemMap.put(e.getKey(), data);
             }
+        }
 
         if (customBannedItem != null)
             items.getCustomItems().put(customBannedItem, bannedItemMap);
         else
             items.getItems().put(item, bannedItemMap);
+    }
+
+    /**
+     * This will remove the item from the blacklist of those worlds.
+     * @param worlds bukkit worlds <i>({@link World})</i>
+     * @param item banned item <i>({@link BannedItem})</i>
+     * @return the list of worlds where the item was blacklisted, and is now removed
+     */
+    @NotNull
+    public List<World> removeBan(@NotNull final Collection<World> worlds, @NotNull final BannedItem item) {
+        final List<World> removed = new ArrayList<>();
+        for (final World world : worlds) {
+            final Items items = get(world);
+            if (items != null && items.getItems().containsKey(item)) removed.add(world);
+        }
 
-        put(world, items);
+        for (final Items items : getEditableItems(removed))
+            items.getItems().remove(item);
+        return removed;
+    }
+
+    /**
+     * Get the items maps of those worlds, ready to be modified.
+     * Items maps shared with worlds which are not in the list are copied first.
+     * @param worlds the worlds
+     * @return the distinct items maps of those worlds
+     */
+    @NotNull
+    private Collection<Items> getEditableItems(@NotNull final Collection<World> worlds) {
+        // Grouping the worlds by their shared items map
+        final Map<Items, List<World>> groups = new IdentityHashMap<>();
+        for (final World world : new LinkedHashSet<>(worlds))
+            groups.computeIfAbsent(get(world), k -> new ArrayList<>()).add(world);
+
+        final Map<Items, Integer> uses = new IdentityHashMap<>();
+        for (final Items items : values()) uses.merge(items, 1, Integer::sum);
+
+        final List<Items> editable = new ArrayList<>();
+        for (final Entry<Items, List<World>> e : groups.entrySet()) {
+            Items items = e.getKey();
+            if (items == null)
+                items = new Items();
+            else if (uses.get(items) > e.getValue().size())
+                items = new Items(items); // also used by other worlds
+            for (final World world : e.getValue()) put(world, items);
+            editable.add(items);
+        }
+        return editable;
+    }
+
+    @NotNull
+    private static Map<BanAction, BanActionData> copy(@NotNull final Map<BanAction, BanActionData> map) {
+        final Map<BanAction, BanActionData> copy = new EnumMap<>(BanAction.class);
+        copy.putAll(map);
+        return copy;
     }
 
     /**
@@ -136,18 +232,19 @@ public final class Blacklist extends HashMap<World, Items> {
      */
     @Nullable
     public BanActionData getBanData(@NotNull final World world, @NotNull final BannedItem item, @NotNull final BanAction action) {
-        return !containsKey(world) ? null : get(world).get(item, action);
+        return database.getIndex().get(world, item, action);
     }
 
     /**
      * Trying to get the ban actions with their respective ban actions data for this item in the said world.
      * @param world bukkit world <i>({@link World})</i>
      * @param item banned item <i>({@link BannedItem})</i>
+     * The map is built from the database index, like {@link #getBanData(World, BannedItem, BanAction)}, so modifying it has no effect.
      * @return a map containing the ban action types and their respective ban actions, or null if this item is not banned in this world
      */
     @Nullable
     public Map<BanAction, BanActionData> getBanActions(@NotNull final World world, @NotNull final BannedItem item) {
-        return !containsKey(world) ? null : get(world).get(item);
+        return database.getIndex().getActions(world, item);
     }
 
     /**
@@ -161,19 +258,51 @@ public final class Blacklist extends HashMap<World, Items> {
      * @return true if the item is blacklisted for the player world, otherwise false
      */
     public boolean isBlacklisted(@NotNull final Player player, @Nullable final Location location, @NotNull final BannedItem item, final boolean sendMessage, @NotNull final BanAction action, @Nullable final BanData... data) {
+        final ItemProbe probe = ItemProbe.of(item);
+        try {
+            return isBlacklisted(player, location, probe, sendMessage, action, data);
+        } finally {
+            probe.release();
+        }
+    }
+
+    /**
+     * Check if the action with the probed item is blacklisted for the player.
+     * @param player player involved
+     * @param location the effective location where the action occurs, using player location if null
+     * @param probe the probed item
+     * @param sendMessage send a message to the player if banned
+     * @param action action to check
+     * @param data some ban data
+     * @return true if the item is blacklisted for the player world, otherwise false
+     */
+    public boolean isBlacklisted(@NotNull final Player player, @Nullable final Location location, @NotNull final ItemProbe probe, final boolean sendMessage, @NotNull final BanAction action, @Nullable final BanData... data) {
+        return isBlacklisted(player, location, probe, database.getIndex().get(player.getWorld(), probe), sendMessage, action, null, data);
+    }
+
+    /**
+     * Check if the action with the probed item is blacklisted for the player, with its already resolved ban actions data.
+     * @param player player involved
+     * @param location the effective location where the action occurs, using player location if null
+     * @param probe the probed item
+     * @param actions the ban actions data of the item in the player world, indexed by ban action ordinal
+     * @param sendMessage send a message to the player if banned
+     * @param action action to check
+     * @param check the current check, sharing the bypass permission with the whitelist
+     * @param data some ban data
+     * @return true if the item is blacklisted for the player world, otherwise false
+     */
+    boolean isBlacklisted(@NotNull final Player player, @Nullable final Location location, @NotNull final ItemProbe probe, @Nullable final BanActionData[] actions, final boolean sendMessage, @NotNull final BanAction action, @Nullable final BanCheck check, @Nullable final BanData... data) {
         /* Checking blacklisted */
-        final Map<BanAction, BanActionData> map = getBanActions(player.getWorld(), item);
-        if (map == null || map.isEmpty() || !map.containsKey(action)) return false;
+        if (actions == null) return false;
+        final BanActionData blacklistData = actions[action.ordinal()];
+        if (blacklistData == null) return false;
 
         // Checking custom data
-        final BanActionData blacklistData = map.get(action);
         final Map<BanDataType, Object> dataMap = blacklistData.getMap();
-        if (Utils.isNullOrEmpty(data) || Arrays.stream(data).allMatch(blacklistData::contains)) {
+        if (blacklistData.containsAll(data)) {
             // Checking creative data?
-            if (dataMap.containsKey(BanDataType.GAMEMODE)) {
-                final Set<GameMode> set = blacklistData.getData(BanDataType.GAMEMODE);
-                if (set != null && !set.contains(player.getGameMode())) return false;
-            }
+            if (!blacklistData.contains(BanDataType.GAMEMODE, player.getGameMode())) return false;
 
             // Checking region data?
             if (dataMap.containsKey(BanDataType.REGION)) {
@@ -210,25 +339,25 @@ public final class Blacklist extends HashMap<World, Items> {
             }
 
             // Permission data?
-            final String itemName = dataMap.containsKey(BanDataType.CUSTOMNAME) ? String.valueOf(dataMap.get(BanDataType.CUSTOMNAME)) : item.getType().name().toLowerCase(Locale.ROOT);
+            final String itemName = dataMap.containsKey(BanDataType.CUSTOMNAME) ? String.valueOf(dataMap.get(BanDataType.CUSTOMNAME)) : probe.getTypeName();
             if (dataMap.containsKey(BanDataType.PERMISSION)) {
                 if (player.hasPermission((String) dataMap.get(BanDataType.PERMISSION)))
                     return false;
             } else {
                 // Bypass permission?
-                if (pl.getUtils().hasPermission(player, itemName, action, data))
+                if (check == null ? pl.getUtils().hasPermission(player, itemName, action, data) : check.hasPermission(pl.getUtils(), itemName, action, data))
                     return false;
             }
 
             // Calling event?
             if (pl.getBanConfig().getConfig().getBoolean("api.playerbanitemevent")) {
-                final PlayerBanItemEvent e = new PlayerBanItemEvent(player, PlayerBanItemEvent.Type.BLACKLIST, item, action, blacklistData, data);
+                final PlayerBanItemEvent e = new PlayerBanItemEvent(player, PlayerBanItemEvent.Type.BLACKLIST, probe.getItem(), action, blacklistData, data);
                 Bukkit.getPluginManager().callEvent(e);
                 if (e.isCancelled()) return false;
             }
 
             // Checking delete?
-            if (map.containsKey(BanAction.DELETE))
+            if (actions[BanAction.DELETE.ordinal()] != null)
                 pl.getScheduler().runTask(() -> pl.getUtils().deleteItemFromInventoryView(player));
 
             if (sendMessage) {
@@ -269,7 +398,21 @@ public final class Blacklist extends HashMap<World, Items> {
      */
     public boolean isBlacklisted(@NotNull final World world, @NotNull final BannedItem item, @NotNull final BanAction action, @Nullable final BanData... data) {
         final BanActionData blacklistData = getBanData(world, item, action);
-        return blacklistData != null && (data == null || Arrays.stream(data).allMatch(blacklistData::contains));
+        return blacklistData != null && blacklistData.containsAll(data);
+    }
+
+    /**
+     * This method is used to check if the probed item is banned, not involving a player
+     * @param world bukkit world
+     * @param probe the probed item
+     * @param action ban action
+     * @param data optional ban data
+     * @return true if the item is blacklisted for the player world, otherwise false
+     */
+    public boolean isBlacklisted(@NotNull final World world, @NotNull final ItemProbe probe, @NotNull final BanAction action, @Nullable final BanData... data) {
+        final BanActionData[] actions = database.getIndex().get(world, probe);
+        final BanActionData blacklistData = actions == null ? null : actions[action.ordinal()];
+        return blacklistData != null && blacklistData.containsAll(data);
     }
 
     /**
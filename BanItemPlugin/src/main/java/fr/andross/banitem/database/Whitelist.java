@@ -20,6 +20,7 @@ package fr.andross.banitem.database;
 import com.sk89q.worldguard.protection.regions.ProtectedRegion;
 import fr.andross.banitem.BanConfig;
 import fr.andross.banitem.BanDatabase;
+import fr.andross.banitem.BanHooks;
 import fr.andross.banitem.BanItem;
 import fr.andross.banitem.actions.BanAction;
 import fr.andross.banitem.actions.BanActionData;
@@ -27,15 +28,14 @@ import fr.andross.banitem.actions.BanData;
 import fr.andross.banitem.actions.BanDataType;
 import fr.andross.banitem.events.PlayerBanItemEvent;
 import fr.andross.banitem.items.BannedItem;
+import fr.andross.banitem.items.ItemProbe;
 import fr.andross.banitem.utils.Chat;
-import fr.andross.banitem.utils.Utils;
 import fr.andross.banitem.utils.debug.Debug;
 import fr.andross.banitem.utils.debug.DebugMessage;
 import fr.andross.banitem.utils.hooks.IWorldGuardHook;
 import fr.andross.banitem.utils.list.ListType;
 import fr.andross.banitem.utils.list.Listable;
 import org.bukkit.Bukkit;
-import org.bukkit.GameMode;
 import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.command.CommandSender;
@@ -48,11 +48,12 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 /**
- * Map that contains whitelistedworlds
- * @version 3.3
+ * Map that contains whitelistedworlds.
+ * The database index is rebuilt on the next lookup after any modification.
+ * @version 3.5
  * @author Andross
  */
-public class Whitelist extends HashMap<World, WhitelistedWorld> {
+public class Whitelist extends WorldItemsMap<WhitelistedWorld> {
     private final BanItem pl;
 
     /**
@@ -63,13 +64,26 @@ public class Whitelist extends HashMap<World, WhitelistedWorld> {
      * @param section {@link ConfigurationSection} which contains the blacklist node
      */
     public Whitelist(@NotNull final BanItem pl, @NotNull final BanDatabase database, @NotNull final CommandSender sender, @Nullable final ConfigurationSection section) {
+        this(pl, database, pl.getBanConfig(), pl.getHooks(), Bukkit.getWorlds(), sender, section);
+    }
+
+    /**
+     * Constructor for a whitelist map, using the config and hooks being loaded
+     * @param pl main instance
+     * @param database the database instance
+     * @param banConfig the ban config being loaded, for debug
+     * @param hooks the hooks being loaded
+     * @param loadedWorlds the loaded worlds, so the server worlds are not accessed while loading
+     * @param sender {@link CommandSender} who to send the debug messages
+     * @param section {@link ConfigurationSection} which contains the blacklist node
+     */
+    public Whitelist(@NotNull final BanItem pl, @NotNull final BanDatabase database, @NotNull final BanConfig banConfig, @NotNull final BanHooks hooks, @NotNull final Collection<World> loadedWorlds, @NotNull final CommandSender sender, @Nullable final ConfigurationSection section) {
         this.pl = pl;
         if (section == null) return;
 
-        final BanConfig banConfig = pl.getBanConfig();
         for (final String worldKey : section.getKeys(false)) { // Looping through worlds
             // Checking the world
-            final List<World> worlds = Listable.getWorlds(worldKey, new Debug(banConfig, sender, new DebugMessage(null, banConfig.getConfigName()), new DebugMessage(null, "whitelist")));
+            final List<World> worlds = Listable.getWorlds(worldKey, new Debug(banConfig, sender, new DebugMessage(null, banConfig.getConfigName()), new DebugMessage(null, "whitelist")), loadedWorlds);
             if (worlds.isEmpty()) continue;
 
             // Getting item info
@@ -111,7 +125,7 @@ public class Whitelist extends HashMap<World, WhitelistedWorld> {
                     final List<BanAction> actionsList = Listable.getList(ListType.ACTION, optionsNames, d);
                     if (actionsList.isEmpty()) continue;
                     for (final BanAction action : actionsList) actions.put(action, new BanActionData());
-                } else actions.putAll(pl.getUtils().getBanActionsFromItemSection(worlds, actionsSection, d));
+                } else actions.putAll(pl.getUtils().getBanActionsFromItemSection(hooks, worlds, actionsSection, d));
 
                 if (actions.isEmpty()) continue;
 
@@ -170,6 +184,25 @@ public class Whitelist extends HashMap<World, WhitelistedWorld> {
      * @return true if the item is whitelisted <i>(allowed)</i>, otherwise false
      */
     public boolean isWhitelisted(@NotNull final Player player, @Nullable final Location location, @NotNull final BannedItem item, final boolean sendMessage, @NotNull final BanAction action, @Nullable final BanData... data) {
+        final ItemProbe probe = ItemProbe.of(item);
+        try {
+            return isWhitelisted(player, location, probe, sendMessage, action, data);
+        } finally {
+            probe.release();
+        }
+    }
+
+    /**
+     * Check if the probed item is whitelisted <i>(allowed)</i>
+     * @param player player involved
+     * @param location the effective location where the action occurs
+     * @param probe the probed item
+     * @param sendMessage send a message to the player if not allowed
+     * @param action the action
+     * @param data optional ban data
+     * @return true if the item is whitelisted <i>(allowed)</i>, otherwise false
+     */
+    public boolean isWhitelisted(@NotNull final Player player, @Nullable final Location location, @NotNull final ItemProbe probe, final boolean sendMessage, @NotNull final BanAction action, @Nullable final BanData... data) {
         final WhitelistedWorld ww = get(player.getWorld());
         if (ww == null) return true;
 
@@ -177,30 +210,45 @@ public class Whitelist extends HashMap<World, WhitelistedWorld> {
         if (ww.getIgnored().contains(action)) return true;
 
         /* Checking whitelist */
-        final Map<BanAction, BanActionData> map = ww.get(item);
-        if (map != null && !map.isEmpty() && map.containsKey(action)) {
-            final BanActionData whitelisted = map.get(action);
+        final Map<BanAction, BanActionData> map = ww.contains(probe.getType()) ? ww.get(probe) : null;
+        final BanActionData whitelisted = map == null ? null : map.get(action);
+        return isWhitelisted(player, location, probe, ww, whitelisted, sendMessage, action, null, data);
+    }
+
+    /**
+     * Check if the probed item is whitelisted <i>(allowed)</i>, with its already resolved whitelist data.
+     * The world should be whitelisted, and the action not ignored.
+     * @param player player involved
+     * @param location the effective location where the action occurs
+     * @param probe the probed item
+     * @param ww the whitelisted world of the player
+     * @param whitelisted the whitelist data of the item for this action, null if the item is not whitelisted for this action
+     * @param sendMessage send a message to the player if not allowed
+     * @param action the action
+     * @param check the current check, sharing the bypass permission with the blacklist
+     * @param data optional ban data
+     * @return true if the item is whitelisted <i>(allowed)</i>, otherwise false
+     */
+    boolean isWhitelisted(@NotNull final Player player, @Nullable final Location location, @NotNull final ItemProbe probe, @NotNull final WhitelistedWorld ww, @Nullable final BanActionData whitelisted, final boolean sendMessage, @NotNull final BanAction action, @Nullable final BanCheck check, @Nullable final BanData... data) {
+        if (whitelisted != null) {
             // Checking custom data
-            if (Utils.isNullOrEmpty(data) || Arrays.stream(data).allMatch(whitelisted::contains)) {
+            if (whitelisted.containsAll(data)) {
                 // Permission data?
-                final String itemName = whitelisted.getMap().containsKey(BanDataType.CUSTOMNAME) ? String.valueOf(whitelisted.getMap().get(BanDataType.CUSTOMNAME)) : item.getType().name().toLowerCase(Locale.ROOT);
+                final String itemName = whitelisted.getMap().containsKey(BanDataType.CUSTOMNAME) ? String.valueOf(whitelisted.getMap().get(BanDataType.CUSTOMNAME)) : probe.getTypeName();
                 if (whitelisted.getMap().containsKey(BanDataType.PERMISSION)) {
                     if (player.hasPermission((String) whitelisted.getMap().get(BanDataType.PERMISSION)))
                         return true;
                 } else {
                     // Bypass permission?
-                    if (pl.getUtils().hasPermission(player, itemName, action, data))
+                    if (check == null ? pl.getUtils().hasPermission(player, itemName, action, data) : check.hasPermission(pl.getUtils(), itemName, action, data))
                         return true;
                 }
 
                 // Checking gamemode data?
-                if (whitelisted.getMap().containsKey(BanDataType.GAMEMODE)) {
-                    final Set<GameMode> set = whitelisted.getData(BanDataType.GAMEMODE);
-                    if (set != null && !set.contains(player.getGameMode())) { // Gamemode not whitelisted
-                        if (sendMessage)
-                            pl.getUtils().sendMessage(player, itemName, action, whitelisted);
-                        return false;
-                    }
+                if (!whitelisted.contains(BanDataType.GAMEMODE, player.getGameMode())) { // Gamemode not whitelisted
+                    if (sendMessage)
+                        pl.getUtils().sendMessage(player, itemName, action, whitelisted);
+                    return false;
                 }
 
                 // Checking region data?
@@ -242,7 +290,7 @@ public class Whitelist extends HashMap<World, WhitelistedWorld> {
 
                 // Calling event?
                 if (pl.getBanConfig().getConfig().getBoolean("api.playerbanitemevent")) {
-                    final PlayerBanItemEvent e = new PlayerBanItemEvent(player, PlayerBanItemEvent.Type.WHITELIST, item, action, whitelisted, data);
+                    final PlayerBanItemEvent e = new PlayerBanItemEvent(player, PlayerBanItemEvent.Type.WHITELIST, probe.getItem(), action, whitelisted, data);
                     Bukkit.getPluginManager().callEvent(e);
                     return !e.isCancelled();
                 }
@@ -276,6 +324,23 @@ public class Whitelist extends HashMap<World, WhitelistedWorld> {
      * @return true if the item is whitelisted <i>(allowed)</i>, otherwise false
      */
     public boolean isWhitelisted(@NotNull final World world, @NotNull final BannedItem item, @NotNull final BanAction action, @Nullable final BanData... data) {
+        final ItemProbe probe = ItemProbe.of(item);
+        try {
+            return isWhitelisted(world, probe, action, data);
+        } finally {
+            probe.release();
+        }
+    }
+
+    /**
+     * This method is used to check if the probed item is whitelisted, not involving a player
+     * @param world bukkit world
+     * @param probe the probed item
+     * @param action the action
+     * @param data optional ban data
+     * @return true if the item is whitelisted <i>(allowed)</i>, otherwise false
+     */
+    public boolean isWhitelisted(@NotNull final World world, @NotNull final ItemProbe probe, @NotNull final BanAction action, @Nullable final BanData... data) {
         final WhitelistedWorld ww = get(world);
         if (ww == null) return true;
 
@@ -284,11 +349,11 @@ public class Whitelist extends HashMap<World, WhitelistedWorld> {
 
         /* Checking whitelist */
         // Checking by item (can include meta)?
-        final Map<BanAction, BanActionData> map = ww.get(item);
+        final Map<BanAction, BanActionData> map = ww.contains(probe.getType()) ? ww.get(probe) : null;
 
         if (map != null && map.containsKey(action)) { // In whitelist
             final BanActionData whitelisted = map.get(action);
-            return data == null || Arrays.stream(data).allMatch(whitelisted::contains);
+            return whitelisted.containsAll(data);
         }
         return false;
     }
@@ -0,0 +1,138 @@
+/*
+ * BanItem - Lightweight, powerful & configurable per world ban item plugin
+ * Copyright (C) 2021 André Sustac
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your action) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.andross.banitem.database;
+
+import fr.andross.banitem.database.items.Items;
+import org.bukkit.World;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Map of the items per world, counting its modifications and the modifications of its items maps,
+ * so the {@link BanIndex} knows when it has to be rebuilt.
+ * Modifications through the views of this map <i>(entrySet, keySet, values)</i> are not counted.
+ * @param <V> the items type
+ * @version 3.5
+ * @author Andross
+ */
+public abstract class WorldItemsMap<V extends Items> extends HashMap<World, V> {
+    private final AtomicInteger modifications = new AtomicInteger();
+    private final Runnable onChange = modifications::incrementAndGet;
+
+    /**
+     * Get the amount of modifications of this map and its items maps.
+     * This only increases, so an unchanged value means nothing was modified.
+     * @return the amount of modifications
+     */
+    public int getModifications() {
+        return modifications.get();
+    }
+
+    @Nullable
+    private V observe(@Nullable final V items) {
+        if (items != null) items.setOnChange(onChange);
+        onChange.run();
+        return items;
+    }
+
+    @Override
+    public V put(final World key, final V value) {
+        final V previous = super.put(key, value);
+        observe(value);
+        return previous;
+    }
+
+    @Override
+    public void putAll(@NotNull final Map<? extends World, ? extends V> m) {
+        super.putAll(m);
+        m.values().forEach(this::observe);
+    }
+
+    @Override
+    public V remove(final Object key) {
+        final V previous = super.remove(key);
+        onChange.run();
+        return previous;
+    }
+
+    @Override
+    public boolean remove(final Object key, final Object value) {
+        final boolean removed = super.remove(key, value);
+        onChange.run();
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        onChange.run();
+    }
+
+    @Override
+    public V putIfAbsent(final World key, final V value) {
+        final V previous = super.putIfAbsent(key, value);
+        observe(value);
+        return previous;
+    }
+
+    @Override
+    public boolean replace(final World key, final V oldValue, final V newValue) {
+        final boolean replaced = super.replace(key, oldValue, newValue);
+        observe(newValue);
+        return replaced;
+    }
+
+    @Override
+    public V replace(final World key, final V value) {
+        final V previous = super.replace(key, value);
+        observe(value);
+        return previous;
+    }
+
+    @Override
+    public void replaceAll(@NotNull final BiFunction<? super World, ? super V, ? extends V> function) {
+        super.replaceAll(function);
+        values().forEach(this::observe);
+    }
+
+    @Override
+    public V computeIfAbsent(final World key, @NotNull final Function<? super World, ? extends V> mappingFunction) {
+        return observe(super.computeIfAbsent(key, mappingFunction));
+    }
+
+    @Override
+    public V computeIfPresent(final World key, @NotNull final BiFunction<? super World, ? super V, ? extends V> remappingFunction) {
+        return observe(super.computeIfPresent(key, remappingFunction));
+    }
+
+    @Override
+    public V compute(final World key, @NotNull final BiFunction<? super World, ? super V, ? extends V> remappingFunction) {
+        return observe(super.compute(key, remappingFunction));
+    }
+
+    @Override
+    public V merge(final World key, @NotNull final V value, @NotNull final BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        return observe(super.merge(key, value, remappingFunction));
+    }
+}
@@ -17,8 +17,10 @@
  */
 package fr.andross.banitem.database.items;
 
+import fr.andross.banitem.BanConfig;
 import fr.andross.banitem.BanItem;
 import fr.andross.banitem.items.CustomBannedItem;
+import fr.andross.banitem.items.meta.TextMatcher;
 import fr.andross.banitem.utils.DoubleMap;
 import fr.andross.banitem.utils.debug.Debug;
 import fr.andross.banitem.utils.debug.DebugMessage;
@@ -35,12 +37,13 @@ import java.util.Locale;
  * Map that contains all the custom items
  * This is a double map <i>(include a reversed map)</i>, for easier access of
  * custom items names and their respective banned item.
- * @version 3.1
+ * @version 3.5
  * @author Andross
  */
 public final class CustomItems extends DoubleMap<String, CustomBannedItem> {
     private final File file;
     private final FileConfiguration config;
+    private final TextMatcher textMatcher;
 
     /**
      * This will create a new instance of custom items map, with the items from <i>customitems.yml</i> file.
@@ -50,19 +53,64 @@ public final class CustomItems extends DoubleMap<String, CustomBannedItem> {
      * @param sender the sender who executed this command, for debug
      */
     public CustomItems(@NotNull final BanItem pl, @NotNull final CommandSender sender) {
-        this.file = new File(pl.getDataFolder(), "customitems.yml");
-        if (!file.exists()) pl.saveResource("customitems.yml", false);
-        this.config = YamlConfiguration.loadConfiguration(file);
+        this(pl, pl.getBanConfig(), sender);
+    }
+
+    /**
+     * This will create a new instance of custom items map, with the items from <i>customitems.yml</i> file.
+     * This should not be used externally, as it could create two different instance of this object.
+     * You should use {@link fr.andross.banitem.BanItemAPI#load(CommandSender, File)} instead.
+     * @param pl main instance
+     * @param banConfig the ban config being loaded, for debug
+     * @param sender the sender who executed this command, for debug
+     */
+    public CustomItems(@NotNull final BanItem pl, @NotNull final BanConfig banConfig, @NotNull final CommandSender sender) {
+        this(pl, banConfig, sender, loadFile(pl));
+    }
+
+    /**
+     * This will create a new instance of custom items map, with the items from the already loaded <i>customitems.yml</i> file.
+     * This should not be used externally, as it could create two different instance of this object.
+     * You should use {@link fr.andross.banitem.BanItemAPI#load(CommandSender, File)} instead.
+     * @param pl main instance
+     * @param banConfig the ban config being loaded, for debug
+     * @param sender the sender who executed this command, for debug
+     * @param config the loaded <i>customitems.yml</i> file, see {@link #loadFile(BanItem)}
+     */
+    public CustomItems(@NotNull final BanItem pl, @NotNull final BanConfig banConfig, @NotNull final CommandSender sender, @NotNull final FileConfiguration config) {
+        this.file = getFile(pl);
+        this.config = config;
 
         // Loading custom items
         for (final String key : config.getKeys(false)) {
             final ConfigurationSection section = config.getConfigurationSection(key);
             if (section == null) continue;
-            final Debug d = new Debug(pl.getBanConfig(), sender, new DebugMessage("customitems.yml"), new DebugMessage(key));
+            final Debug d = new Debug(banConfig, sender, new DebugMessage("customitems.yml"), new DebugMessage(key));
             final CustomBannedItem customBannedItem = new CustomBannedItem(key.toLowerCase(Locale.ROOT), section, d);
             if (customBannedItem.isValid())
                 put(key, customBannedItem);
         }
+
+        // Compiling lore & display name patterns
+        this.textMatcher = new TextMatcher(values());
+    }
+
+    /**
+     * Loading the <i>customitems.yml</i> file, creating it if needed.
+     * This only reads and parses the file, so it can be used asynchronously.
+     * @param pl main instance
+     * @return the loaded file configuration
+     */
+    @NotNull
+    public static FileConfiguration loadFile(@NotNull final BanItem pl) {
+        final File file = getFile(pl);
+        if (!file.exists()) pl.saveResource("customitems.yml", false);
+        return YamlConfiguration.loadConfiguration(file);
+    }
+
+    @NotNull
+    private static File getFile(@NotNull final BanItem pl) {
+        return new File(pl.getDataFolder(), "customitems.yml");
     }
 
     /**
@@ -80,4 +128,12 @@ public final class CustomItems extends DoubleMap<String, CustomBannedItem> {
     public FileConfiguration getConfig() {
         return config;
     }
+
+    /**
+     * @return the combined matcher of the lore and display name patterns of these custom items
+     */
+    @NotNull
+    public TextMatcher getTextMatcher() {
+        return textMatcher;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,234 @@
+/*
+ * BanItem - Lightweight, powerful & configurable per world ban item plugin
+ * Copyright (C) 2021 André Sustac
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your action) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.andross.banitem.database.items;
+
+import fr.andross.banitem.actions.BanAction;
+import fr.andross.banitem.actions.BanActionData;
+import fr.andross.banitem.items.CustomBannedItem;
+import fr.andross.banitem.items.ItemFeatures;
+import fr.andross.banitem.items.meta.DisplayNameEquals;
+import fr.andross.banitem.items.meta.MetaType;
+import fr.andross.banitem.items.meta.MetaTypeComparator;
+import fr.andross.banitem.items.meta.ModeldataEquals;
+import fr.andross.banitem.items.meta.Unbreakable;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * A decision tree of the custom items of a material.
+ * Custom items are branched on their cheap and discriminating metas <i>(model data, unbreakable, display name)</i>,
+ * so a lookup only compares the custom items that can match these features, instead of all of them.
+ * Custom items not using a meta <i>(or reverted)</i> are kept in the residual branch of this meta.
+ * @version 3.5
+ * @author Andross
+ */
+final class CustomItemsTree {
+    private static final int LEAF_SIZE = 4; // not branching below this amount of custom items
+    private final List<Map.Entry<CustomBannedItem, Map<BanAction, BanActionData>>> entries;
+    private final Node root;
+
+    /**
+     * Compiling the tree of these custom items
+     * @param entries the custom items entries of a material, in their matching order
+     */
+    CustomItemsTree(@NotNull final List<Map.Entry<CustomBannedItem, Map<BanAction, BanActionData>>> entries) {
+        this.entries = entries;
+        final List<Integer> indexes = new ArrayList<>();
+        for (int i = 0; i < entries.size(); i++) indexes.add(i);
+        root = build(indexes, EnumSet.allOf(Feature.class));
+    }
+
+    @Nullable
+    private Node build(@NotNull final List<Integer> indexes, @NotNull final Set<Feature> features) {
+        if (indexes.isEmpty()) return null;
+        if (indexes.size() <= LEAF_SIZE || features.isEmpty()) return new Node(indexes);
+
+        // Most discriminating feature: the one used by most custom items
+        Feature feature = null;
+        int best = 0;
+        for (final Feature f : features) {
+            int count = 0;
+            for (final int i : indexes)
+                if (f.getKey(entries.get(i).getKey()) != null) count++;
+            if (count > best) {
+                best = count;
+                feature = f;
+            }
+        }
+        if (feature == null) return new Node(indexes);
+
+        // Branching
+        final Set<Feature> remaining = EnumSet.copyOf(features);
+        remaining.remove(feature);
+        final List<Integer> residual = new ArrayList<>();
+        final Map<Object, List<Integer>> branches = new HashMap<>();
+        for (final int i : indexes) {
+            final Object key = feature.getKey(entries.get(i).getKey());
+            if (key == null) residual.add(i);
+            else branches.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+        }
+
+        final Map<Object, Node> children = new HashMap<>();
+        for (final Map.Entry<Object, List<Integer>> e : branches.entrySet())
+            children.put(e.getKey(), build(e.getValue(), remaining));
+        return new Node(feature, build(residual, remaining), children);
+    }
+
+    /**
+     * Get the first custom item matching this item
+     * @param features the features of the item
+     * @return the first matching custom item entry, or null if none matches
+     */
+    @Nullable
+    Map.Entry<CustomBannedItem, Map<BanAction, BanActionData>> get(@NotNull final ItemFeatures features) {
+        return get(features, new BitSet(entries.size()));
+    }
+
+    /**
+     * Get the first custom item matching this item, collecting the candidates in a reused bit set
+     * @param features the features of the item
+     * @param candidates an empty bit set, to collect the candidates
+     * @return the first matching custom item entry, or null if none matches
+     */
+    @Nullable
+    Map.Entry<CustomBannedItem, Map<BanAction, BanActionData>> get(@NotNull final ItemFeatures features, @NotNull final BitSet candidates) {
+        collect(root, features, candidates);
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            final Map.Entry<CustomBannedItem, Map<BanAction, BanActionData>> e = entries.get(i);
+            if (e.getKey().matches(features)) return e;
+        }
+        return null;
+    }
+
+    /**
+     * Get the custom items which may match this item, pruning the branches of features it does not have
+     * @param features the features of the item
+     * @return the indexes of the candidate custom items entries
+     */
+    @NotNull
+    BitSet getCandidates(@NotNull final ItemFeatures features) {
+        final BitSet candidates = new BitSet(entries.size());
+        collect(root, features, candidates);
+        return candidates;
+    }
+
+    private static void collect(@Nullable final Node node, @NotNull final ItemFeatures features, @NotNull final BitSet candidates) {
+        if (node == null) return;
+        if (node.feature == null) {
+            for (final int i : node.items) candidates.set(i);
+            return;
+        }
+
+        collect(node.residual, features, candidates);
+        final Object key = node.feature.getKey(features);
+        if (key != null) collect(node.children.get(key), features, candidates);
+    }
+
+    /**
+     * A cheap meta on which custom items can be branched
+     */
+    private enum Feature {
+        MODELDATA {
+            @Nullable
+            @Override
+            Object getKey(@NotNull final CustomBannedItem item) {
+                final MetaTypeComparator c = getComparator(item, MetaType.MODELDATA_EQUALS);
+                return c == null ? null : ((ModeldataEquals) c).getModelData();
+            }
+
+            @Nullable
+            @Override
+            Object getKey(@NotNull final ItemFeatures features) {
+                return features.getModelData();
+            }
+        },
+        UNBREAKABLE {
+            @Nullable
+            @Override
+            Object getKey(@NotNull final CustomBannedItem item) {
+                final MetaTypeComparator c = getComparator(item, MetaType.UNBREAKABLE);
+                return c == null || !((Unbreakable) c).isUnbreakable() ? null : Boolean.TRUE;
+            }
+
+            @Nullable
+            @Override
+            Object getKey(@NotNull final ItemFeatures features) {
+                return features.isUnbreakable() ? Boolean.TRUE : null;
+            }
+        },
+        DISPLAYNAME {
+            @Nullable
+            @Override
+            Object getKey(@NotNull final CustomBannedItem item) {
+                final MetaTypeComparator c = getComparator(item, MetaType.DISPLAYNAME_EQUALS);
+                return c == null ? null : ((DisplayNameEquals) c).getDisplayName();
+            }
+
+            @Nullable
+            @Override
+            Object getKey(@NotNull final ItemFeatures features) {
+                return features.getDisplayName();
+            }
+        };
+
+        /**
+         * @param item the custom item
+         * @return the value of this feature required by the custom item, or null if it does not require any
+         */
+        @Nullable
+        abstract Object getKey(@NotNull final CustomBannedItem item);
+
+        /**
+         * @param features the features of an item
+         * @return the value of this feature on the item, or null if none
+         */
+        @Nullable
+        abstract Object getKey(@NotNull final ItemFeatures features);
+
+        @Nullable
+        private static MetaTypeComparator getComparator(@NotNull final CustomBannedItem item, @NotNull final MetaType type) {
+            return item.isReverted() ? null : item.getMeta().get(type); // reverted items match what does not match
+        }
+    }
+
+    /**
+     * A node of the tree: either a leaf of custom items indexes, or a branch on a feature
+     */
+    private static final class Node {
+        private final Feature feature; // null for a leaf
+        private final int[] items;
+        private final Node residual;
+        private final Map<Object, Node> children;
+
+        private Node(@NotNull final List<Integer> items) {
+            this.feature = null;
+            this.items = items.stream().mapToInt(Integer::intValue).toArray();
+            this.residual = null;
+            this.children = Collections.emptyMap();
+        }
+
+        private Node(@NotNull final Feature feature, @Nullable final Node residual, @NotNull final Map<Object, Node> children) {
+            this.feature = feature;
+            this.items = new int[0];
+            this.residual = residual;
+            this.children = children;
+        }
+    }
+}
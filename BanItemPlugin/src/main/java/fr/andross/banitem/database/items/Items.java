@@ -21,7 +21,10 @@ import fr.andross.banitem.actions.BanAction;
 import fr.andross.banitem.actions.BanActionData;
 import fr.andross.banitem.items.BannedItem;
 import fr.andross.banitem.items.CustomBannedItem;
-import org.bukkit.inventory.ItemStack;
+import fr.andross.banitem.items.ItemFeatures;
+import fr.andross.banitem.items.ItemProbe;
+import fr.andross.banitem.utils.ObservedMap;
+import org.bukkit.Material;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -29,12 +32,36 @@ import java.util.*;
 
 /**
  * Map that store all the banned items, with their actions and actions datas.
- * @version 3.1.1
+ * Custom items are also indexed by material, and compiled in a decision tree per material,
+ * so only the custom items which can match the material and the cheap metas of the item are compared.
+ * @version 3.5
  * @author Andross
  */
 public class Items {
-    protected final Map<BannedItem, Map<BanAction, BanActionData>> items = new HashMap<>(); // includes normal & meta items
-    protected final Map<CustomBannedItem, Map<BanAction, BanActionData>> customItems = new HashMap<>();
+    private static final BannedItem[] SIMPLE_ITEMS = new BannedItem[Material.values().length];
+    protected final Map<BannedItem, Map<BanAction, BanActionData>> items = new ObservedMap<>(new HashMap<>(), this::clearIndexes); // includes normal & meta items
+    protected final Map<CustomBannedItem, Map<BanAction, BanActionData>> customItems = new ObservedMap<>(new HashMap<>(), this::clearIndexes);
+    private volatile Map<Material, List<Map.Entry<CustomBannedItem, Map<BanAction, BanActionData>>>> customItemsByMaterial;
+    private volatile Map<Material, CustomItemsTree> customItemsTrees;
+    private volatile BitSet materials;
+    private volatile BitSet metaMaterials;
+    private volatile Runnable onChange;
+
+    /**
+     * Creating an empty items map
+     */
+    public Items() {
+    }
+
+    /**
+     * Creating a copy of an items map.
+     * The entries, and their actions maps, are shared with the copied items map.
+     * @param items the items map to copy
+     */
+    public Items(@NotNull final Items items) {
+        this.items.putAll(items.items);
+        this.customItems.putAll(items.customItems);
+    }
 
     /**
      * Get a map of actions and their respective data for a banned item object, if present.
@@ -43,21 +70,37 @@ public class Items {
      */
     @Nullable
     public Map<BanAction, BanActionData> get(@NotNull final BannedItem bannedItem) {
+        return resolve(bannedItem, null);
+    }
+
+    @Nullable
+    private Map<BanAction, BanActionData> resolve(@NotNull final BannedItem bannedItem, @Nullable final ItemProbe probe) {
         // Custom items?
-        if (!customItems.isEmpty()) {
-            final ItemStack item = bannedItem.toItemStack();
-            for (final Map.Entry<CustomBannedItem, Map<BanAction, BanActionData>> e : customItems.entrySet()) {
-                if (e.getKey().matches(item))
-                    return e.getValue();
-            }
+        final CustomItemsTree tree = getCustomItemsTree(bannedItem.getType());
+        if (tree != null) {
+            final ItemFeatures features = new ItemFeatures(bannedItem);
+            final Map.Entry<CustomBannedItem, Map<BanAction, BanActionData>> e = probe == null ? tree.get(features) : tree.get(features, probe.getCandidates());
+            if (e != null) return e.getValue();
         }
 
         // Meta item?
         if (items.containsKey(bannedItem)) return items.get(bannedItem);
 
         // Simple material item?
-        final BannedItem simpleBannedItem = new BannedItem(bannedItem.getType());
-        return items.get(simpleBannedItem);
+        return items.get(getSimpleItem(bannedItem.getType()));
+    }
+
+    /**
+     * Get a map of actions and their respective data for a probed item, if present.
+     * The item meta of the probe is only accessed if a meta or custom item exists for its material.
+     * @param probe the probed item
+     * @return a map of actions and data if found, otherwise null.
+     */
+    @Nullable
+    public Map<BanAction, BanActionData> get(@NotNull final ItemProbe probe) {
+        final Material type = probe.getType();
+        if (hasMetaOrCustomItems(type)) return resolve(probe.getItem(), probe);
+        return items.get(getSimpleItem(type));
     }
 
     /**
@@ -90,6 +133,83 @@ public class Items {
         return customItems;
     }
 
+    /**
+     * Get the custom items which can match this material, with their actions.
+     * The returned list is unmodifiable.
+     * @param material the material
+     * @return list of custom items entries applying to this material, empty if none
+     */
+    @NotNull
+    public List<Map.Entry<CustomBannedItem, Map<BanAction, BanActionData>>> getCustomItems(@NotNull final Material material) {
+        Map<Material, List<Map.Entry<CustomBannedItem, Map<BanAction, BanActionData>>>> byMaterial = customItemsByMaterial;
+        if (byMaterial == null) {
+            byMaterial = new EnumMap<>(Material.class);
+            for (final Map.Entry<CustomBannedItem, Map<BanAction, BanActionData>> e : customItems.entrySet())
+                for (final Material m : e.getKey().getMaterials())
+                    byMaterial.computeIfAbsent(m, k -> new ArrayList<>()).add(e);
+            byMaterial.replaceAll((k, v) -> Collections.unmodifiableList(v));
+            customItemsByMaterial = byMaterial;
+        }
+        return byMaterial.getOrDefault(material, Collections.emptyList());
+    }
+
+    @Nullable
+    private CustomItemsTree getCustomItemsTree(@NotNull final Material material) {
+        Map<Material, CustomItemsTree> trees = customItemsTrees;
+        if (trees == null) {
+            trees = new EnumMap<>(Material.class);
+            for (final CustomBannedItem item : customItems.keySet())
+                for (final Material m : item.getMaterials())
+                    if (!trees.containsKey(m))
+                        trees.put(m, new CustomItemsTree(getCustomItems(m)));
+            customItemsTrees = trees;
+        }
+        return trees.get(material);
+    }
+
+    /**
+     * Quick check if any item <i>(simple, meta or custom item)</i> can match this material
+     * @param material the material
+     * @return true if any item exists for this material, otherwise false
+     */
+    public boolean contains(@NotNull final Material material) {
+        BitSet materials = this.materials;
+        if (materials == null) {
+            materials = new BitSet();
+            for (final BannedItem item : items.keySet())
+                materials.set(item.getType().ordinal());
+            for (final CustomBannedItem item : customItems.keySet())
+                for (final Material m : item.getMaterials())
+                    materials.set(m.ordinal());
+            this.materials = materials;
+        }
+        return materials.get(material.ordinal());
+    }
+
+    /**
+     * Check if any meta or custom item can match this material
+     * @param material the material
+     * @return true if a meta or custom item exists for this material, otherwise false
+     */
+    public boolean hasMetaOrCustomItems(@NotNull final Material material) {
+        BitSet metaMaterials = this.metaMaterials;
+        if (metaMaterials == null) {
+            metaMaterials = new BitSet();
+            for (final BannedItem item : items.keySet())
+                if (item.getItemMeta() != null || item.getData() != 0)
+                    metaMaterials.set(item.getType().ordinal());
+            this.metaMaterials = metaMaterials;
+        }
+        return metaMaterials.get(material.ordinal()) || !getCustomItems(material).isEmpty();
+    }
+
+    @NotNull
+    private static BannedItem getSimpleItem(@NotNull final Material m) {
+        BannedItem item = SIMPLE_ITEMS[m.ordinal()];
+        if (item == null) SIMPLE_ITEMS[m.ordinal()] = item = new BannedItem(m);
+        return item;
+    }
+
     /**
      * Get the total amount of items added
      * @return the total amount of items added
@@ -109,4 +229,25 @@ public class Items {
         customItems.values().stream().map(Map::keySet).forEach(set::addAll);
         return Collections.unmodifiableSet(set);
     }
+
+    /**
+     * Set the action run after any modification of the items maps.
+     * This is used by the blacklist or whitelist containing this items map, to know when its index has to be rebuilt.
+     * @param onChange the action to run, or null to remove it
+     */
+    public void setOnChange(@Nullable final Runnable onChange) {
+        this.onChange = onChange;
+    }
+
+    /**
+     * Clearing the material indexes and notifying the change, called after any modification of the items maps
+     */
+    private void clearIndexes() {
+        customItemsByMaterial = null;
+        customItemsTrees = null;
+        materials = null;
+        metaMaterials = null;
+        final Runnable onChange = this.onChange;
+        if (onChange != null) onChange.run();
+    }
 }
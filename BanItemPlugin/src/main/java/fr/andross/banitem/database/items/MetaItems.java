@@ -17,25 +17,32 @@
  */
 package fr.andross.banitem.database.items;
 
+import fr.andross.banitem.BanConfig;
 import fr.andross.banitem.BanItem;
 import fr.andross.banitem.items.BannedItem;
 import fr.andross.banitem.items.MetaItem;
 import fr.andross.banitem.utils.Chat;
 import fr.andross.banitem.utils.DoubleMap;
+import org.bukkit.Bukkit;
 import org.bukkit.command.CommandSender;
+import org.bukkit.configuration.InvalidConfigurationException;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.inventory.ItemStack;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.Locale;
+import java.util.logging.Level;
 
 /**
  * Map that contains all the meta items
  * This is a double map <i>(include a reversed map)</i>, for easier access of
  * meta items names and their respective banned item.
- * @version 3.1.1
+ * @version 3.5
  * @author Andross
  */
 public final class MetaItems extends DoubleMap<String, BannedItem> {
@@ -50,9 +57,33 @@ public final class MetaItems extends DoubleMap<String, BannedItem> {
      * @param sender the sender who executed this command, for debug
      */
     public MetaItems(@NotNull final BanItem pl, @NotNull final CommandSender sender) {
-        this.file = new File(pl.getDataFolder(), "metaitems.yml");
-        if (!file.exists()) pl.saveResource("metaitems.yml", false);
-        this.config = YamlConfiguration.loadConfiguration(file);
+        this(pl, pl.getBanConfig(), sender);
+    }
+
+    /**
+     * This will create a new instance of meta items map, with the items from <i>metaitems.yml</i> file.
+     * This should not be used externally, as it could create two different instance of this object.
+     * You should use {@link fr.andross.banitem.BanItemAPI#load(CommandSender, File)} instead.
+     * @param pl main instance
+     * @param banConfig the ban config being loaded, for debug
+     * @param sender the sender who executed this command, for debug
+     */
+    public MetaItems(@NotNull final BanItem pl, @NotNull final BanConfig banConfig, @NotNull final CommandSender sender) {
+        this(pl, banConfig, sender, parse(readFile(pl)));
+    }
+
+    /**
+     * This will create a new instance of meta items map, with the items from the already parsed <i>metaitems.yml</i> file.
+     * This should not be used externally, as it could create two different instance of this object.
+     * You should use {@link fr.andross.banitem.BanItemAPI#load(CommandSender, File)} instead.
+     * @param pl main instance
+     * @param banConfig the ban config being loaded, for debug
+     * @param sender the sender who executed this command, for debug
+     * @param config the parsed <i>metaitems.yml</i> file, see {@link #readFile(BanItem)} and {@link #parse(String)}
+     */
+    public MetaItems(@NotNull final BanItem pl, @NotNull final BanConfig banConfig, @NotNull final CommandSender sender, @NotNull final FileConfiguration config) {
+        this.file = getFile(pl);
+        this.config = config;
 
         // Loading meta items
         for (final String key : config.getKeys(false)) {
@@ -62,7 +93,7 @@ public final class MetaItems extends DoubleMap<String, BannedItem> {
                 put(key, new MetaItem(key.toLowerCase(Locale.ROOT), itemStack));
             } catch (final Exception e) {
                 e.printStackTrace();
-                sender.sendMessage(pl.getBanConfig().getPrefix() + Chat.color("&cInvalid meta item &e" + key + "&c in metaitems.yml."));
+                sender.sendMessage(banConfig.getPrefix() + Chat.color("&cInvalid meta item &e" + key + "&c in metaitems.yml."));
             }
         }
     }
@@ -75,6 +106,46 @@ public final class MetaItems extends DoubleMap<String, BannedItem> {
         return config;
     }
 
+    /**
+     * Reading the content of the <i>metaitems.yml</i> file, creating it if needed.
+     * The content is not parsed, as it contains serialized item stacks: it can be read asynchronously,
+     * and then parsed on the main thread with {@link #parse(String)}.
+     * @param pl main instance
+     * @return the content of the file, empty if it can not be read
+     */
+    @NotNull
+    public static String readFile(@NotNull final BanItem pl) {
+        final File file = getFile(pl);
+        if (!file.exists()) pl.saveResource("metaitems.yml", false);
+        try {
+            return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+        } catch (final IOException e) {
+            pl.getLogger().log(Level.SEVERE, "Cannot load " + file, e);
+            return "";
+        }
+    }
+
+    /**
+     * Parsing the content of the <i>metaitems.yml</i> file, deserializing its item stacks
+     * @param content the content of the file
+     * @return the parsed file configuration, empty if invalid
+     */
+    @NotNull
+    public static FileConfiguration parse(@NotNull final String content) {
+        final YamlConfiguration config = new YamlConfiguration();
+        try {
+            config.loadFromString(content);
+        } catch (final InvalidConfigurationException e) {
+            Bukkit.getLogger().log(Level.SEVERE, "Cannot load metaitems.yml", e);
+        }
+        return config;
+    }
+
+    @NotNull
+    private static File getFile(@NotNull final BanItem pl) {
+        return new File(pl.getDataFolder(), "metaitems.yml");
+    }
+
     /**
      * @return the "items.yml" file of the BanItem plugin
      */
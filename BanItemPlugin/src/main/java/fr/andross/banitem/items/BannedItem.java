@@ -29,14 +29,19 @@ import java.util.Objects;
 /**
  * An item wrapper, which can handle matching Material/ItemStacks
  * with their ItemMeta and not considering the amount.
- * @version 3.1.1
+ * The ItemMeta of an ItemStack is only copied when needed.
+ * The hash of the item <i>(its fingerprint)</i> is computed once, and compared before the ItemMeta.
+ * Items kept in shared caches should be {@link #snapshot() detached} from their ItemStack.
+ * @version 3.5
  * @author Andross
  */
 public class BannedItem {
     private final Material m;
-    private final ItemMeta itemMeta;
+    private ItemMeta itemMeta;
+    private volatile boolean itemMetaLoaded; // written after itemMeta, safely publishing it
     private final short data;
     private ItemStack itemStack;
+    private int fingerprint; // 0 if not computed yet
 
     /**
      * Creating an item without metadata
@@ -45,6 +50,7 @@ public class BannedItem {
     public BannedItem(@NotNull final Material m) {
         this.m = m;
         itemMeta = null;
+        itemMetaLoaded = true;
         data = 0;
     }
 
@@ -54,11 +60,20 @@ public class BannedItem {
      */
     public BannedItem(@NotNull final ItemStack item) {
         m = item.getType();
-        itemMeta = item.hasItemMeta() ? item.getItemMeta() : null;
+        itemMetaLoaded = !item.hasItemMeta(); // copied on first access
         data = BanVersion.v13OrMore ? 0 : item.getDurability();
         itemStack = item;
     }
 
+    private BannedItem(@NotNull final BannedItem item) {
+        m = item.m;
+        final ItemMeta itemMeta = item.getItemMeta();
+        this.itemMeta = itemMeta == null ? null : itemMeta.clone();
+        itemMetaLoaded = true;
+        data = item.data;
+        fingerprint = item.fingerprint;
+    }
+
     /**
      * @return the material of the item
      */
@@ -72,6 +87,10 @@ public class BannedItem {
      */
     @Nullable
     public ItemMeta getItemMeta() {
+        if (!itemMetaLoaded) {
+            itemMeta = itemStack.getItemMeta();
+            itemMetaLoaded = true;
+        }
         return itemMeta;
     }
 
@@ -98,20 +117,46 @@ public class BannedItem {
         return itemStack;
     }
 
+    /**
+     * Get a detached copy of this item, not holding its ItemStack and having its own ItemMeta copy.
+     * This copy is equal to this item, and can safely be kept in caches shared between threads.
+     * @return a detached copy of this item
+     */
+    @NotNull
+    public BannedItem snapshot() {
+        return new BannedItem(this);
+    }
+
+    /**
+     * Get the fingerprint of this item, computed once from its material, data and item meta.
+     * Equal items have the same fingerprint, so two items with different fingerprints are not equal.
+     * @return the fingerprint of this item
+     */
+    public final int getFingerprint() {
+        int h = fingerprint;
+        if (h == 0) {
+            final ItemMeta itemMeta = getItemMeta();
+            h = itemMeta == null ?
+                    (BanVersion.v13OrMore ? m.hashCode() : Objects.hash(m, data)) :
+                    (BanVersion.v13OrMore ? Objects.hash(m, itemMeta) : Objects.hash(m, itemMeta, data));
+            fingerprint = h;
+        }
+        return h;
+    }
+
     @Override
     public boolean equals(final Object o) {
         if (this == o) return true;
         if (!(o instanceof BannedItem)) return false;
         final BannedItem that = (BannedItem) o;
+        final ItemMeta itemMeta = getItemMeta();
         return itemMeta == null ?
                 (BanVersion.v13OrMore ? m == that.m : (m == that.m && data == that.data)) :
-                (m == that.m && Objects.equals(itemMeta, that.itemMeta) && (BanVersion.v13OrMore || Objects.equals(data, that.data)));
+                (m == that.m && getFingerprint() == that.getFingerprint() && Objects.equals(itemMeta, that.getItemMeta()) && (BanVersion.v13OrMore || Objects.equals(data, that.data)));
     }
 
     @Override
     public int hashCode() {
-        return itemMeta == null ?
-                (BanVersion.v13OrMore ? m.hashCode() : Objects.hash(m, data)) :
-                (BanVersion.v13OrMore ? Objects.hash(m, itemMeta) : Objects.hash(m, itemMeta, data));
+        return getFingerprint();
     }
 }
@@ -19,26 +19,35 @@ package fr.andross.banitem.items;
 
 import fr.andross.banitem.items.meta.MetaType;
 import fr.andross.banitem.items.meta.MetaTypeComparator;
+import fr.andross.banitem.items.meta.MetaTypeRegistry;
 import fr.andross.banitem.utils.debug.Debug;
 import fr.andross.banitem.utils.list.ListType;
 import fr.andross.banitem.utils.list.Listable;
 import org.bukkit.Material;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.meta.ItemMeta;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
- * An item wrapper, which store custom item meta
- * @version 3.3.2
+ * An item wrapper, which store custom item meta.
+ * The metas are compared in an order which adapts to their cost and their rejection rate,
+ * so the cheapest and most selective metas are compared first.
+ * @version 3.5
  * @author Andross
  */
 public final class CustomBannedItem extends BannedItem implements ICustomName {
+    private static final int SAMPLE_MASK = 63; // measuring the time of 1 check out of 64
+    private static final int REORDER_MASK = 4095; // reordering every 4096 checks
     private final String name;
     private final Set<Material> materials = EnumSet.noneOf(Material.class);
     private final Map<MetaType, MetaTypeComparator> meta = new EnumMap<>(MetaType.class);
+    private final Map<String, MetaTypeComparator> registeredMeta = new HashMap<>(); // registered by other plugins
+    private volatile MetaStats[] order = new MetaStats[0];
+    private final AtomicInteger checks = new AtomicInteger();
     private boolean valid = true;
     private boolean reverted = false;
 
@@ -62,6 +71,7 @@ public final class CustomBannedItem extends BannedItem implements ICustomName {
         this.materials.addAll(materials);
 
         // Meta
+        final List<MetaStats> order = new ArrayList<>();
         for (final String key : section.getKeys(false)) {
             if (key.equalsIgnoreCase("material")) continue;
             if (key.equalsIgnoreCase("reverted")) {
@@ -70,27 +80,31 @@ public final class CustomBannedItem extends BannedItem implements ICustomName {
             }
 
             // Getting type
-            final MetaType type;
-            try {
-                type = MetaType.valueOf(key.toUpperCase().replace("-", "_"));
-            } catch (final Exception e) {
+            final MetaTypeRegistry.Registration registration = MetaTypeRegistry.get(key);
+            if (registration == null) {
                 debug.clone().add(ListType.METATYPE, "&cUnknown meta type &e&l" + key + "&c.").sendDebug();
                 continue;
             }
 
             // Creating comparator
             try {
-                final MetaTypeComparator comparator = type.getClazz().getDeclaredConstructor(Object.class, Debug.class).newInstance(section.get(key), debug.clone().add(key));
+                final MetaTypeComparator comparator = registration.getFactory().create(section.get(key), debug.clone().add(key));
                 if (!comparator.isValid()) {
                     valid = false;
                     return;
                 }
-                meta.put(type, comparator);
+                if (registration.getType() != null) meta.put(registration.getType(), comparator);
+                else registeredMeta.put(registration.getName(), comparator);
+                order.add(new MetaStats(registration.getCost(), comparator));
             } catch (final Exception e) {
                 debug.clone().add(ListType.METATYPE, "&cError loading &e&l" + key + "&c. More information on console.").sendDebug();
                 e.printStackTrace();
             }
         }
+
+        // Initial order, by cost
+        order.sort(Comparator.comparingInt(s -> s.cost));
+        this.order = order.toArray(new MetaStats[0]);
     }
 
     /**
@@ -99,25 +113,55 @@ public final class CustomBannedItem extends BannedItem implements ICustomName {
      * @return true if the item meta matches, otherwise false
      */
     public boolean matches(@NotNull final ItemStack item) {
+        return matches(new ItemFeatures(item));
+    }
+
+    /**
+     * Comparing the features of the item with the item meta stored.
+     * The features are only extracted when needed, and can be shared when comparing multiple custom items.
+     * @param features the features of the item stack to compare
+     * @return true if the item meta matches, otherwise false
+     */
+    public boolean matches(@NotNull final ItemFeatures features) {
         // Matching material?
-        if (!materials.contains(item.getType())) return false;
-
-        // All meta are matching?
-        final ItemMeta itemMeta = item.getItemMeta();
-        if (!reverted) {
-            for (final Map.Entry<MetaType, MetaTypeComparator> e : meta.entrySet()) {
-                if (!e.getValue().matches(item, itemMeta))
-                    return false;
+        if (!materials.contains(features.getItemStack().getType())) return false;
+
+        // All meta are matching? (reverted custom item: matching everything that does not match)
+        final int check = checks.incrementAndGet();
+        final boolean sample = (check & SAMPLE_MASK) == 0;
+        if ((check & REORDER_MASK) == 0) reorder();
+
+        for (final MetaStats s : order) {
+            final boolean matches;
+            if (sample) {
+                // Features are lazily extracted: their extraction is part of the cost of the comparator needing them first
+                final long start = System.nanoTime();
+                matches = s.comparator.matches(features);
+                s.nanos.add(System.nanoTime() - start);
+                s.samples.increment();
+            } else
+                matches = s.comparator.matches(features);
+
+            s.calls.increment();
+            if (!matches) {
+                s.mismatches.increment();
+                return reverted;
             }
-            return true;
         }
+        return !reverted;
+    }
 
-        // Reverted custom item! (matching everything that does not match)
-        for (final Map.Entry<MetaType, MetaTypeComparator> e : meta.entrySet()) {
-            if (!e.getValue().matches(item, itemMeta))
-                return true;
-        }
-        return false;
+    /**
+     * Sorting the metas by their expected cost to reject an item,
+     * so their average cost divided by their mismatch rate.
+     * This is the same for reverted custom items, as they also stop on the first mismatch.
+     */
+    private synchronized void reorder() {
+        final MetaStats[] order = this.order.clone();
+        // Scores are computed once, as the counters may change while sorting
+        for (final MetaStats s : order) s.score = s.getScore();
+        Arrays.sort(order, Comparator.comparingDouble(s -> s.score));
+        this.order = order;
     }
 
     /**
@@ -148,6 +192,16 @@ public final class CustomBannedItem extends BannedItem implements ICustomName {
         return meta;
     }
 
+    /**
+     * Get the map of meta registered by other plugins to compare, by their upper cased name
+     * @return the map of meta registered by other plugins to compare
+     * @see MetaTypeRegistry
+     */
+    @NotNull
+    public Map<String, MetaTypeComparator> getRegisteredMeta() {
+        return registeredMeta;
+    }
+
     /**
      * If the custom item is correctly loaded
      * @return if the custom item is correctly loaded
@@ -164,6 +218,16 @@ public final class CustomBannedItem extends BannedItem implements ICustomName {
         return reverted;
     }
 
+    /**
+     * Custom items are loaded from the configuration and compared by name, they are already detached.
+     * @return this custom item
+     */
+    @NotNull
+    @Override
+    public BannedItem snapshot() {
+        return this;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -176,4 +240,29 @@ public final class CustomBannedItem extends BannedItem implements ICustomName {
     public int hashCode() {
         return Objects.hash(name);
     }
+
+    /**
+     * A meta comparator with its runtime counters.
+     * The timings include the extraction of the item features the comparator is the first to need.
+     */
+    private static final class MetaStats {
+        private final int cost;
+        private final MetaTypeComparator comparator;
+        private final LongAdder calls = new LongAdder(), mismatches = new LongAdder(), nanos = new LongAdder(), samples = new LongAdder();
+        private double score; // computed when reordering
+
+        private MetaStats(final int cost, @NotNull final MetaTypeComparator comparator) {
+            this.cost = cost;
+            this.comparator = comparator;
+        }
+
+        private double getScore() {
+            // Average cost, using the cost class while there is not enough samples
+            final long samples = this.samples.sum();
+            final double cost = samples < 8 ? this.cost * 100 : (double) nanos.sum() / samples;
+            // Mismatch rate, with one mismatch assumed so new metas are not considered useless
+            final double mismatchRate = (mismatches.sum() + 1d) / (calls.sum() + 2d);
+            return cost / mismatchRate;
+        }
+    }
 }
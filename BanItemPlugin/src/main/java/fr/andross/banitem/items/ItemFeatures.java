@@ -0,0 +1,249 @@
+/*
+ * BanItem - Lightweight, powerful & configurable per world ban item plugin
+ * Copyright (C) 2021 André Sustac
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your action) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.andross.banitem.items;
+
+import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.Multimap;
+import de.tr7zw.nbtapi.NBTItem;
+import fr.andross.banitem.utils.BanVersion;
+import fr.andross.banitem.utils.Utils;
+import fr.andross.banitem.utils.attributes.AttributeLegacy;
+import fr.andross.banitem.utils.attributes.ReflectionUtils;
+import fr.andross.banitem.utils.hooks.OldItemUtils;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.potion.PotionEffectType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A lazy view of the features of an item stack, shared by all meta comparators of a check.
+ * Each feature is extracted from the item stack on first access only,
+ * so matching an item against multiple custom items extracts each feature at most once.
+ * This view is not thread safe, and must not be stored after the check.
+ * @version 3.5
+ * @author Andross
+ */
+public final class ItemFeatures {
+    private final ItemStack itemStack;
+    private BannedItem item;
+    private ItemMeta itemMeta;
+    private boolean itemMetaLoaded;
+    private Map<Enchantment, Integer> enchantments;
+    private Map<PotionEffectType, Integer> potionEffects;
+    private Multimap<String, Object> legacyAttributes;
+    private List<String> lore;
+    private boolean loreLoaded;
+    private String displayName;
+    private boolean displayNameLoaded;
+    private Integer modelData;
+    private boolean modelDataLoaded;
+    private Boolean unbreakable;
+    private Object nbtItem; // not typed, as NBTAPI may not be installed
+    private Map<Object, Object> computed;
+
+    /**
+     * Creating a view of this item stack
+     * @param itemStack the item stack
+     */
+    public ItemFeatures(@NotNull final ItemStack itemStack) {
+        this.itemStack = itemStack;
+    }
+
+    /**
+     * Creating a view of this item stack, with its item meta already retrieved
+     * @param itemStack the item stack
+     * @param itemMeta the item meta of this item stack
+     */
+    public ItemFeatures(@NotNull final ItemStack itemStack, @Nullable final ItemMeta itemMeta) {
+        this.itemStack = itemStack;
+        this.itemMeta = itemMeta;
+        this.itemMetaLoaded = true;
+    }
+
+    /**
+     * Creating a view of this banned item, sharing its item meta
+     * @param item the banned item
+     */
+    public ItemFeatures(@NotNull final BannedItem item) {
+        this(item.toItemStack(), item.getItemMeta());
+        this.item = item;
+    }
+
+    /**
+     * @return the item stack
+     */
+    @NotNull
+    public ItemStack getItemStack() {
+        return itemStack;
+    }
+
+    /**
+     * Get the banned item of the item stack, with its item meta copied.
+     * As it does not change if the item stack is modified, it can be used as a cache key.
+     * @return the banned item of the item stack
+     */
+    @NotNull
+    public BannedItem getItem() {
+        if (item == null) item = new BannedItem(itemStack);
+        item.getItemMeta(); // snapshot of the item meta
+        return item;
+    }
+
+    /**
+     * @return the item meta of the item stack, or null if the item can not have any item meta
+     */
+    @Nullable
+    public ItemMeta getItemMeta() {
+        if (!itemMetaLoaded) {
+            itemMeta = itemStack.getItemMeta();
+            itemMetaLoaded = true;
+        }
+        return itemMeta;
+    }
+
+    /**
+     * @return non-null unmodifiable map of enchantments and level on the item, including stored enchants
+     * @see Utils#getAllEnchants(ItemStack, ItemMeta)
+     */
+    @NotNull
+    public Map<Enchantment, Integer> getEnchantments() {
+        if (enchantments == null) enchantments = Utils.getAllEnchants(itemStack, getItemMeta());
+        return enchantments;
+    }
+
+    /**
+     * @return non-null unmodifiable map of potion effect and level on the item
+     * @see Utils#getAllPotionEffects(ItemStack, ItemMeta)
+     */
+    @NotNull
+    public Map<PotionEffectType, Integer> getPotionEffects() {
+        if (potionEffects == null) potionEffects = Utils.getAllPotionEffects(itemStack, itemStack.hasItemMeta() ? getItemMeta() : null);
+        return potionEffects;
+    }
+
+    /**
+     * Get the attributes modifiers of the NMS item stack, read with reflection (MC <1.9).
+     * Keys are the attributes names <i>(see {@link AttributeLegacy#valueFromName(String)})</i>, and values the NMS modifiers.
+     * The multimap is the one of the NMS item stack, not copied.
+     * @return non-null multimap of the attributes modifiers of the item, empty if they can not be read
+     */
+    @NotNull
+    public Multimap<String, Object> getLegacyAttributes() {
+        if (legacyAttributes == null) {
+            try {
+                final Object nmsItemStack = ReflectionUtils.asNMSCopy(itemStack);
+                legacyAttributes = ReflectionUtils.callMethodWithReturnType(nmsItemStack, Multimap.class);
+            } catch (ClassNotFoundException | InvocationTargetException | IllegalAccessException | NoSuchMethodException e) {
+                e.printStackTrace();
+                legacyAttributes = ImmutableMultimap.of();
+            }
+        }
+        return legacyAttributes;
+    }
+
+    /**
+     * @return the lore of the item, or null if the item has no lore
+     */
+    @Nullable
+    public List<String> getLore() {
+        if (!loreLoaded) {
+            final ItemMeta itemMeta = getItemMeta();
+            lore = itemMeta == null ? null : (itemMeta.hasLore() ? itemMeta.getLore() : null);
+            loreLoaded = true;
+        }
+        return lore;
+    }
+
+    /**
+     * @return the display name of the item, or null if the item has no display name
+     */
+    @Nullable
+    public String getDisplayName() {
+        if (!displayNameLoaded) {
+            final ItemMeta itemMeta = getItemMeta();
+            displayName = itemMeta == null ? null : (itemMeta.hasDisplayName() ? itemMeta.getDisplayName() : null);
+            displayNameLoaded = true;
+        }
+        return displayName;
+    }
+
+    /**
+     * Custom model data are only available on MC 1.14+
+     * @return the custom model data of the item, or null if the item has no custom model data
+     */
+    @Nullable
+    public Integer getModelData() {
+        if (!modelDataLoaded) {
+            final ItemMeta itemMeta = BanVersion.v14OrMore ? getItemMeta() : null;
+            modelData = itemMeta == null ? null : (itemMeta.hasCustomModelData() ? itemMeta.getCustomModelData() : null);
+            modelDataLoaded = true;
+        }
+        return modelData;
+    }
+
+    /**
+     * @return true if the item is unbreakable, otherwise false
+     */
+    public boolean isUnbreakable() {
+        if (unbreakable == null) {
+            final ItemMeta itemMeta = getItemMeta();
+            unbreakable = itemMeta != null && (BanVersion.v11OrMore ? itemMeta.isUnbreakable() : OldItemUtils.isUnbreakable(itemMeta));
+        }
+        return unbreakable;
+    }
+
+    /**
+     * Get the NBT wrapper of the item.
+     * This must only be called if NBTAPI is installed.
+     * @return the NBT wrapper of the item
+     */
+    @NotNull
+    public NBTItem getNBTItem() {
+        if (nbtItem == null) nbtItem = new NBTItem(itemStack);
+        return (NBTItem) nbtItem;
+    }
+
+    /**
+     * Get a value derived from the features of this item, computing it on first access.
+     * This is used by matchers sharing a result between multiple comparators,
+     * such as {@link fr.andross.banitem.items.meta.TextMatcher}.
+     * @param key the key of the value, usually the instance computing it
+     * @param loader the function computing the value
+     * @param <T> the type of the value
+     * @return the computed value
+     */
+    @NotNull
+    @SuppressWarnings("unchecked")
+    public <T> T getOrCompute(@NotNull final Object key, @NotNull final Function<ItemFeatures, T> loader) {
+        if (computed == null) computed = new HashMap<>(4);
+        T value = (T) computed.get(key);
+        if (value == null) {
+            value = loader.apply(this);
+            computed.put(key, value);
+        }
+        return value;
+    }
+}
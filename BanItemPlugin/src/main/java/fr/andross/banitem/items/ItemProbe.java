@@ -0,0 +1,170 @@
+/*
+ * BanItem - Lightweight, powerful & configurable per world ban item plugin
+ * Copyright (C) 2021 André Sustac
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your action) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.andross.banitem.items;
+
+import fr.andross.banitem.database.BanCheck;
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Locale;
+
+/**
+ * A reusable lookup key, used to check an item without allocating anything.
+ * The material is known directly, while the {@link BannedItem} <i>(and its item meta)</i>
+ * is only created if a meta or custom rule exists for this material.
+ * Probes are reused per thread, so they must be released after the check,
+ * and must not be stored: use {@link #getItem()} instead.
+ * The state of the check <i>(bypass permission, custom items candidates)</i> is also reused by the probe.
+ * @version 3.5
+ * @author Andross
+ */
+public final class ItemProbe {
+    private static final ThreadLocal<ItemProbe> PROBES = ThreadLocal.withInitial(ItemProbe::new);
+    private static final String[] NAMES = Arrays.stream(Material.values()).map(m -> m.name().toLowerCase(Locale.ROOT)).toArray(String[]::new);
+    private Material type;
+    private ItemStack itemStack;
+    private BannedItem item;
+    private boolean used;
+    private final BanCheck check = new BanCheck();
+    private final BitSet candidates = new BitSet();
+
+    private ItemProbe() {
+    }
+
+    /**
+     * Get a probe for this material
+     * @param m the material
+     * @return a probe for this material, to release after use
+     */
+    @NotNull
+    public static ItemProbe of(@NotNull final Material m) {
+        final ItemProbe probe = acquire();
+        probe.type = m;
+        return probe;
+    }
+
+    /**
+     * Get a probe for this item stack
+     * @param item the item stack
+     * @return a probe for this item stack, to release after use
+     */
+    @NotNull
+    public static ItemProbe of(@NotNull final ItemStack item) {
+        final ItemProbe probe = acquire();
+        probe.type = item.getType();
+        probe.itemStack = item;
+        return probe;
+    }
+
+    /**
+     * Get a probe for this banned item
+     * @param item the banned item
+     * @return a probe for this banned item, to release after use
+     */
+    @NotNull
+    public static ItemProbe of(@NotNull final BannedItem item) {
+        final ItemProbe probe = acquire();
+        probe.type = item.getType();
+        probe.item = item;
+        return probe;
+    }
+
+    @NotNull
+    private static ItemProbe acquire() {
+        final ItemProbe probe = PROBES.get();
+        if (probe.used) return new ItemProbe().use(); // nested check, ex: from a ban event
+        return probe.use();
+    }
+
+    @NotNull
+    private ItemProbe use() {
+        used = true;
+        return this;
+    }
+
+    /**
+     * Releasing this probe, so it can be reused by the next check of this thread
+     */
+    public void release() {
+        type = null;
+        itemStack = null;
+        item = null;
+        used = false;
+        check.reset(null);
+    }
+
+    /**
+     * @return the material of the probed item
+     */
+    @NotNull
+    public Material getType() {
+        return type;
+    }
+
+    /**
+     * @return the name to lower case of the material of the probed item, computed once per material
+     */
+    @NotNull
+    public String getTypeName() {
+        return NAMES[type.ordinal()];
+    }
+
+    /**
+     * @return the probed item stack, or null if probing a material or a banned item
+     */
+    @Nullable
+    public ItemStack getItemStack() {
+        return itemStack;
+    }
+
+    /**
+     * Get the banned item of this probe, creating it if needed.
+     * The item meta is only copied when accessed.
+     * @return the banned item of this probe
+     */
+    @NotNull
+    public BannedItem getItem() {
+        if (item == null) item = itemStack == null ? new BannedItem(type) : new BannedItem(itemStack);
+        return item;
+    }
+
+    /**
+     * Get the check of this probe, sharing the bypass permission of the item between the blacklist and whitelist
+     * @param player the player checked
+     * @return the check of this probe, reset for this player
+     */
+    @NotNull
+    public BanCheck getCheck(@NotNull final Player player) {
+        check.reset(player);
+        return check;
+    }
+
+    /**
+     * @return an empty bit set, reused by this probe to collect the candidate custom items
+     */
+    @NotNull
+    public BitSet getCandidates() {
+        candidates.clear();
+        return candidates;
+    }
+}
@@ -21,8 +21,9 @@ import org.bukkit.inventory.ItemStack;
 import org.jetbrains.annotations.NotNull;
 
 /**
- * An item wrapper for meta items
- * @version 3.3
+ * An item wrapper for meta items.
+ * The fingerprint of a meta item is computed when loaded.
+ * @version 3.5
  * @author Andross
  */
 public final class MetaItem extends BannedItem implements ICustomName {
@@ -31,6 +32,7 @@ public final class MetaItem extends BannedItem implements ICustomName {
     public MetaItem(@NotNull final String name, @NotNull final ItemStack itemStack) {
         super(itemStack);
         this.name = name;
+        getFingerprint();
     }
 
     /**
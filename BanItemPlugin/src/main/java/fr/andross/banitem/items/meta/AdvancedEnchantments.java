@@ -17,22 +17,24 @@
  */
 package fr.andross.banitem.items.meta;
 
+import fr.andross.banitem.items.BannedItem;
+import fr.andross.banitem.items.ItemFeatures;
+import fr.andross.banitem.utils.LruCache;
 import fr.andross.banitem.utils.debug.Debug;
 import fr.andross.banitem.utils.list.Listable;
 import n3kas.ae.api.AEAPI;
-import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.meta.ItemMeta;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
 
 /**
- * A simple meta comparator to compare the AdvancedEnchantments
- * @version 3.2
+ * A simple meta comparator to compare the AdvancedEnchantments.
+ * The enchantments of the items are cached, as resolving them deserializes the item NBT.
+ * @version 3.5
  * @author Andross
  */
 public final class AdvancedEnchantments extends MetaTypeComparator {
+    private static final LruCache<BannedItem, Map<String, Integer>> ENCHANTS = new LruCache<>(1024, BannedItem::snapshot); // item -> lower cased enchantments
     private final Set<String> enchantsWithoutLevels = new HashSet<>(); // Any enchantment levels
     private final Map<String, Integer> enchants = new HashMap<>(); // Specific enchantments with specific levels
     private final Map<Object, Integer[]> enchantsIntervals = new HashMap<>(); // Enchantment interval
@@ -98,14 +100,15 @@ public final class AdvancedEnchantments extends MetaTypeComparator {
                 enchantsIntervals.put(s[0].toLowerCase(Locale.ROOT), new Integer[] { minLevel, maxLevel });
             }
         }
+        ENCHANTS.clear(); // (re)loading, AdvancedEnchantments may have changed
     }
 
     @Override
-    public boolean matches(@NotNull final ItemStack itemStack, @Nullable final ItemMeta itemMeta) {
-        final Map<String, Integer> enchantsOnItem = AEAPI.getEnchantmentsOnItem(itemStack);
+    public boolean matches(@NotNull final ItemFeatures features) {
+        final Map<String, Integer> enchantsOnItem = features.getOrCompute(AdvancedEnchantments.class, f -> ENCHANTS.get(f.getItem(), i -> getEnchantments(f)));
         if (enchantsOnItem.isEmpty()) return false;
         for (final Map.Entry<String, Integer> e : enchantsOnItem.entrySet()) {
-            final String enchantment = e.getKey().toLowerCase(Locale.ROOT);
+            final String enchantment = e.getKey();
             final int level = e.getValue();
 
             // Containing enchantment (not considering level) ?
@@ -122,4 +125,14 @@ public final class AdvancedEnchantments extends MetaTypeComparator {
         }
         return false;
     }
+
+    @NotNull
+    private static Map<String, Integer> getEnchantments(@NotNull final ItemFeatures features) {
+        final Map<String, Integer> enchantsOnItem = AEAPI.getEnchantmentsOnItem(features.getItemStack());
+        if (enchantsOnItem == null || enchantsOnItem.isEmpty()) return Collections.emptyMap();
+        final Map<String, Integer> enchantments = new HashMap<>();
+        for (final Map.Entry<String, Integer> e : enchantsOnItem.entrySet())
+            enchantments.put(e.getKey().toLowerCase(Locale.ROOT), e.getValue());
+        return Collections.unmodifiableMap(enchantments);
+    }
 }
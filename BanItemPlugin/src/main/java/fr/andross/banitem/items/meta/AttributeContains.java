@@ -19,6 +19,7 @@ package fr.andross.banitem.items.meta;
 
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Multimap;
+import fr.andross.banitem.items.ItemFeatures;
 import fr.andross.banitem.utils.BanVersion;
 import fr.andross.banitem.utils.attributes.AttributeLegacy;
 import fr.andross.banitem.utils.attributes.AttributeLevels;
@@ -26,22 +27,28 @@ import fr.andross.banitem.utils.attributes.ReflectionUtils;
 import fr.andross.banitem.utils.debug.Debug;
 import fr.andross.banitem.utils.list.Listable;
 import org.bukkit.attribute.Attribute;
-import org.bukkit.inventory.ItemStack;
+import org.bukkit.attribute.AttributeModifier;
 import org.bukkit.inventory.meta.ItemMeta;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 /**
- * A simple meta comparator to compare attributes
- * @version 3.4
+ * A simple meta comparator to compare attributes.
+ * Configured attributes are compiled in a map keyed by attribute,
+ * and the attribute modifiers of the item are matched directly against it,
+ * without copying them <i>(NMS modifiers are read one by one on MC &lt;1.9)</i>.
+ * @version 3.5
  * @author EpiCanard
  */
 public final class AttributeContains extends MetaTypeComparator {
-    private final Multimap<Object, AttributeLevels> attributes = HashMultimap.create();
+    private static final AttributeLevels[] ANY_LEVEL = new AttributeLevels[0];
+    private final Map<Object, AttributeLevels[]> levels = new HashMap<>(); // attribute -> levels, attributes are not enums on MC 1.21.3+
 
     public AttributeContains(final Object o, final Debug debug) {
         super(o);
@@ -54,6 +61,7 @@ public final class AttributeContains extends MetaTypeComparator {
         }
 
         final List<String> configAttributes = Listable.getSplittedStringList(o);
+        final Multimap<Object, AttributeLevels> attributes = HashMultimap.create();
 
         for (final String attr : configAttributes) {
             final String[] s = attr.split(":");
@@ -90,15 +98,49 @@ public final class AttributeContains extends MetaTypeComparator {
 
             attributes.put(attribute, new AttributeLevels(minLevel, maxLevel));
         }
+
+        // Compiling
+        for (final Map.Entry<Object, Collection<AttributeLevels>> e : attributes.asMap().entrySet()) {
+            final Collection<AttributeLevels> attributeLevels = e.getValue();
+            levels.put(e.getKey(), attributeLevels.contains(null) ? ANY_LEVEL : attributeLevels.toArray(new AttributeLevels[0]));
+        }
     }
 
     @Override
-    public boolean matches(@NotNull final ItemStack itemStack, @Nullable final ItemMeta itemMeta) {
+    public boolean matches(@NotNull final ItemFeatures features) {
+        final ItemMeta itemMeta = features.getItemMeta();
         if (itemMeta == null) return false;
-        return getAttributesModifiers(itemStack).entries().stream()
-                .filter(entry -> attributes.containsKey(entry.getKey()))
-                .anyMatch(entry -> attributes.get(entry.getKey()).stream()
-                        .anyMatch(levels -> levels == null || levels.matches(entry.getValue())));
+
+        if (BanVersion.v9OrMore) {
+            final Multimap<Attribute, AttributeModifier> modifiers = itemMeta.getAttributeModifiers();
+            if (modifiers == null) return false;
+            for (final Map.Entry<Attribute, AttributeModifier> e : modifiers.entries())
+                if (matchesLevel(e.getKey(), e.getValue().getAmount()))
+                    return true;
+        } else {
+            try {
+                for (final Map.Entry<String, Object> e : features.getLegacyAttributes().entries()) {
+                    final AttributeLegacy attribute = AttributeLegacy.valueFromName(e.getKey());
+                    if (attribute == null) continue;
+                    final Double amount = ReflectionUtils.callMethodWithName(e.getValue(), "d");
+                    if (matchesLevel(attribute, amount))
+                        return true;
+                }
+            } catch (InvocationTargetException | IllegalAccessException | NoSuchMethodException e) {
+                e.printStackTrace();
+            }
+        }
+        return false;
+    }
+
+    private boolean matchesLevel(@NotNull final Object attribute, final double amount) {
+        final AttributeLevels[] attributeLevels = levels.get(attribute);
+        if (attributeLevels == null) return false;
+        if (attributeLevels == ANY_LEVEL) return true;
+        for (final AttributeLevels l : attributeLevels)
+            if (l.matches(amount))
+                return true;
+        return false;
     }
 
     /**
@@ -117,38 +159,6 @@ public final class AttributeContains extends MetaTypeComparator {
         }
     }
 
-    /**
-     * Extract attributes modifiers from item
-     * @param itemStack ItemStack
-     * @return A Multimap of attribute name and amount
-     */
-    @NotNull
-    private Multimap<Object, Double> getAttributesModifiers(@NotNull final ItemStack itemStack) {
-        final Multimap<Object, Double> map = HashMultimap.create();
-        if (BanVersion.v9OrMore) {
-            // Extract attributes with bukkit api
-            if (itemStack.getItemMeta() != null && itemStack.getItemMeta().getAttributeModifiers() != null) {
-                itemStack.getItemMeta().getAttributeModifiers().entries().forEach(entry ->
-                        map.put(entry.getKey(), entry.getValue().getAmount())
-                );
-            }
-        } else {
-            // Extract attributes with reflection from NMSItemStack (MC <1.9)
-            try {
-                final Object nmsItemStack = ReflectionUtils.asNMSCopy(itemStack);
-                final Multimap<String, Object> multimap = ReflectionUtils.callMethodWithReturnType(nmsItemStack, Multimap.class);
-                for (Map.Entry<String, Object> entry : multimap.entries()) {
-                    final AttributeLegacy attribute = AttributeLegacy.valueFromName(entry.getKey());
-                    if (attribute != null)
-                        map.put(attribute, ReflectionUtils.callMethodWithName(entry.getValue(), "d"));
-                }
-            } catch (ClassNotFoundException | InvocationTargetException | IllegalAccessException | NoSuchMethodException e) {
-                e.printStackTrace();
-            }
-        }
-        return map;
-    }
-
     /**
      * Parse the level from String to Double
      * @param level String level to parse
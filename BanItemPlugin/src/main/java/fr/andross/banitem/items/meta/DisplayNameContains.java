@@ -17,19 +17,17 @@
  */
 package fr.andross.banitem.items.meta;
 
+import fr.andross.banitem.items.ItemFeatures;
 import fr.andross.banitem.utils.Chat;
 import fr.andross.banitem.utils.debug.Debug;
-import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.meta.ItemMeta;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
 
 /**
  * A simple meta comparator to compare the display name
- * @version 3.1
+ * @version 3.5
  * @author Andross
  */
-public final class DisplayNameContains extends MetaTypeComparator {
+public final class DisplayNameContains extends TextMetaComparator {
     private final String displayname;
 
     public DisplayNameContains(final Object o, final Debug debug) {
@@ -38,7 +36,13 @@ public final class DisplayNameContains extends MetaTypeComparator {
     }
 
     @Override
-    public boolean matches(@NotNull final ItemStack itemStack, @Nullable final ItemMeta itemMeta) {
-        return itemMeta != null && itemMeta.hasDisplayName() && itemMeta.getDisplayName().contains(displayname);
+    int addTo(@NotNull final TextMatcher matcher) {
+        return matcher.addLiteral(TextMatcher.Target.DISPLAYNAME, displayname);
+    }
+
+    @Override
+    boolean scan(@NotNull final ItemFeatures features) {
+        final String itemDisplayName = features.getDisplayName();
+        return itemDisplayName != null && itemDisplayName.contains(displayname);
     }
 }
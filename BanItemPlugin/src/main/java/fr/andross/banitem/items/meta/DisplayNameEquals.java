@@ -17,16 +17,14 @@
  */
 package fr.andross.banitem.items.meta;
 
+import fr.andross.banitem.items.ItemFeatures;
 import fr.andross.banitem.utils.Chat;
 import fr.andross.banitem.utils.debug.Debug;
-import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.meta.ItemMeta;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
 
 /**
  * A simple meta comparator to compare the display name
- * @version 3.1
+ * @version 3.5
  * @author Andross
  */
 public final class DisplayNameEquals extends MetaTypeComparator {
@@ -37,8 +35,16 @@ public final class DisplayNameEquals extends MetaTypeComparator {
         displayname = Chat.color(o.toString());
     }
 
+    /**
+     * @return the display name to match
+     */
+    @NotNull
+    public String getDisplayName() {
+        return displayname;
+    }
+
     @Override
-    public boolean matches(@NotNull final ItemStack itemStack, @Nullable final ItemMeta itemMeta) {
-        return itemMeta != null && itemMeta.hasDisplayName() && itemMeta.getDisplayName().equals(displayname);
+    public boolean matches(@NotNull final ItemFeatures features) {
+        return displayname.equals(features.getDisplayName());
     }
 }
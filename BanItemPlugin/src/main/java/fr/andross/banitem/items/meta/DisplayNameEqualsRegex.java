@@ -17,22 +17,20 @@
  */
 package fr.andross.banitem.items.meta;
 
+import fr.andross.banitem.items.ItemFeatures;
 import fr.andross.banitem.utils.Chat;
 import fr.andross.banitem.utils.debug.Debug;
-import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.meta.ItemMeta;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
 
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
 /**
  * A simple meta comparator to compare the display name with regex
- * @version 3.4.1
+ * @version 3.5
  * @author Andross
  */
-public final class DisplayNameEqualsRegex extends MetaTypeComparator {
+public final class DisplayNameEqualsRegex extends TextMetaComparator {
     private Pattern pattern;
 
     public DisplayNameEqualsRegex(final Object o, final Debug debug) {
@@ -46,7 +44,13 @@ public final class DisplayNameEqualsRegex extends MetaTypeComparator {
     }
 
     @Override
-    public boolean matches(@NotNull final ItemStack itemStack, @Nullable final ItemMeta itemMeta) {
-        return itemMeta != null && itemMeta.hasDisplayName() && pattern.matcher(itemMeta.getDisplayName()).find();
+    int addTo(@NotNull final TextMatcher matcher) {
+        return matcher.addPattern(TextMatcher.Target.DISPLAYNAME, pattern);
+    }
+
+    @Override
+    boolean scan(@NotNull final ItemFeatures features) {
+        final String itemDisplayName = features.getDisplayName();
+        return itemDisplayName != null && pattern.matcher(itemDisplayName).find();
     }
 }
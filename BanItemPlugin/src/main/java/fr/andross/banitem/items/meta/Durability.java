@@ -17,17 +17,16 @@
  */
 package fr.andross.banitem.items.meta;
 
+import fr.andross.banitem.items.ItemFeatures;
 import fr.andross.banitem.utils.BanVersion;
 import fr.andross.banitem.utils.debug.Debug;
-import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.Damageable;
 import org.bukkit.inventory.meta.ItemMeta;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
 
 /**
  * A simple meta comparator to compare the durability
- * @version 3.3
+ * @version 3.5
  * @author Andross
  */
 public final class Durability extends MetaTypeComparator {
@@ -75,12 +74,13 @@ public final class Durability extends MetaTypeComparator {
     }
 
     @Override
-    public boolean matches(@NotNull final ItemStack itemStack, @Nullable final ItemMeta itemMeta) {
+    public boolean matches(@NotNull final ItemFeatures features) {
         final int dura;
         if (BanVersion.v13OrMore) {
+            final ItemMeta itemMeta = features.getItemMeta();
             if (itemMeta == null) return false;
             dura = ((Damageable)itemMeta).getDamage();
-        } else dura = itemStack.getDurability();
+        } else dura = features.getItemStack().getDurability();
         return dura >= min && dura <= max;
     }
 }
@@ -17,32 +17,25 @@
  */
 package fr.andross.banitem.items.meta;
 
+import fr.andross.banitem.items.ItemFeatures;
 import fr.andross.banitem.utils.BanVersion;
-import fr.andross.banitem.utils.Utils;
+import fr.andross.banitem.utils.LevelTable;
 import fr.andross.banitem.utils.debug.Debug;
 import fr.andross.banitem.utils.enchantments.EnchantmentHelper;
-import fr.andross.banitem.utils.enchantments.EnchantmentWrapper;
 import fr.andross.banitem.utils.list.Listable;
 import org.bukkit.enchantments.Enchantment;
-import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.meta.ItemMeta;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
 
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
-import java.util.Set;
 
 /**
- * A simple meta comparator to compare the enchantments
- * @version 3.1.1
+ * A simple meta comparator to compare the enchantments.
+ * Enchantments and their levels are compiled in a {@link LevelTable}.
+ * @version 3.5
  * @author Andross
  */
 public final class EnchantmentContains extends MetaTypeComparator {
-    private final Set<Object> enchantsWithoutLevels = new HashSet<>(); // >=1.13: Enchantment, <1.13 String
-    private final Set<EnchantmentWrapper> enchants = new HashSet<>(); // Specific enchantments with specific levels
-    private final Map<Object, Integer[]> enchantsIntervals = new HashMap<>(); // >=1.13: Enchantment, <1.13 String
+    private final LevelTable<Object> enchants = new LevelTable<>(); // >=1.13: Enchantment, <1.13 String
 
     public EnchantmentContains(final Object o, final Debug debug) {
         super(o);
@@ -60,7 +53,7 @@ public final class EnchantmentContains extends MetaTypeComparator {
                 }
 
                 // Adding
-                enchantsWithoutLevels.add(BanVersion.v13OrMore ? enchantment : enchantment.getName());
+                enchants.addAny(BanVersion.v13OrMore ? enchantment : enchantment.getName());
                 continue;
             }
 
@@ -83,7 +76,7 @@ public final class EnchantmentContains extends MetaTypeComparator {
                 }
 
                 // Adding
-                enchants.add(new EnchantmentWrapper(enchantment, level));
+                enchants.addLevel(BanVersion.v13OrMore ? enchantment : enchantment.getName(), level);
                 continue;
             }
 
@@ -115,30 +108,17 @@ public final class EnchantmentContains extends MetaTypeComparator {
                 }
 
                 // Adding
-                enchantsIntervals.put(BanVersion.v13OrMore ? enchantment : enchantment.getName(), new Integer[]{ minLevel, maxLevel });
+                enchants.setInterval(BanVersion.v13OrMore ? enchantment : enchantment.getName(), minLevel, maxLevel);
             }
         }
     }
 
     @Override
-    public boolean matches(@NotNull final ItemStack itemStack, @Nullable final ItemMeta itemMeta) {
-        final Map<Enchantment, Integer> enchantsOnItem = Utils.getAllEnchants(itemStack);
+    public boolean matches(@NotNull final ItemFeatures features) {
+        final Map<Enchantment, Integer> enchantsOnItem = features.getEnchantments();
         for (final Map.Entry<Enchantment, Integer> e : enchantsOnItem.entrySet()) {
             final Enchantment enchantment = e.getKey();
-            final int level = e.getValue();
-            final Object object = BanVersion.v13OrMore ? enchantment : enchantment.getName();
-
-            // Containing enchantment (not considering level) ?
-            if (enchantsWithoutLevels.contains(object)) return true;
-
-            // Containing enchantment (considering level)?
-            if (enchants.contains(new EnchantmentWrapper(enchantment, level))) return true;
-
-            // Containing enchantment (in interval)?
-            if (enchantsIntervals.containsKey(object)) {
-                final Integer[] interval = enchantsIntervals.get(object);
-                if (level >= interval[0] && level <= interval[1]) return true;
-            }
+            if (enchants.matches(BanVersion.v13OrMore ? enchantment : enchantment.getName(), e.getValue())) return true;
         }
         return false;
     }
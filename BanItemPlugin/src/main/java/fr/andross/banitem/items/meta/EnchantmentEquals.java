@@ -17,22 +17,19 @@
  */
 package fr.andross.banitem.items.meta;
 
-import fr.andross.banitem.utils.Utils;
+import fr.andross.banitem.items.ItemFeatures;
 import fr.andross.banitem.utils.debug.Debug;
 import fr.andross.banitem.utils.enchantments.EnchantmentHelper;
 import fr.andross.banitem.utils.list.Listable;
 import org.bukkit.enchantments.Enchantment;
-import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.meta.ItemMeta;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
 
 import java.util.HashMap;
 import java.util.Map;
 
 /**
  * A simple meta comparator to compare the enchantments
- * @version 3.1.1
+ * @version 3.5
  * @author Andross
  */
 public final class EnchantmentEquals extends MetaTypeComparator {
@@ -72,7 +69,7 @@ public final class EnchantmentEquals extends MetaTypeComparator {
     }
 
     @Override
-    public boolean matches(@NotNull final ItemStack itemStack, @Nullable final ItemMeta itemMeta) {
-        return Utils.getAllEnchants(itemStack).equals(enchants);
+    public boolean matches(@NotNull final ItemFeatures features) {
+        return features.getEnchantments().equals(enchants);
     }
 }
@@ -18,24 +18,28 @@
 package fr.andross.banitem.items.meta;
 
 import dev.lone.itemsadder.api.CustomStack;
+import fr.andross.banitem.items.BannedItem;
+import fr.andross.banitem.items.ItemFeatures;
+import fr.andross.banitem.utils.LruCache;
 import fr.andross.banitem.utils.debug.Debug;
 import fr.andross.banitem.utils.list.Listable;
-import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.meta.ItemMeta;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.HashSet;
 import java.util.Locale;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
- * A simple meta comparator to compare ItemsAdder items
- * @version 3.2
+ * A simple meta comparator to compare ItemsAdder items.
+ * The ItemsAdder id of the items is cached, as resolving it deserializes the item NBT.
+ * @version 3.5
  * @author Andross
  */
 public final class ItemsAdder extends MetaTypeComparator {
+    private static final LruCache<BannedItem, String> IDS = new LruCache<>(1024, BannedItem::snapshot); // item -> ItemsAdder id, null if not an ItemsAdder item
     private final Set<String> items = new HashSet<>();
 
     public ItemsAdder(final Object o, final Debug debug) {
@@ -51,11 +55,18 @@ public final class ItemsAdder extends MetaTypeComparator {
         }
 
         items.addAll(Listable.getSplittedStringList(o).stream().map(String::toLowerCase).collect(Collectors.toList()));
+        IDS.clear(); // (re)loading, ItemsAdder items may have changed
     }
 
     @Override
-    public boolean matches(@NotNull final ItemStack itemStack, @Nullable final ItemMeta itemMeta) {
-        final CustomStack customStack = CustomStack.byItemStack(itemStack);
-        return customStack != null && items.contains(customStack.getId().toLowerCase(Locale.ROOT));
+    public boolean matches(@NotNull final ItemFeatures features) {
+        final String id = features.getOrCompute(ItemsAdder.class, f -> Optional.ofNullable(IDS.get(f.getItem(), i -> getId(f)))).orElse(null);
+        return id != null && items.contains(id);
+    }
+
+    @Nullable
+    private static String getId(@NotNull final ItemFeatures features) {
+        final CustomStack customStack = CustomStack.byItemStack(features.getItemStack());
+        return customStack == null ? null : customStack.getId().toLowerCase(Locale.ROOT);
     }
 }
@@ -17,13 +17,11 @@
  */
 package fr.andross.banitem.items.meta;
 
+import fr.andross.banitem.items.ItemFeatures;
 import fr.andross.banitem.utils.Chat;
 import fr.andross.banitem.utils.debug.Debug;
 import fr.andross.banitem.utils.list.Listable;
-import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.meta.ItemMeta;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
 import java.util.Set;
@@ -31,10 +29,10 @@ import java.util.stream.Collectors;
 
 /**
  * A simple meta comparator to compare the lore
- * @version 3.1
+ * @version 3.5
  * @author Andross
  */
-public final class LoreContains extends MetaTypeComparator {
+public final class LoreContains extends TextMetaComparator {
     private final Set<String> lore;
 
     public LoreContains(final Object o, final Debug debug) {
@@ -43,8 +41,13 @@ public final class LoreContains extends MetaTypeComparator {
     }
 
     @Override
-    public boolean matches(@NotNull final ItemStack itemStack, @Nullable final ItemMeta itemMeta) {
-        final List<String> itemLore = itemMeta == null ? null : (itemMeta.hasLore() ? itemMeta.getLore() : null); // made it that way to ignore the @Nullable annotation warning
+    int addTo(@NotNull final TextMatcher matcher) {
+        return matcher.addLines(lore);
+    }
+
+    @Override
+    boolean scan(@NotNull final ItemFeatures features) {
+        final List<String> itemLore = features.getLore();
         return itemLore != null && itemLore.stream().anyMatch(lore::contains);
     }
 }
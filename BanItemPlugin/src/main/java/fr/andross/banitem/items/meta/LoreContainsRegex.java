@@ -17,11 +17,9 @@
  */
 package fr.andross.banitem.items.meta;
 
+import fr.andross.banitem.items.ItemFeatures;
 import fr.andross.banitem.utils.debug.Debug;
-import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.meta.ItemMeta;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
 import java.util.regex.Pattern;
@@ -29,10 +27,10 @@ import java.util.regex.PatternSyntaxException;
 
 /**
  * A simple meta comparator to compare the lore
- * @version 3.2
+ * @version 3.5
  * @author Andross
  */
-public final class LoreContainsRegex extends MetaTypeComparator {
+public final class LoreContainsRegex extends TextMetaComparator {
     private Pattern pattern;
 
     public LoreContainsRegex(final Object o, final Debug debug) {
@@ -47,8 +45,13 @@ public final class LoreContainsRegex extends MetaTypeComparator {
     }
 
     @Override
-    public boolean matches(@NotNull final ItemStack itemStack, @Nullable final ItemMeta itemMeta) {
-        final List<String> itemLore = itemMeta == null ? null : (itemMeta.hasLore() ? itemMeta.getLore() : null); // made it that way to ignore the @Nullable annotation warning
+    int addTo(@NotNull final TextMatcher matcher) {
+        return matcher.addPattern(TextMatcher.Target.LORE, pattern);
+    }
+
+    @Override
+    boolean scan(@NotNull final ItemFeatures features) {
+        final List<String> itemLore = features.getLore();
         return itemLore != null && itemLore.stream().anyMatch(l -> pattern.matcher(l).find());
     }
 }
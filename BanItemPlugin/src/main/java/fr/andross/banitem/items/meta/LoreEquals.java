@@ -17,20 +17,18 @@
  */
 package fr.andross.banitem.items.meta;
 
+import fr.andross.banitem.items.ItemFeatures;
 import fr.andross.banitem.utils.Chat;
 import fr.andross.banitem.utils.debug.Debug;
 import fr.andross.banitem.utils.list.Listable;
-import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.meta.ItemMeta;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
 import java.util.stream.Collectors;
 
 /**
  * A simple meta comparator to compare the lore
- * @version 3.1
+ * @version 3.5
  * @author Andross
  */
 public final class LoreEquals extends MetaTypeComparator {
@@ -42,7 +40,7 @@ public final class LoreEquals extends MetaTypeComparator {
     }
 
     @Override
-    public boolean matches(@NotNull final ItemStack itemStack, @Nullable final ItemMeta itemMeta) {
-        return itemMeta != null && itemMeta.hasLore() && lore.equals(itemMeta.getLore());
+    public boolean matches(@NotNull final ItemFeatures features) {
+        return lore.equals(features.getLore());
     }
 }
@@ -17,21 +17,19 @@
  */
 package fr.andross.banitem.items.meta;
 
+import fr.andross.banitem.items.ItemFeatures;
 import fr.andross.banitem.utils.Chat;
 import fr.andross.banitem.utils.debug.Debug;
-import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.meta.ItemMeta;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
 
 /**
  * A simple meta comparator to compare the lore
- * @version 3.1
+ * @version 3.5
  * @author Andross
  */
-public final class LoreLineContains extends MetaTypeComparator {
+public final class LoreLineContains extends TextMetaComparator {
     private final String lore;
 
     public LoreLineContains(final Object o, final Debug debug) {
@@ -40,8 +38,13 @@ public final class LoreLineContains extends MetaTypeComparator {
     }
 
     @Override
-    public boolean matches(@NotNull final ItemStack itemStack, @Nullable final ItemMeta itemMeta) {
-        final List<String> itemLore = itemMeta == null ? null : (itemMeta.hasLore() ? itemMeta.getLore() : null); // made it that way to ignore the @Nullable annotation warning
+    int addTo(@NotNull final TextMatcher matcher) {
+        return matcher.addLiteral(TextMatcher.Target.LORE, lore);
+    }
+
+    @Override
+    boolean scan(@NotNull final ItemFeatures features) {
+        final List<String> itemLore = features.getLore();
         return itemLore != null && itemLore.stream().anyMatch(l -> l.contains(lore));
     }
 }
@@ -20,33 +20,58 @@ package fr.andross.banitem.items.meta;
 import org.jetbrains.annotations.NotNull;
 
 /**
- * A simple enumeration for customizable item metas
- * @version 3.4.1
+ * A simple enumeration for customizable item metas.
+ * Each meta has a cost class, used to compare the cheapest metas first.
+ * Other plugins can add their own metas using the {@link MetaTypeRegistry}.
+ * @version 3.5
  * @author Andross
  */
 public enum MetaType {
-    ADVANCEDENCHANTMENTS(AdvancedEnchantments.class),
-    ATTRIBUTE(AttributeContains.class),
-    DISPLAYNAME_CONTAINS(DisplayNameContains.class),
-    DISPLAYNAME_EQUALS(DisplayNameEquals.class),
-    DISPLAYNAME_EQUALS_REGEX(DisplayNameEqualsRegex.class),
-    DURABILITY(Durability.class),
-    ENCHANTMENT_CONTAINS(EnchantmentContains.class),
-    ENCHANTMENT_EQUALS(EnchantmentEquals.class),
-    ITEMSADDER(ItemsAdder.class),
-    LORE_CONTAINS(LoreContains.class),
-    LORE_CONTAINS_REGEX(LoreContainsRegex.class),
-    LORE_EQUALS(LoreEquals.class),
-    LORE_LINE_CONTAINS(LoreLineContains.class),
-    MODELDATA_EQUALS(ModeldataEquals.class),
-    NBTAPI(NBTAPI.class),
-    POTION(Potion.class),
-    UNBREAKABLE(Unbreakable.class);
+    // Metas depending on another plugin use lambdas, so their class is only linked when used
+    ADVANCEDENCHANTMENTS(AdvancedEnchantments.class, (o, d) -> new AdvancedEnchantments(o, d), 4),
+    ATTRIBUTE(AttributeContains.class, AttributeContains::new, 3),
+    DISPLAYNAME_CONTAINS(DisplayNameContains.class, DisplayNameContains::new, 2),
+    DISPLAYNAME_EQUALS(DisplayNameEquals.class, DisplayNameEquals::new, 1),
+    DISPLAYNAME_EQUALS_REGEX(DisplayNameEqualsRegex.class, DisplayNameEqualsRegex::new, 3),
+    DURABILITY(Durability.class, Durability::new, 1),
+    ENCHANTMENT_CONTAINS(EnchantmentContains.class, EnchantmentContains::new, 2),
+    ENCHANTMENT_EQUALS(EnchantmentEquals.class, EnchantmentEquals::new, 2),
+    ITEMSADDER(ItemsAdder.class, (o, d) -> new ItemsAdder(o, d), 4),
+    LORE_CONTAINS(LoreContains.class, LoreContains::new, 2),
+    LORE_CONTAINS_REGEX(LoreContainsRegex.class, LoreContainsRegex::new, 3),
+    LORE_EQUALS(LoreEquals.class, LoreEquals::new, 2),
+    LORE_LINE_CONTAINS(LoreLineContains.class, LoreLineContains::new, 2),
+    MODELDATA_EQUALS(ModeldataEquals.class, ModeldataEquals::new, 1),
+    NBTAPI(NBTAPI.class, (o, d) -> new NBTAPI(o, d), 4),
+    POTION(Potion.class, Potion::new, 2),
+    UNBREAKABLE(Unbreakable.class, Unbreakable::new, 1);
 
     private final Class<? extends MetaTypeComparator> clazz;
+    private final MetaTypeFactory factory;
+    private final int cost;
 
-    MetaType(final Class<? extends MetaTypeComparator> clazz) {
+    MetaType(final Class<? extends MetaTypeComparator> clazz, final MetaTypeFactory factory, final int cost) {
         this.clazz = clazz;
+        this.factory = factory;
+        this.cost = cost;
+    }
+
+    /**
+     * Get the cost class of this meta: 1 for simple fields, 2 for collections,
+     * 3 for regex and attributes, 4 for NBT and external plugins.
+     * @return the cost class of this meta
+     */
+    public int getCost() {
+        return cost;
+    }
+
+    /**
+     * Get the factory creating the handler of this meta
+     * @return the factory creating the handler of this meta
+     */
+    @NotNull
+    public MetaTypeFactory getFactory() {
+        return factory;
     }
 
     /**
@@ -17,14 +17,17 @@
  */
 package fr.andross.banitem.items.meta;
 
+import fr.andross.banitem.items.ItemFeatures;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 /**
- * An abstract meta type comparator
- * @version 3.1
+ * An abstract meta type comparator.
+ * Comparators read the item through an {@link ItemFeatures} view shared by all comparators of a check,
+ * so each feature of the item is extracted at most once.
+ * @version 3.5
  * @author Andross
  */
 public abstract class MetaTypeComparator {
@@ -48,5 +51,20 @@ public abstract class MetaTypeComparator {
         this.valid = valid;
     }
 
-    public abstract boolean matches(@NotNull final ItemStack itemStack, @Nullable final ItemMeta itemMeta);
+    /**
+     * Comparing the item with this meta
+     * @param itemStack the item stack
+     * @param itemMeta the item meta of this item stack
+     * @return true if the item matches this meta, otherwise false
+     */
+    public boolean matches(@NotNull final ItemStack itemStack, @Nullable final ItemMeta itemMeta) {
+        return matches(new ItemFeatures(itemStack, itemMeta));
+    }
+
+    /**
+     * Comparing the item with this meta
+     * @param features the features of the item, shared by all comparators of this check
+     * @return true if the item matches this meta, otherwise false
+     */
+    public abstract boolean matches(@NotNull final ItemFeatures features);
 }
@@ -0,0 +1,40 @@
+/*
+ * BanItem - Lightweight, powerful & configurable per world ban item plugin
+ * Copyright (C) 2021 André Sustac
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your action) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.andross.banitem.items.meta;
+
+import fr.andross.banitem.utils.debug.Debug;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A factory creating a meta comparator from its configuration value in customitems.yml
+ * @version 3.5
+ * @author Andross
+ */
+@FunctionalInterface
+public interface MetaTypeFactory {
+
+    /**
+     * Creating the comparator.
+     * If the configuration is invalid, the comparator should be invalidated with {@link MetaTypeComparator#setValid(boolean)}.
+     * @param o the configuration value of this meta
+     * @param debug the debug, to send configuration errors
+     * @return the comparator
+     */
+    @NotNull
+    MetaTypeComparator create(@NotNull final Object o, @NotNull final Debug debug);
+}
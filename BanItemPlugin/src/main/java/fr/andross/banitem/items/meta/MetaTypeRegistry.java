@@ -0,0 +1,142 @@
+/*
+ * BanItem - Lightweight, powerful & configurable per world ban item plugin
+ * Copyright (C) 2021 André Sustac
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your action) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.andross.banitem.items.meta;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The registry of the meta types usable in customitems.yml.
+ * Contains all {@link MetaType}, and the meta types registered by other plugins,
+ * which are created through their {@link MetaTypeFactory} without any reflection.
+ * @version 3.5
+ * @author Andross
+ */
+public final class MetaTypeRegistry {
+    private static final Map<String, Registration> registrations = new ConcurrentHashMap<>();
+
+    static {
+        for (final MetaType type : MetaType.values())
+            registrations.put(type.name(), new Registration(type.name(), type.getCost(), type.getFactory(), type));
+    }
+
+    private MetaTypeRegistry() {
+    }
+
+    /**
+     * Registering a meta type.
+     * Custom items have to be reloaded to use it.
+     * @param name the name of the meta type, used as key in customitems.yml <i>(case insensitive, '-' and '_' are equivalent)</i>
+     * @param cost the cost class of this meta, from 1 <i>(simple field)</i> to 4 <i>(NBT or external plugin)</i>, see {@link MetaType#getCost()}
+     * @param factory the factory creating the comparators
+     * @throws IllegalArgumentException if a meta type with this name already exists
+     */
+    public static void register(@NotNull final String name, final int cost, @NotNull final MetaTypeFactory factory) {
+        final String key = getKey(name);
+        if (registrations.putIfAbsent(key, new Registration(key, cost, factory, null)) != null)
+            throw new IllegalArgumentException("Meta type '" + name + "' already registered.");
+    }
+
+    /**
+     * Unregistering a meta type registered by {@link #register(String, int, MetaTypeFactory)}.
+     * Custom items have to be reloaded to stop using it.
+     * @param name the name of the meta type
+     * @return true if the meta type was unregistered, otherwise false
+     */
+    public static boolean unregister(@NotNull final String name) {
+        final String key = getKey(name);
+        final Registration registration = registrations.get(key);
+        return registration != null && registration.type == null && registrations.remove(key, registration);
+    }
+
+    /**
+     * Get the registration of this meta type
+     * @param name the name of the meta type, as in customitems.yml
+     * @return the registration of this meta type, or null if unknown
+     */
+    @Nullable
+    public static Registration get(@NotNull final String name) {
+        return registrations.get(getKey(name));
+    }
+
+    /**
+     * @return the names of all meta types, sorted
+     */
+    @NotNull
+    public static List<String> getNames() {
+        final List<String> names = new ArrayList<>(registrations.keySet());
+        Collections.sort(names);
+        return names;
+    }
+
+    @NotNull
+    private static String getKey(@NotNull final String name) {
+        return name.toUpperCase(Locale.ROOT).replace('-', '_');
+    }
+
+    /**
+     * A registered meta type
+     */
+    public static final class Registration {
+        private final String name;
+        private final int cost;
+        private final MetaTypeFactory factory;
+        private final MetaType type;
+
+        private Registration(@NotNull final String name, final int cost, @NotNull final MetaTypeFactory factory, @Nullable final MetaType type) {
+            this.name = name;
+            this.cost = cost;
+            this.factory = factory;
+            this.type = type;
+        }
+
+        /**
+         * @return the name of the meta type, upper cased
+         */
+        @NotNull
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return the cost class of the meta type
+         */
+        public int getCost() {
+            return cost;
+        }
+
+        /**
+         * @return the factory creating the comparators
+         */
+        @NotNull
+        public MetaTypeFactory getFactory() {
+            return factory;
+        }
+
+        /**
+         * @return the built-in meta type, or null if registered by another plugin
+         */
+        @Nullable
+        public MetaType getType() {
+            return type;
+        }
+    }
+}
@@ -17,16 +17,14 @@
  */
 package fr.andross.banitem.items.meta;
 
+import fr.andross.banitem.items.ItemFeatures;
 import fr.andross.banitem.utils.BanVersion;
 import fr.andross.banitem.utils.debug.Debug;
-import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.meta.ItemMeta;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
 
 /**
  * A simple meta comparator to compare the model data
- * @version 3.3
+ * @version 3.5
  * @author Andross
  */
 public final class ModeldataEquals extends MetaTypeComparator {
@@ -49,8 +47,16 @@ public final class ModeldataEquals extends MetaTypeComparator {
         }
     }
 
+    /**
+     * @return the model data to match
+     */
+    public int getModelData() {
+        return modelData;
+    }
+
     @Override
-    public boolean matches(@NotNull final ItemStack itemStack, @Nullable final ItemMeta itemMeta) {
-        return itemMeta != null && itemMeta.hasCustomModelData() && itemMeta.getCustomModelData() == modelData;
+    public boolean matches(@NotNull final ItemFeatures features) {
+        final Integer itemModelData = features.getModelData();
+        return itemModelData != null && itemModelData == modelData;
     }
 }
@@ -18,24 +18,26 @@
 package fr.andross.banitem.items.meta;
 
 import de.tr7zw.nbtapi.NBTCompound;
-import de.tr7zw.nbtapi.NBTItem;
+import fr.andross.banitem.items.ItemFeatures;
 import fr.andross.banitem.utils.debug.Debug;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.meta.ItemMeta;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
-import java.util.function.BiPredicate;
 
 /**
- * A simple meta comparator to compare NBT
- * @version 3.2
+ * A simple meta comparator to compare NBT.
+ * Configured paths are compiled once, with a typed check per expected value,
+ * and the NBT of the item is parsed once per check:
+ * the NBT wrapper and the resolved compounds are shared by all NBT comparators through the {@link ItemFeatures}.
+ * @version 3.5
  * @author Andross
  */
 public final class NBTAPI extends MetaTypeComparator {
-    private final Map<List<String>, List<BiPredicate<NBTCompound, String>>> map = new HashMap<>();
+    private static final Object COMPOUNDS = new Object(); // key of the resolved compounds, in the item features
+    private NBTPath[] paths = new NBTPath[0];
 
     public NBTAPI(final Object o, final Debug debug) {
         super(o);
@@ -57,13 +59,14 @@ public final class NBTAPI extends MetaTypeComparator {
 
         // Loading
         final ConfigurationSection section = (ConfigurationSection) o;
+        final Map<List<String>, List<NBTCheck>> map = new HashMap<>();
         for (final String keyNodes : section.getKeys(false)) {
             final Object object = section.get(keyNodes);
             if (object == null) continue;
 
             // Preparing variables
             final List<String> keys = Arrays.asList(keyNodes.split("#"));
-            final List<BiPredicate<NBTCompound, String>> predicates = new ArrayList<>();
+            final List<NBTCheck> checks = new ArrayList<>();
 
             // Multiple matches
             if (object instanceof ConfigurationSection) {
@@ -71,77 +74,154 @@ public final class NBTAPI extends MetaTypeComparator {
                 // Getting all objects
                 for (final String objectName : keySection.getKeys(false)) {
                     final Object object2 = keySection.get(objectName);
-                    final BiPredicate<NBTCompound, String> predicate = getPredicate(object2);
-                    if (predicate == null) {
+                    final NBTCheck check = NBTCheck.of(object2);
+                    if (check == null) {
                         debug.clone().add("&cUnknown object '" + objectName + "' for NBT node '" + keyNodes + "'.");
                         setValid(false);
                         return;
                     }
-                    predicates.add(predicate);
+                    checks.add(check);
                 }
             } else { // Simple NBT
-                final BiPredicate<NBTCompound, String> predicate = getPredicate(object);
-                if (predicate == null) {
+                final NBTCheck check = NBTCheck.of(object);
+                if (check == null) {
                     debug.clone().add("&cUnknown object '" + object + "' for NBT node '" + keyNodes + "'.");
                     setValid(false);
                     return;
                 }
-                predicates.add(predicate);
+                checks.add(check);
             }
 
-            if (!predicates.isEmpty())
-                map.put(keys, predicates);
+            if (!checks.isEmpty())
+                map.put(keys, checks);
         }
-    }
 
-    @Nullable
-    private BiPredicate<NBTCompound, String> getPredicate(@Nullable final Object o) {
-        if (o instanceof String) return (c, k) -> o.equals(c.getString(k));
-        else if (o instanceof Boolean) return (c, k) -> o.equals(c.getBoolean(k));
-        else if (o instanceof Byte) return (c, k) -> o.equals(c.getByte(k));
-        else if (o instanceof Double) return (c, k) -> o.equals(c.getDouble(k));
-        else if (o instanceof Float) return (c, k) -> o.equals(c.getFloat(k));
-        else if (o instanceof Integer) return (c, k) -> o.equals(c.getInteger(k));
-        else if (o instanceof Long) return (c, k) -> o.equals(c.getLong(k));
-        else if (o instanceof Short) return (c, k) -> o.equals(c.getShort(k));
-        else if (o instanceof UUID) return (c, k) -> o.equals(c.getUUID(k));
-        else if (o instanceof List) return (c, k) -> o.equals(c.getStringList(k));
-        else if (o instanceof ItemStack) return (c, k) -> {
-            final ItemStack item = c.getItemStack(k);
-            return item != null && item.isSimilar((ItemStack) o);
-        };
-        else return null;
+        // Compiling paths
+        final List<NBTPath> paths = new ArrayList<>();
+        for (final Map.Entry<List<String>, List<NBTCheck>> e : map.entrySet())
+            paths.add(new NBTPath(e.getKey(), e.getValue()));
+        this.paths = paths.toArray(new NBTPath[0]);
     }
 
     @Override
-    public boolean matches(@NotNull final ItemStack itemStack, @Nullable final ItemMeta itemMeta) {
-        final NBTItem nbtItem = new NBTItem(itemStack);
-
-        for (final Map.Entry<List<String>, List<BiPredicate<NBTCompound, String>>> e : map.entrySet()) {
-            final List<String> nodes = e.getKey();
-            String lastKey = null;
-            NBTCompound compound = nbtItem;
-
-            // Getting Compound
-            for (int i = 0; i < nodes.size(); i++) {
-                final String key = nodes.get(i);
-                // Last one?
-                if (i == nodes.size() - 1) {
-                    lastKey = key;
-                    break;
-                } else {
-                    if (!compound.hasKey(key)) return false;
-                    compound = compound.getCompound(key);
-                }
-            }
+    public boolean matches(@NotNull final ItemFeatures features) {
+        // No item meta, so no custom NBT at all?
+        if (!features.getItemStack().hasItemMeta()) return false;
 
-            if (lastKey == null || compound == null) return false;
+        for (final NBTPath path : paths) {
+            final NBTCompound compound = getCompound(features, path);
+            if (compound == null) return false;
 
             // Matching object?
-            for (final BiPredicate<NBTCompound, String> predicate : e.getValue())
-                if (predicate.test(compound, lastKey))
+            for (final NBTCheck check : path.checks)
+                if (check.matches(compound, path.key))
                     return true;
         }
         return false;
     }
+
+    /**
+     * Get the compound holding the last key of the path, resolved at most once per check
+     * @param features the features of the item
+     * @param path the path
+     * @return the compound holding the last key of the path, or null if it does not exist
+     */
+    @Nullable
+    private static NBTCompound getCompound(@NotNull final ItemFeatures features, @NotNull final NBTPath path) {
+        if (path.parents.length == 0) return features.getNBTItem();
+
+        final Map<String, Optional<NBTCompound>> compounds = features.getOrCompute(COMPOUNDS, f -> new HashMap<>());
+        Optional<NBTCompound> compound = compounds.get(path.parentsKey);
+        if (compound == null) {
+            NBTCompound c = features.getNBTItem();
+            for (final String key : path.parents) {
+                if (!c.hasKey(key)) {
+                    c = null;
+                    break;
+                }
+                c = c.getCompound(key);
+                if (c == null) break;
+            }
+            compound = Optional.ofNullable(c);
+            compounds.put(path.parentsKey, compound);
+        }
+        return compound.orElse(null);
+    }
+
+    /**
+     * A compiled NBT path, with its parent compounds keys and its last key
+     */
+    private static final class NBTPath {
+        private final String[] parents;
+        private final String parentsKey;
+        private final String key;
+        private final NBTCheck[] checks;
+
+        private NBTPath(@NotNull final List<String> nodes, @NotNull final List<NBTCheck> checks) {
+            this.parents = nodes.subList(0, nodes.size() - 1).toArray(new String[0]);
+            this.parentsKey = String.join("#", parents);
+            this.key = nodes.get(nodes.size() - 1);
+            this.checks = checks.toArray(new NBTCheck[0]);
+        }
+    }
+
+    /**
+     * Type of a configured NBT value, telling how to read the key of the compound
+     */
+    private enum NBTType {
+        STRING, BOOLEAN, BYTE, DOUBLE, FLOAT, INTEGER, LONG, SHORT, UNIQUE_ID, STRING_LIST, ITEM_STACK
+    }
+
+    /**
+     * A compiled check of a NBT key, reading the key with its expected type and comparing it to the expected value
+     */
+    private static final class NBTCheck {
+        private final NBTType type;
+        private final Object expected;
+
+        private NBTCheck(@NotNull final NBTType type, @NotNull final Object expected) {
+            this.type = type;
+            this.expected = expected;
+        }
+
+        /**
+         * Compiling the check of a configured value
+         * @param o the configured value
+         * @return the check of this value, or null if the type of this value is not supported
+         */
+        @Nullable
+        private static NBTCheck of(@Nullable final Object o) {
+            if (o instanceof String) return new NBTCheck(NBTType.STRING, o);
+            else if (o instanceof Boolean) return new NBTCheck(NBTType.BOOLEAN, o);
+            else if (o instanceof Byte) return new NBTCheck(NBTType.BYTE, o);
+            else if (o instanceof Double) return new NBTCheck(NBTType.DOUBLE, o);
+            else if (o instanceof Float) return new NBTCheck(NBTType.FLOAT, o);
+            else if (o instanceof Integer) return new NBTCheck(NBTType.INTEGER, o);
+            else if (o instanceof Long) return new NBTCheck(NBTType.LONG, o);
+            else if (o instanceof Short) return new NBTCheck(NBTType.SHORT, o);
+            else if (o instanceof UUID) return new NBTCheck(NBTType.UNIQUE_ID, o);
+            else if (o instanceof List) return new NBTCheck(NBTType.STRING_LIST, o);
+            else if (o instanceof ItemStack) return new NBTCheck(NBTType.ITEM_STACK, o);
+            else return null;
+        }
+
+        private boolean matches(@NotNull final NBTCompound c, @NotNull final String k) {
+            switch (type) {
+                case STRING: return expected.equals(c.getString(k));
+                case BOOLEAN: return expected.equals(c.getBoolean(k));
+                case BYTE: return expected.equals(c.getByte(k));
+                case DOUBLE: return expected.equals(c.getDouble(k));
+                case FLOAT: return expected.equals(c.getFloat(k));
+                case INTEGER: return expected.equals(c.getInteger(k));
+                case LONG: return expected.equals(c.getLong(k));
+                case SHORT: return expected.equals(c.getShort(k));
+                case UNIQUE_ID: return expected.equals(c.getUUID(k));
+                case STRING_LIST: return expected.equals(c.getStringList(k));
+                case ITEM_STACK:
+                    final ItemStack item = c.getItemStack(k);
+                    return item != null && item.isSimilar((ItemStack) expected);
+                default: return false;
+            }
+        }
+    }
 }
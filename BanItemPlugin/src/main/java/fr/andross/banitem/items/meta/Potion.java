@@ -17,32 +17,25 @@
  */
 package fr.andross.banitem.items.meta;
 
+import fr.andross.banitem.items.ItemFeatures;
 import fr.andross.banitem.utils.BanVersion;
-import fr.andross.banitem.utils.Utils;
+import fr.andross.banitem.utils.LevelTable;
 import fr.andross.banitem.utils.debug.Debug;
 import fr.andross.banitem.utils.list.Listable;
 import fr.andross.banitem.utils.potions.PotionHelper;
-import fr.andross.banitem.utils.potions.PotionWrapper;
-import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.potion.PotionEffectType;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
 
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
-import java.util.Set;
 
 /**
- * A simple meta comparator to compare potions
- * @version 3.4.1
+ * A simple meta comparator to compare potions.
+ * Potion effects and their levels are compiled in a {@link LevelTable}.
+ * @version 3.5
  * @author Andross
  */
 public final class Potion extends MetaTypeComparator {
-    private final Set<Object> potionsWithoutLevels = new HashSet<>();
-    private final Set<PotionWrapper> potions = new HashSet<>(); // Specific potions with specific levels
-    private final Map<Object, Integer[]> potionsIntervals = new HashMap<>();
+    private final LevelTable<Object> potions = new LevelTable<>(); // >=1.13: PotionEffectType, <1.13 String
 
     public Potion(final Object o, final Debug debug) {
         super(o);
@@ -60,7 +53,7 @@ public final class Potion extends MetaTypeComparator {
                 }
 
                 // Adding
-                potionsWithoutLevels.add(BanVersion.v13OrMore ? potionEffectType : potionEffectType.getName());
+                potions.addAny(BanVersion.v13OrMore ? potionEffectType : potionEffectType.getName());
                 continue;
             }
 
@@ -83,7 +76,7 @@ public final class Potion extends MetaTypeComparator {
                 }
 
                 // Adding
-                potions.add(new PotionWrapper(potionEffectType, level));
+                potions.addLevel(BanVersion.v13OrMore ? potionEffectType : potionEffectType.getName(), level);
                 continue;
             }
 
@@ -115,14 +108,14 @@ public final class Potion extends MetaTypeComparator {
                 }
 
                 // Adding
-                potionsIntervals.put(BanVersion.v13OrMore ? potionEffectType : potionEffectType.getName(), new Integer[]{ minLevel, maxLevel });
+                potions.setInterval(BanVersion.v13OrMore ? potionEffectType : potionEffectType.getName(), minLevel, maxLevel);
             }
         }
     }
 
     @Override
-    public boolean matches(@NotNull final ItemStack itemStack, @Nullable final ItemMeta itemMeta) {
-        final Map<PotionEffectType, Integer> potions = Utils.getAllPotionEffects(itemStack);
+    public boolean matches(@NotNull final ItemFeatures features) {
+        final Map<PotionEffectType, Integer> potions = features.getPotionEffects();
         if (potions.isEmpty()) return false;
 
         for (final Map.Entry<PotionEffectType, Integer> e : potions.entrySet()) {
@@ -132,20 +125,7 @@ public final class Potion extends MetaTypeComparator {
                 continue;
             }
 
-            final int level = e.getValue();
-            final Object object = BanVersion.v13OrMore ? potionEffectType : potionEffectType.getName();
-
-            // Containing potion effect (not considering level) ?
-            if (potionsWithoutLevels.contains(object)) return true;
-
-            // Containing potion effect (considering level)?
-            if (this.potions.contains(new PotionWrapper(potionEffectType, level))) return true;
-
-            // Containing potion effect (in interval)?
-            if (potionsIntervals.containsKey(object)) {
-                final Integer[] interval = potionsIntervals.get(object);
-                if (level >= interval[0] && level <= interval[1]) return true;
-            }
+            if (this.potions.matches(BanVersion.v13OrMore ? potionEffectType : potionEffectType.getName(), e.getValue())) return true;
         }
 
         return false;
@@ -0,0 +1,324 @@
+/*
+ * BanItem - Lightweight, powerful & configurable per world ban item plugin
+ * Copyright (C) 2021 André Sustac
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your action) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.andross.banitem.items.meta;
+
+import fr.andross.banitem.items.CustomBannedItem;
+import fr.andross.banitem.items.ItemFeatures;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * A combined matcher of all lore and display name patterns of the custom items.
+ * Literal patterns are compiled in an Aho-Corasick automaton per target, so all custom items
+ * containing a literal are found in a single pass over each lore line and over the display name.
+ * Regex patterns are deduplicated, and each distinct regex is evaluated at most once per check.
+ * The result is shared through the {@link ItemFeatures} of the check.
+ * @version 3.5
+ * @author Andross
+ */
+public final class TextMatcher {
+    private static final int[] EMPTY = new int[0];
+    private static final byte UNKNOWN = 0, MATCHING = 1, NOT_MATCHING = 2;
+    private final Automaton[] literals = { new Automaton(), new Automaton() }; // indexed by target
+    private final Map<String, int[]> lines = new HashMap<>(); // exact lore lines
+    private final List<Pattern> patterns = new ArrayList<>();
+    private final Map<String, Integer> patternsIds = new HashMap<>();
+    private final List<Slot> slots = new ArrayList<>();
+
+    /**
+     * Compiling the lore and display name patterns of these custom items
+     * @param items the custom items
+     */
+    public TextMatcher(@NotNull final Collection<CustomBannedItem> items) {
+        for (final CustomBannedItem item : items)
+            for (final MetaTypeComparator comparator : item.getMeta().values())
+                if (comparator instanceof TextMetaComparator)
+                    ((TextMetaComparator) comparator).register(this);
+
+        for (final Automaton automaton : literals)
+            automaton.build();
+    }
+
+    /**
+     * Registering a literal, matching if the target contains it
+     * @param target the text to search in
+     * @param literal the literal
+     * @return the slot of this literal
+     */
+    int addLiteral(@NotNull final Target target, @NotNull final String literal) {
+        final int slot = addSlot(target, Kind.LITERAL, -1);
+        literals[target.ordinal()].add(literal, slot);
+        return slot;
+    }
+
+    /**
+     * Registering lore lines, matching if any line of the lore is exactly one of them
+     * @param lines the lore lines
+     * @return the slot of these lore lines
+     */
+    int addLines(@NotNull final Collection<String> lines) {
+        final int slot = addSlot(Target.LORE, Kind.LINE, -1);
+        for (final String line : lines)
+            this.lines.put(line, append(this.lines.getOrDefault(line, EMPTY), slot));
+        return slot;
+    }
+
+    /**
+     * Registering a regex pattern, matching if it is found in the target
+     * @param target the text to search in
+     * @param pattern the regex pattern
+     * @return the slot of this pattern
+     */
+    int addPattern(@NotNull final Target target, @NotNull final Pattern pattern) {
+        final String key = pattern.flags() + ":" + pattern.pattern();
+        Integer id = patternsIds.get(key);
+        if (id == null) {
+            id = patterns.size();
+            patterns.add(pattern);
+            patternsIds.put(key, id);
+        }
+        return addSlot(target, Kind.PATTERN, id);
+    }
+
+    private int addSlot(@NotNull final Target target, @NotNull final Kind kind, final int pattern) {
+        slots.add(new Slot(target, kind, pattern));
+        return slots.size() - 1;
+    }
+
+    /**
+     * Checking if the item matches the pattern of this slot
+     * @param features the features of the item
+     * @param slot the slot of the pattern
+     * @return true if the item matches the pattern, otherwise false
+     */
+    boolean matches(@NotNull final ItemFeatures features, final int slot) {
+        final Result result = features.getOrCompute(this, Result::new);
+        final Slot s = slots.get(slot);
+        switch (s.kind) {
+            case LITERAL: return result.getLiterals(s.target).get(slot);
+            case LINE: return result.getLines().get(slot);
+            default: return result.matches(s.target, s.pattern);
+        }
+    }
+
+    @NotNull
+    private static int[] append(@NotNull final int[] array, final int value) {
+        final int[] newArray = Arrays.copyOf(array, array.length + 1);
+        newArray[array.length] = value;
+        return newArray;
+    }
+
+    /**
+     * The text searched by a pattern
+     */
+    enum Target {
+        LORE,
+        DISPLAYNAME
+    }
+
+    private enum Kind {
+        LITERAL,
+        LINE,
+        PATTERN
+    }
+
+    private static final class Slot {
+        private final Target target;
+        private final Kind kind;
+        private final int pattern;
+
+        private Slot(@NotNull final Target target, @NotNull final Kind kind, final int pattern) {
+            this.target = target;
+            this.kind = kind;
+            this.pattern = pattern;
+        }
+    }
+
+    /**
+     * Matches of an item, computed on first access
+     */
+    private final class Result {
+        private final ItemFeatures features;
+        private final BitSet[] literals = new BitSet[Target.values().length];
+        private final byte[][] patterns = new byte[Target.values().length][];
+        private BitSet lines;
+
+        private Result(@NotNull final ItemFeatures features) {
+            this.features = features;
+        }
+
+        @NotNull
+        private List<String> getTexts(@NotNull final Target target) {
+            if (target == Target.LORE) {
+                final List<String> lore = features.getLore();
+                return lore == null ? Collections.emptyList() : lore;
+            }
+            final String displayName = features.getDisplayName();
+            return displayName == null ? Collections.emptyList() : Collections.singletonList(displayName);
+        }
+
+        @NotNull
+        private BitSet getLiterals(@NotNull final Target target) {
+            BitSet found = literals[target.ordinal()];
+            if (found == null) {
+                found = new BitSet(slots.size());
+                final Automaton automaton = TextMatcher.this.literals[target.ordinal()];
+                for (final String text : getTexts(target))
+                    automaton.scan(text, found);
+                literals[target.ordinal()] = found;
+            }
+            return found;
+        }
+
+        @NotNull
+        private BitSet getLines() {
+            if (lines == null) {
+                lines = new BitSet(slots.size());
+                for (final String line : getTexts(Target.LORE))
+                    for (final int slot : TextMatcher.this.lines.getOrDefault(line, EMPTY))
+                        lines.set(slot);
+            }
+            return lines;
+        }
+
+        private boolean matches(@NotNull final Target target, final int pattern) {
+            byte[] states = patterns[target.ordinal()];
+            if (states == null) states = patterns[target.ordinal()] = new byte[TextMatcher.this.patterns.size()];
+            if (states[pattern] == UNKNOWN) {
+                final Pattern p = TextMatcher.this.patterns.get(pattern);
+                states[pattern] = NOT_MATCHING;
+                for (final String text : getTexts(target))
+                    if (p.matcher(text).find()) {
+                        states[pattern] = MATCHING;
+                        break;
+                    }
+            }
+            return states[pattern] == MATCHING;
+        }
+    }
+
+    /**
+     * An Aho-Corasick automaton, reporting the slots of all literals contained in a text.
+     * Transitions are stored as sorted arrays of characters once built.
+     */
+    static final class Automaton {
+        private List<Map<Character, Integer>> children = new ArrayList<>();
+        private List<int[]> outputs = new ArrayList<>();
+        private char[][] keys;
+        private int[][] next;
+        private int[] fail;
+        private int[][] out;
+
+        Automaton() {
+            addNode();
+        }
+
+        private int addNode() {
+            children.add(new HashMap<>());
+            outputs.add(EMPTY);
+            return children.size() - 1;
+        }
+
+        void add(@NotNull final String literal, final int slot) {
+            int node = 0;
+            for (int i = 0; i < literal.length(); i++) {
+                final char c = literal.charAt(i);
+                Integer child = children.get(node).get(c);
+                if (child == null) {
+                    child = addNode();
+                    children.get(node).put(c, child);
+                }
+                node = child;
+            }
+            outputs.set(node, append(outputs.get(node), slot));
+        }
+
+        void build() {
+            final int size = children.size();
+            keys = new char[size][];
+            next = new int[size][];
+            fail = new int[size];
+            out = new int[size][];
+
+            // Sorted transitions
+            for (int node = 0; node < size; node++) {
+                final List<Character> chars = new ArrayList<>(children.get(node).keySet());
+                Collections.sort(chars);
+                keys[node] = new char[chars.size()];
+                next[node] = new int[chars.size()];
+                for (int i = 0; i < chars.size(); i++) {
+                    keys[node][i] = chars.get(i);
+                    next[node][i] = children.get(node).get(chars.get(i));
+                }
+            }
+
+            // Failure links, in breadth-first order so the failure node is always computed first
+            out[0] = outputs.get(0); // empty literal, contained in any text
+            final Deque<Integer> queue = new ArrayDeque<>();
+            for (final int child : next[0]) queue.add(child);
+            while (!queue.isEmpty()) {
+                final int node = queue.poll();
+                out[node] = merge(outputs.get(node), fail[node] == 0 ? EMPTY : out[fail[node]]);
+                for (int i = 0; i < keys[node].length; i++) {
+                    final int child = next[node][i];
+                    int f = fail[node];
+                    int s = step(f, keys[node][i]);
+                    while (s < 0 && f != 0) {
+                        f = fail[f];
+                        s = step(f, keys[node][i]);
+                    }
+                    fail[child] = s < 0 ? 0 : s;
+                    queue.add(child);
+                }
+            }
+
+            children = null;
+            outputs = null;
+        }
+
+        private int step(final int node, final char c) {
+            final int i = Arrays.binarySearch(keys[node], c);
+            return i < 0 ? -1 : next[node][i];
+        }
+
+        void scan(@NotNull final String text, @NotNull final BitSet found) {
+            for (final int slot : out[0]) found.set(slot);
+            int node = 0;
+            for (int i = 0; i < text.length(); i++) {
+                final char c = text.charAt(i);
+                int s = step(node, c);
+                while (s < 0 && node != 0) {
+                    node = fail[node];
+                    s = step(node, c);
+                }
+                node = s < 0 ? 0 : s;
+                for (final int slot : out[node]) found.set(slot);
+            }
+        }
+
+        @NotNull
+        private static int[] merge(@NotNull final int[] a, @NotNull final int[] b) {
+            if (b.length == 0) return a;
+            final int[] merged = Arrays.copyOf(a, a.length + b.length);
+            System.arraycopy(b, 0, merged, a.length, b.length);
+            return merged;
+        }
+    }
+}
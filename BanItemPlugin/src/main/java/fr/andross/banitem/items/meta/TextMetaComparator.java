@@ -0,0 +1,65 @@
+/*
+ * BanItem - Lightweight, powerful & configurable per world ban item plugin
+ * Copyright (C) 2021 André Sustac
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your action) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.andross.banitem.items.meta;
+
+import fr.andross.banitem.items.ItemFeatures;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An abstract meta comparator on the lore or the display name.
+ * Once registered in a {@link TextMatcher}, the comparison is made by the matcher,
+ * sharing a single pass over the texts of the item with all other registered comparators.
+ * @version 3.5
+ * @author Andross
+ */
+public abstract class TextMetaComparator extends MetaTypeComparator {
+    private TextMatcher matcher;
+    private int slot;
+
+    public TextMetaComparator(@NotNull final Object object) {
+        super(object);
+    }
+
+    /**
+     * Registering this comparator in the matcher
+     * @param matcher the matcher
+     */
+    final void register(@NotNull final TextMatcher matcher) {
+        slot = addTo(matcher);
+        this.matcher = matcher;
+    }
+
+    /**
+     * Adding the pattern of this comparator to the matcher
+     * @param matcher the matcher
+     * @return the slot of the pattern
+     */
+    abstract int addTo(@NotNull final TextMatcher matcher);
+
+    /**
+     * Comparing the item with this meta, without any matcher
+     * @param features the features of the item
+     * @return true if the item matches this meta, otherwise false
+     */
+    abstract boolean scan(@NotNull final ItemFeatures features);
+
+    @Override
+    public final boolean matches(@NotNull final ItemFeatures features) {
+        return matcher == null ? scan(features) : matcher.matches(features, slot);
+    }
+}
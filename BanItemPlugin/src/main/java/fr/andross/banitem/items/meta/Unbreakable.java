@@ -17,17 +17,13 @@
  */
 package fr.andross.banitem.items.meta;
 
-import fr.andross.banitem.utils.BanVersion;
+import fr.andross.banitem.items.ItemFeatures;
 import fr.andross.banitem.utils.debug.Debug;
-import fr.andross.banitem.utils.hooks.OldItemUtils;
-import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.meta.ItemMeta;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
 
 /**
  * A simple meta comparator to compare unbreakable
- * @version 3.1
+ * @version 3.5
  * @author Andross
  */
 public final class Unbreakable extends MetaTypeComparator {
@@ -38,9 +34,15 @@ public final class Unbreakable extends MetaTypeComparator {
         unbreakable = (o instanceof Boolean) ? (boolean) o : Boolean.parseBoolean(o.toString());
     }
 
+    /**
+     * @return if the item must be unbreakable, otherwise this comparator never matches
+     */
+    public boolean isUnbreakable() {
+        return unbreakable;
+    }
+
     @Override
-    public boolean matches(@NotNull final ItemStack itemStack, @Nullable final ItemMeta itemMeta) {
-        final boolean isUnbreakable = itemMeta != null && (BanVersion.v11OrMore ? itemMeta.isUnbreakable() : OldItemUtils.isUnbreakable(itemMeta));
-        return isUnbreakable && unbreakable;
+    public boolean matches(@NotNull final ItemFeatures features) {
+        return features.isUnbreakable() && unbreakable;
     }
 }
@@ -22,10 +22,15 @@ import org.bukkit.Bukkit;
 /**
  * Class that contains some notable versions nodes, so the plugin can handle multiple versions
  * Those variables are used to check versions compatibility
- * @version 3.4
+ * @version 3.5
  * @author Andross
  */
 public final class BanVersion {
+    /**
+     * In 1.17+, worlds can have a negative minimum height, World#getMinHeight() has been added.
+     */
+    public static final boolean v17OrMore;
+
     /**
      * In 1.16+, color codes now support HEX.
      */
@@ -74,6 +79,7 @@ public final class BanVersion {
             subMcVersion = 1;
             Bukkit.getLogger().warning("[VERSION] Unrecognized/Unsupported Bukkit version!");
         }
+        v17OrMore = subMcVersion >= 17;
         v16OrMore = subMcVersion >= 16;
         v14OrMore = subMcVersion >= 14;
         v13OrMore = subMcVersion >= 13;
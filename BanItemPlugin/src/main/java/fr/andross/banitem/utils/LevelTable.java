@@ -0,0 +1,121 @@
+/*
+ * BanItem - Lightweight, powerful & configurable per world ban item plugin
+ * Copyright (C) 2021 André Sustac
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your action) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.andross.banitem.utils;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A compiled table of allowed levels, per key <i>(enchantment, potion effect...)</i>.
+ * Each key is given a dense id at load, and levels are stored in arrays indexed by this id:
+ * a flag for any level, a bitmask for levels from 0 to 63, other levels, and a single min/max interval.
+ * A lookup does not allocate anything.
+ * @param <K> the type of the key
+ * @version 3.5
+ * @author Andross
+ */
+public final class LevelTable<K> {
+    private static final int MASK_LEVELS = 64;
+    private static final int[] NO_LEVELS = new int[0];
+    private final Map<K, Integer> ids = new HashMap<>();
+    private boolean[] any = new boolean[0];
+    private long[] levels = new long[0];
+    private int[][] otherLevels = new int[0][]; // levels out of the bitmask
+    private int[] minLevels = new int[0], maxLevels = new int[0]; // interval, inclusive, empty if min > max
+
+    /**
+     * Adding a key, matching any level
+     * @param key the key
+     */
+    public void addAny(@NotNull final K key) {
+        final int id = getOrCreateId(key); // before accessing the array, which may be grown
+        any[id] = true;
+    }
+
+    /**
+     * Adding a key, matching this level only
+     * @param key the key
+     * @param level the level
+     */
+    public void addLevel(@NotNull final K key, final int level) {
+        final int id = getOrCreateId(key);
+        if (level >= 0 && level < MASK_LEVELS) levels[id] |= 1L << level;
+        else {
+            final int[] other = Arrays.copyOf(otherLevels[id], otherLevels[id].length + 1);
+            other[other.length - 1] = level;
+            otherLevels[id] = other;
+        }
+    }
+
+    /**
+     * Setting the interval of a key, matching levels within this interval.
+     * A key has a single interval: this replaces the interval previously set for this key.
+     * @param key the key
+     * @param minLevel the minimum level, inclusive
+     * @param maxLevel the maximum level, inclusive
+     */
+    public void setInterval(@NotNull final K key, final int minLevel, final int maxLevel) {
+        final int id = getOrCreateId(key);
+        minLevels[id] = minLevel;
+        maxLevels[id] = maxLevel;
+    }
+
+    private int getOrCreateId(@NotNull final K key) {
+        Integer id = ids.get(key);
+        if (id == null) {
+            id = ids.size();
+            ids.put(key, id);
+            any = Arrays.copyOf(any, id + 1);
+            levels = Arrays.copyOf(levels, id + 1);
+            otherLevels = Arrays.copyOf(otherLevels, id + 1);
+            otherLevels[id] = NO_LEVELS;
+            minLevels = Arrays.copyOf(minLevels, id + 1);
+            maxLevels = Arrays.copyOf(maxLevels, id + 1);
+            minLevels[id] = 1; // no interval
+        }
+        return id;
+    }
+
+    /**
+     * Check if this key with this level matches
+     * @param key the key
+     * @param level the level
+     * @return true if the key is added with any level, this level, or an interval containing this level
+     */
+    public boolean matches(@NotNull final K key, final int level) {
+        final Integer id = ids.get(key);
+        if (id == null) return false;
+        if (any[id]) return true;
+        if (level >= 0 && level < MASK_LEVELS && (levels[id] & (1L << level)) != 0) return true;
+        if (level >= minLevels[id] && level <= maxLevels[id]) return true;
+        for (final int other : otherLevels[id])
+            if (level == other)
+                return true;
+        return false;
+    }
+
+    /**
+     * @return true if no key is added
+     */
+    public boolean isEmpty() {
+        return ids.isEmpty();
+    }
+}
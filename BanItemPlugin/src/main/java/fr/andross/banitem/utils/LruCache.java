@@ -0,0 +1,122 @@
+/*
+ * BanItem - Lightweight, powerful & configurable per world ban item plugin
+ * Copyright (C) 2021 André Sustac
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your action) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.andross.banitem.utils;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * A simple thread safe bounded cache, removing the least recently used entries.
+ * It also counts its hits and misses.
+ * @version 3.5
+ * @author Andross
+ */
+public final class LruCache<K, V> {
+    private final Map<K, V> map;
+    private final UnaryOperator<K> detach;
+    private long hits, misses;
+
+    /**
+     * Create a new cache
+     * @param maxSize the maximum amount of entries
+     */
+    public LruCache(final int maxSize) {
+        this(maxSize, UnaryOperator.identity());
+    }
+
+    /**
+     * Create a new cache, copying the keys before storing them
+     * @param maxSize the maximum amount of entries
+     * @param detach function copying a key before it is stored, so the cache does not retain the caller's objects
+     */
+    public LruCache(final int maxSize, @NotNull final UnaryOperator<K> detach) {
+        this.detach = detach;
+        this.map = new LinkedHashMap<K, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<K, V> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Get the cached value of this key, or compute and cache it
+     * @param key the key
+     * @param function function computing the value, called without holding the lock
+     * @return the cached or computed value
+     */
+    @Nullable
+    public V get(@NotNull final K key, @NotNull final Function<? super K, ? extends V> function) {
+        synchronized (this) {
+            final V value = map.get(key);
+            if (value != null || map.containsKey(key)) {
+                hits++;
+                return value;
+            }
+            misses++;
+        }
+
+        final V value = function.apply(key);
+        final K storedKey = detach.apply(key);
+        synchronized (this) {
+            map.put(storedKey, value);
+        }
+        return value;
+    }
+
+    /**
+     * Remove all the cached values
+     */
+    public synchronized void clear() {
+        map.clear();
+    }
+
+    /**
+     * @return the amount of cached values
+     */
+    public synchronized int size() {
+        return map.size();
+    }
+
+    /**
+     * @return the amount of values found in the cache
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return the amount of values which had to be computed
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return the ratio of values found in the cache, between 0 and 1
+     */
+    public synchronized double getHitRate() {
+        final long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+}
@@ -0,0 +1,293 @@
+/*
+ * BanItem - Lightweight, powerful & configurable per world ban item plugin
+ * Copyright (C) 2021 André Sustac
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your action) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.andross.banitem.utils;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * A map wrapper notifying every modification, used to clear the indexes computed from a map.
+ * All the mutations go through {@link #put(Object, Object)}, {@link #remove(Object)}, {@link #clear()}
+ * or the iterators of the views, so the default methods <i>(computeIfAbsent, merge, replaceAll...)</i>
+ * and the views <i>(entrySet, keySet, values)</i> are also notified.
+ * The notification is sent once the map is modified, so an index computed concurrently is not kept.
+ * Only the entries of {@link #entrySet()} are wrapped, as their value can be set;
+ * the key set, values and {@link #forEach(BiConsumer)} read the wrapped map directly.
+ * @param <K> the key type
+ * @param <V> the value type
+ * @version 3.5
+ * @author Andross
+ */
+public final class ObservedMap<K, V> extends AbstractMap<K, V> {
+    private final Map<K, V> map;
+    private final Runnable onChange;
+    private Set<Map.Entry<K, V>> entrySet;
+    private Set<K> keySet;
+    private Collection<V> values;
+
+    /**
+     * Create a new observed map
+     * @param map the wrapped map, which must not be modified directly
+     * @param onChange called after every modification
+     */
+    public ObservedMap(@NotNull final Map<K, V> map, @NotNull final Runnable onChange) {
+        this.map = map;
+        this.onChange = onChange;
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return map.containsKey(key);
+    }
+
+    @Override
+    public boolean containsValue(final Object value) {
+        return map.containsValue(value);
+    }
+
+    @Override
+    public V get(final Object key) {
+        return map.get(key);
+    }
+
+    @Override
+    public V put(final K key, final V value) {
+        final V previous = map.put(key, value);
+        onChange.run();
+        return previous;
+    }
+
+    @Override
+    public void putAll(@NotNull final Map<? extends K, ? extends V> m) {
+        map.putAll(m);
+        onChange.run();
+    }
+
+    @Override
+    public V remove(final Object key) {
+        final V previous = map.remove(key);
+        onChange.run();
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        map.clear();
+        onChange.run();
+    }
+
+    @Override
+    public void forEach(@NotNull final BiConsumer<? super K, ? super V> action) {
+        map.forEach(action);
+    }
+
+    @NotNull
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        if (entrySet == null) entrySet = new EntrySet();
+        return entrySet;
+    }
+
+    @NotNull
+    @Override
+    public Set<K> keySet() {
+        if (keySet == null) keySet = new KeySet();
+        return keySet;
+    }
+
+    @NotNull
+    @Override
+    public Collection<V> values() {
+        if (values == null) values = new Values();
+        return values;
+    }
+
+    /**
+     * Iterator of a view of the wrapped map, notifying the removals
+     */
+    private final class ObservedIterator<E> implements Iterator<E> {
+        private final Iterator<E> iterator;
+
+        private ObservedIterator(@NotNull final Iterator<E> iterator) {
+            this.iterator = iterator;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public E next() {
+            return iterator.next();
+        }
+
+        @Override
+        public void remove() {
+            iterator.remove();
+            onChange.run();
+        }
+    }
+
+    /**
+     * Keys view, notifying the removals
+     */
+    private final class KeySet extends AbstractSet<K> {
+        @Override
+        public int size() {
+            return map.size();
+        }
+
+        @Override
+        public boolean contains(final Object o) {
+            return map.containsKey(o);
+        }
+
+        @Override
+        public void clear() {
+            ObservedMap.this.clear();
+        }
+
+        @NotNull
+        @Override
+        public Iterator<K> iterator() {
+            return new ObservedIterator<>(map.keySet().iterator());
+        }
+    }
+
+    /**
+     * Values view, notifying the removals
+     */
+    private final class Values extends AbstractCollection<V> {
+        @Override
+        public int size() {
+            return map.size();
+        }
+
+        @Override
+        public boolean contains(final Object o) {
+            return map.containsValue(o);
+        }
+
+        @Override
+        public void clear() {
+            ObservedMap.this.clear();
+        }
+
+        @NotNull
+        @Override
+        public Iterator<V> iterator() {
+            return new ObservedIterator<>(map.values().iterator());
+        }
+    }
+
+    /**
+     * Entries view, notifying the removals and the modified values
+     */
+    private final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+        @Override
+        public int size() {
+            return map.size();
+        }
+
+        @Override
+        public void clear() {
+            ObservedMap.this.clear();
+        }
+
+        @NotNull
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator() {
+            final Iterator<Map.Entry<K, V>> iterator = map.entrySet().iterator();
+            return new Iterator<Map.Entry<K, V>>() {
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public Map.Entry<K, V> next() {
+                    return new Entry(iterator.next());
+                }
+
+                @Override
+                public void remove() {
+                    iterator.remove();
+                    onChange.run();
+                }
+            };
+        }
+    }
+
+    /**
+     * An entry of the map, notifying the modified value
+     */
+    private final class Entry implements Map.Entry<K, V> {
+        private final Map.Entry<K, V> entry;
+
+        private Entry(@NotNull final Map.Entry<K, V> entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public K getKey() {
+            return entry.getKey();
+        }
+
+        @Override
+        public V getValue() {
+            return entry.getValue();
+        }
+
+        @Override
+        public V setValue(final V value) {
+            final V previous = entry.setValue(value);
+            onChange.run();
+            return previous;
+        }
+
+        @Override
+        public boolean equals(@Nullable final Object o) {
+            return entry.equals(o);
+        }
+
+        @Override
+        public int hashCode() {
+            return entry.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return entry.toString();
+        }
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * BanItem - Lightweight, powerful & configurable per world ban item plugin
+ * Copyright (C) 2021 André Sustac
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your action) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.andross.banitem.utils;
+
+import fr.andross.banitem.actions.BanAction;
+import fr.andross.banitem.actions.BanData;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.permissions.PermissionAttachmentInfo;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A per player cache of the bypass permissions.
+ * The effective <i>banitem.bypass.*</i> permissions of a player are stored into a trie of
+ * (world|allworlds, item|allitems, action, data) segments, so all the wildcard variants are
+ * resolved in a single walk, without building any permission node. Players without any bypass
+ * permission share an empty trie, and are skipped instantly.
+ * The trie of a player is dropped when changing world or quitting, and expires after a few seconds,
+ * as Bukkit does not notify when the permissions of a player are recalculated: it is then rebuilt on the next check.
+ * @version 3.5
+ * @author Andross
+ */
+public final class PermissionCache {
+    private static final long TTL = TimeUnit.SECONDS.toNanos(5);
+    private static final String PREFIX = "banitem.bypass.";
+    private static final String ALL_WORLDS = "allworlds";
+    private static final String ALL_ITEMS = "allitems";
+    private static final String WILDCARD = "*";
+    private static final Node EMPTY = new Node();
+    private static final Node ALL = new Node();
+    private final Map<UUID, Entry> players = new ConcurrentHashMap<>();
+
+    /**
+     * Check if the player has the bypass permission for either the item <i>(material name)</i> or custom name
+     * @param player player to check
+     * @param itemName name to lower case of the item
+     * @param action action name
+     * @param data additional data to check
+     * @return true if the player has the permission to bypass the ban, otherwise false
+     */
+    public boolean hasPermission(@NotNull final Player player, @NotNull final String itemName, @NotNull final BanAction action, @Nullable final BanData... data) {
+        final Entry entry = getEntry(player);
+        final Node root = entry.root;
+        if (root == EMPTY) return false;
+        if (root == ALL) return true;
+
+        // Worlds
+        final boolean hasData = !Utils.isNullOrEmpty(data);
+        for (int w = 0; w < 2; w++) {
+            final Node world = root.get(w == 0 ? entry.world : ALL_WORLDS);
+            if (world == null) continue;
+            if (world.has(WILDCARD)) return true;
+
+            // Items
+            for (int i = 0; i < 2; i++) {
+                final Node node = world.get(i == 0 ? itemName : ALL_ITEMS);
+                if (node == null) continue;
+                if (!hasData) {
+                    if (node.has(WILDCARD) || node.has(action.getName())) return true;
+                    continue;
+                }
+
+                // Action data
+                final Node actionNode = node.get(action.getName());
+                if (actionNode == null) continue;
+                if (actionNode.has(WILDCARD)) return true;
+                for (final BanData bd : data)
+                    if (actionNode.has(bd.getName())) return true;
+            }
+        }
+        return false;
+    }
+
+    @NotNull
+    private Entry getEntry(@NotNull final Player player) {
+        final World world = player.getWorld();
+        final long now = System.nanoTime();
+        Entry entry = players.get(player.getUniqueId());
+        if (entry == null || entry.worldInstance != world || now - entry.created > TTL) {
+            final String worldName = world.getName().toLowerCase(Locale.ROOT);
+            entry = new Entry(world, worldName, now, build(player, worldName));
+            players.put(player.getUniqueId(), entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Building the trie of the effective bypass permissions of this player in this world.
+     * The world is matched as a whole prefix, as world names may contain dots: only the rest of the permission is split.
+     * @param player the player
+     * @param worldName the lower cased name of the world of the player
+     * @return the root of the trie, {@link #EMPTY} if the player has no bypass permission, or {@link #ALL} if it bypasses everything
+     */
+    @NotNull
+    private static Node build(@NotNull final Player player, @NotNull final String worldName) {
+        final String worldPrefix = PREFIX + worldName + ".";
+        final String allWorldsPrefix = PREFIX + ALL_WORLDS + ".";
+        Node root = EMPTY;
+        for (final PermissionAttachmentInfo info : player.getEffectivePermissions()) {
+            if (!info.getValue()) continue;
+            final String permission = info.getPermission().toLowerCase(Locale.ROOT);
+            if (permission.equals("*") || permission.equals("banitem.*") || permission.equals(PREFIX + WILDCARD)) return ALL;
+
+            // World
+            final String world, suffix;
+            if (permission.startsWith(worldPrefix)) {
+                world = worldName;
+                suffix = permission.substring(worldPrefix.length());
+            } else if (permission.startsWith(allWorldsPrefix)) {
+                world = ALL_WORLDS;
+                suffix = permission.substring(allWorldsPrefix.length());
+            } else continue; // other world, or not a bypass permission
+
+            if (root == EMPTY) root = new Node();
+            Node node = root.children.computeIfAbsent(world, k -> new Node());
+            for (final String segment : suffix.split("\\.")) {
+                if (segment.isEmpty()) continue;
+                node = node.children.computeIfAbsent(segment, k -> new Node());
+            }
+            node.granted = true;
+        }
+        return root;
+    }
+
+    /**
+     * Removing the cached permissions of this player, for example if its permissions changed
+     * @param uuid the player uuid
+     */
+    public void invalidate(@NotNull final UUID uuid) {
+        players.remove(uuid);
+    }
+
+    /**
+     * Removing the cached permissions of all players
+     */
+    public void clear() {
+        players.clear();
+    }
+
+    /**
+     * Cached permissions of a player in a world
+     */
+    private static final class Entry {
+        private final World worldInstance;
+        private final String world;
+        private final long created;
+        private final Node root;
+
+        private Entry(@NotNull final World worldInstance, @NotNull final String world, final long created, @NotNull final Node root) {
+            this.worldInstance = worldInstance;
+            this.world = world;
+            this.created = created;
+            this.root = root;
+        }
+    }
+
+    /**
+     * A node of the permissions trie, immutable once built
+     */
+    private static final class Node {
+        private final Map<String, Node> children = new HashMap<>(4);
+        private boolean granted;
+
+        @Nullable
+        private Node get(@NotNull final String segment) {
+            return children.get(segment);
+        }
+
+        private boolean has(@NotNull final String segment) {
+            final Node node = children.get(segment);
+            return node != null && node.granted;
+        }
+    }
+}
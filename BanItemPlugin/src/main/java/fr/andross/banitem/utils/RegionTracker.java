@@ -0,0 +1,192 @@
+/*
+ * BanItem - Lightweight, powerful & configurable per world ban item plugin
+ * Copyright (C) 2021 André Sustac
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your action) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.andross.banitem.utils;
+
+import com.sk89q.worldguard.protection.regions.ProtectedRegion;
+import fr.andross.banitem.utils.hooks.IWorldGuardHook;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracking the standing regions of the players, to detect region changes without querying WorldGuard on each move.
+ * Chunks are indexed lazily: a chunk without any region boundary <i>(no region, or only cuboid regions containing the
+ * whole chunk, from the world min to max height)</i> has the same standing regions everywhere, which are cached.
+ * WorldGuard is then only queried while moving inside a chunk containing a region boundary, or out of the world height.
+ * Regions can be modified at any time, so the index of each world and players regions expire after a few seconds.
+ * @version 3.5
+ * @author Andross
+ */
+public final class RegionTracker {
+    private static final long EXPIRY = TimeUnit.SECONDS.toNanos(30);
+    private static final Set<ProtectedRegion> BOUNDARY = Collections.unmodifiableSet(Collections.emptySet()); // marker of a chunk containing a region boundary
+    private final IWorldGuardHook hook;
+    private final Map<World, ChunkIndex> chunks = new ConcurrentHashMap<>();
+    private final Map<UUID, Tracked> players = new ConcurrentHashMap<>();
+
+    /**
+     * Create a new region tracker
+     * @param hook the worldguard hook
+     */
+    public RegionTracker(@NotNull final IWorldGuardHook hook) {
+        this.hook = hook;
+    }
+
+    /**
+     * Updating the standing regions of the player moving to this location
+     * @param player the player
+     * @param from the previous location of the player
+     * @param to the new location of the player
+     * @return true if the standing regions of the player changed, otherwise false
+     */
+    public boolean move(@NotNull final Player player, @NotNull final Location from, @NotNull final Location to) {
+        final World world = to.getWorld();
+        if (world == null) return false;
+        final long now = System.nanoTime();
+        final int chunkX = to.getBlockX() >> 4;
+        final int chunkZ = to.getBlockZ() >> 4;
+        final long chunk = getKey(chunkX, chunkZ);
+        final boolean inHeight = isInHeight(world, to.getBlockY());
+
+        // First move?
+        Tracked tracked = players.get(player.getUniqueId());
+        if (tracked == null) {
+            tracked = new Tracked(getRegions(from));
+            players.put(player.getUniqueId(), tracked);
+        } else if (!tracked.boundary && inHeight && tracked.world == world && tracked.chunk == chunk && now - tracked.checked < EXPIRY)
+            return false; // same chunk without boundary, nothing can change
+
+        // Getting the new standing regions, out of the world height the regions of the chunk column may not apply
+        final Set<ProtectedRegion> cached = inHeight ? getChunk(world, chunkX, chunkZ, now) : null;
+        final Set<ProtectedRegion> regions = cached == null ? hook.getStandingRegions(to) : cached;
+        tracked.world = world;
+        tracked.chunk = chunk;
+        tracked.boundary = cached == null;
+        tracked.checked = now;
+        if (regions == tracked.regions) return false;
+        final boolean changed = !regions.equals(tracked.regions);
+        tracked.regions = regions;
+        return changed;
+    }
+
+    /**
+     * Removing the tracked regions of this player
+     * @param uuid the player uuid
+     */
+    public void remove(@NotNull final UUID uuid) {
+        players.remove(uuid);
+    }
+
+    @NotNull
+    private Set<ProtectedRegion> getRegions(@NotNull final Location loc) {
+        final World world = loc.getWorld();
+        if (world == null) return Collections.emptySet();
+
+        // Out of the world height, where the regions of the chunk column may not apply
+        if (!isInHeight(world, loc.getBlockY())) return hook.getStandingRegions(loc);
+
+        final Set<ProtectedRegion> cached = getChunk(world, loc.getBlockX() >> 4, loc.getBlockZ() >> 4, System.nanoTime());
+        return cached == null ? hook.getStandingRegions(loc) : cached;
+    }
+
+    /**
+     * Get the standing regions of this chunk, indexing it if needed
+     * @return the standing regions of this chunk, or null if this chunk contains a region boundary
+     */
+    @Nullable
+    private Set<ProtectedRegion> getChunk(@NotNull final World world, final int chunkX, final int chunkZ, final long now) {
+        ChunkIndex index = chunks.get(world);
+        if (index == null || now - index.created > EXPIRY) {
+            final ChunkIndex expired = index;
+            index = chunks.compute(world, (w, current) -> current == null || current == expired ? new ChunkIndex(now) : current);
+        }
+
+        final Long key = getKey(chunkX, chunkZ);
+        Set<ProtectedRegion> regions = index.chunks.get(key);
+        if (regions == null) {
+            regions = indexChunk(world, chunkX, chunkZ);
+            index.chunks.put(key, regions);
+        }
+        return regions == BOUNDARY ? null : regions;
+    }
+
+    @NotNull
+    private Set<ProtectedRegion> indexChunk(@NotNull final World world, final int chunkX, final int chunkZ) {
+        final int minY = getMinY(world);
+        final int maxY = getMaxY(world);
+        final Set<ProtectedRegion> regions = hook.getChunkRegions(world, chunkX, chunkZ, minY, maxY);
+        if (regions.isEmpty()) return Collections.emptySet();
+        for (final ProtectedRegion region : regions)
+            if (!hook.containsChunk(region, chunkX, chunkZ, minY, maxY)) return BOUNDARY;
+
+        // All regions contain the whole chunk, using the standing regions of any block, including their parents
+        return Collections.unmodifiableSet(hook.getStandingRegions(new Location(world, chunkX << 4, minY, chunkZ << 4)));
+    }
+
+    private static boolean isInHeight(@NotNull final World world, final int y) {
+        return y >= getMinY(world) && y <= getMaxY(world);
+    }
+
+    private static int getMinY(@NotNull final World world) {
+        return BanVersion.v17OrMore ? world.getMinHeight() : 0; // world min height is only available on MC 1.17+
+    }
+
+    private static int getMaxY(@NotNull final World world) {
+        return world.getMaxHeight() - 1;
+    }
+
+    private static long getKey(final int chunkX, final int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Indexed chunks of a world, expiring all together
+     */
+    private static final class ChunkIndex {
+        private final long created;
+        private final Map<Long, Set<ProtectedRegion>> chunks = new ConcurrentHashMap<>();
+
+        private ChunkIndex(final long created) {
+            this.created = created;
+        }
+    }
+
+    /**
+     * Tracked regions of a player
+     */
+    private static final class Tracked {
+        private Set<ProtectedRegion> regions;
+        private World world;
+        private long chunk;
+        private boolean boundary;
+        private long checked;
+
+        private Tracked(@NotNull final Set<ProtectedRegion> regions) {
+            this.regions = regions;
+        }
+    }
+}
@@ -34,7 +34,7 @@ import java.util.*;
 
 /**
  * Utility class
- * @version 3.4.1
+ * @version 3.5
  * @author Andross
  */
 public final class Utils {
@@ -166,13 +166,21 @@ public final class Utils {
      */
     @NotNull
     public static Map<Enchantment, Integer> getAllEnchants(@NotNull final ItemStack item) {
+        return getAllEnchants(item, item.getType() == Material.ENCHANTED_BOOK ? item.getItemMeta() : null);
+    }
+
+    /**
+     * Get an unmodifiable map of all enchantments on an item, considering stored enchants on enchanted book
+     * @param item the item
+     * @param itemMeta the item meta of this item, already retrieved
+     * @return non-null unmodifiable map of enchantments and level on the item
+     */
+    @NotNull
+    public static Map<Enchantment, Integer> getAllEnchants(@NotNull final ItemStack item, @Nullable final ItemMeta itemMeta) {
         final Map<Enchantment, Integer> map = new HashMap<>(item.getEnchantments());
 
-        if (item.getType() == Material.ENCHANTED_BOOK) {
-            final EnchantmentStorageMeta esm = ((EnchantmentStorageMeta) item.getItemMeta());
-            if (esm != null)
-                map.putAll(esm.getStoredEnchants());
-        }
+        if (itemMeta instanceof EnchantmentStorageMeta)
+            map.putAll(((EnchantmentStorageMeta) itemMeta).getStoredEnchants());
 
         return Collections.unmodifiableMap(map);
     }
@@ -184,10 +192,20 @@ public final class Utils {
      */
     @NotNull
     public static Map<PotionEffectType, Integer> getAllPotionEffects(@NotNull final ItemStack item) {
+        return getAllPotionEffects(item, item.hasItemMeta() ? item.getItemMeta() : null);
+    }
+
+    /**
+     * Try to get potion effects on an item
+     * @param item the item
+     * @param itemMeta the item meta of this item, already retrieved
+     * @return non-null unmodifiable map of potion effect and level on the item
+     */
+    @NotNull
+    public static Map<PotionEffectType, Integer> getAllPotionEffects(@NotNull final ItemStack item, @Nullable final ItemMeta itemMeta) {
         final Map<PotionEffectType, Integer> map = new HashMap<>();
 
         // Getting base effect
-        final ItemMeta itemMeta = item.hasItemMeta() ? item.getItemMeta() : null;
         if (!BanVersion.v9OrMore && item.getType() == Material.POTION) {
             final Potion p = Potion.fromDamage(item.getDurability());
             if (p.getType().getEffectType() != null)
@@ -20,12 +20,13 @@ package fr.andross.banitem.utils.attributes;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * An enum which represents the minecraft attributes.
  * Only useful for Minecraft lower to 1.9
- * @version 3.4
+ * @version 3.5
  * @author EpiCanard
  */
 public enum AttributeLegacy {
@@ -42,8 +43,14 @@ public enum AttributeLegacy {
     HORSE_JUMP_STRENGTH("horse.jumpStrength"),
     ZOMBIE_SPAWN_REINFORCEMENTS("zombie.spawnReinforcements");
 
+    private static final Map<String, AttributeLegacy> BY_NAME = new HashMap<>();
     private final String name;
 
+    static {
+        for (final AttributeLegacy attribute : values())
+            BY_NAME.put(attribute.name, attribute);
+    }
+
     AttributeLegacy(@NotNull final String name) {
         this.name = name;
     }
@@ -60,6 +67,6 @@ public enum AttributeLegacy {
      */
     @Nullable
     public static AttributeLegacy valueFromName(final String name) {
-        return Arrays.stream(AttributeLegacy.values()).filter(attr -> attr.name.equals(name)).findFirst().orElse(null);
+        return name == null ? null : BY_NAME.get(name);
     }
 }
\ No newline at end of file
@@ -21,7 +21,7 @@ import org.jetbrains.annotations.NotNull;
 
 /**
  * An attribute wrapper class that stores the levels and the comparator in which the attribute must match
- * @version 3.4
+ * @version 3.5
  * @author EpiCanard
  */
 public final class AttributeLevels {
@@ -53,13 +53,13 @@ public final class AttributeLevels {
     }
 
     private final Comparator comparator;
-    private final Double minLevel;
-    private final Double maxLevel;
+    private final double minLevel;
+    private final double maxLevel;
 
     public AttributeLevels(@NotNull final Double level, @NotNull final Comparator comparator) {
         this.comparator = comparator;
         this.minLevel = level;
-        this.maxLevel = null;
+        this.maxLevel = Double.POSITIVE_INFINITY;
     }
 
     public AttributeLevels(@NotNull final Double minLevel, @NotNull final Double maxLevel) {
@@ -75,11 +75,20 @@ public final class AttributeLevels {
      */
     @NotNull
     public Boolean matches(@NotNull final Double level) {
+        return matches(level.doubleValue());
+    }
+
+    /**
+     * Define if the param level match with the attribute levels, without boxing
+     * @param level Level to check if it matches
+     * @return if the input level match
+     */
+    public boolean matches(final double level) {
         switch (this.comparator) {
             case BETWEEN:
-                return level >= minLevel && (maxLevel == null || level <= maxLevel);
+                return level >= minLevel && level <= maxLevel;
             case EQUALS:
-                return level.equals(minLevel);
+                return Double.compare(level, minLevel) == 0;
             case LOWER:
                 return level < minLevel;
             case HIGHER:
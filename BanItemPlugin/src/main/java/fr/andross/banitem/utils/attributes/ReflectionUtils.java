@@ -21,19 +21,25 @@ import org.bukkit.Bukkit;
 import org.bukkit.inventory.ItemStack;
 import org.jetbrains.annotations.NotNull;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Package utils that use the reflection api of java
- * @version 3.4
+ * Package utils that use the reflection api of java.
+ * Methods are looked up once, and cached as {@link MethodHandle}.
+ * @version 3.5
  * @author EpiCanard
  */
 public class ReflectionUtils {
 
     private final static String bukkitPackageVersion;
+    private final static Map<String, MethodHandle> handles = new ConcurrentHashMap<>();
 
     static {
         // Bukkit package version (ex: V1_8_R3)
@@ -46,10 +52,15 @@ public class ReflectionUtils {
      * @return Converted ItemStack
      */
     public static Object asNMSCopy(@NotNull final ItemStack itemStack) throws ClassNotFoundException, InvocationTargetException, IllegalAccessException, NoSuchMethodException {
-        final String craftPath = String.format("org.bukkit.craftbukkit.%s.inventory.CraftItemStack", bukkitPackageVersion);
-        final Class<?> craftItemStack =  Class.forName(craftPath);
-        final Method asNMSCopy = craftItemStack.getDeclaredMethod("asNMSCopy", ItemStack.class);
-        return asNMSCopy.invoke(null, itemStack);
+        MethodHandle handle = handles.get("asNMSCopy");
+        if (handle == null) {
+            final String craftPath = String.format("org.bukkit.craftbukkit.%s.inventory.CraftItemStack", bukkitPackageVersion);
+            final Class<?> craftItemStack =  Class.forName(craftPath);
+            final Method asNMSCopy = craftItemStack.getDeclaredMethod("asNMSCopy", ItemStack.class);
+            handle = MethodHandles.lookup().unreflect(asNMSCopy);
+            handles.put("asNMSCopy", handle);
+        }
+        return invoke(handle, itemStack);
     }
 
     /**
@@ -61,10 +72,16 @@ public class ReflectionUtils {
      */
     @SuppressWarnings("unchecked")
     public static <T> T callMethodWithReturnType(@NotNull final Object obj, @NotNull final Class<? extends T> returnType) throws InvocationTargetException, IllegalAccessException, NoSuchMethodException {
-        final Optional<Method> maybeMethod = Arrays.stream(obj.getClass().getDeclaredMethods()).filter(m -> m.getReturnType() == returnType).findFirst();
-        if (maybeMethod.isPresent())
-            return (T)maybeMethod.get().invoke(obj);
-        throw new NoSuchMethodException("Can't find method with type : " + returnType.getName());
+        final String key = obj.getClass().getName() + "#" + returnType.getName();
+        MethodHandle handle = handles.get(key);
+        if (handle == null) {
+            final Optional<Method> maybeMethod = Arrays.stream(obj.getClass().getDeclaredMethods()).filter(m -> m.getReturnType() == returnType && m.getParameterCount() == 0).findFirst();
+            if (!maybeMethod.isPresent())
+                throw new NoSuchMethodException("Can't find method with type : " + returnType.getName());
+            handle = MethodHandles.lookup().unreflect(maybeMethod.get());
+            handles.put(key, handle);
+        }
+        return (T) invoke(handle, obj);
     }
 
     /**
@@ -76,6 +93,27 @@ public class ReflectionUtils {
      */
     @SuppressWarnings("unchecked")
     public static <T> T callMethodWithName(@NotNull final Object obj, @NotNull final String name) throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
-        return (T)obj.getClass().getDeclaredMethod(name).invoke(obj);
+        final String key = obj.getClass().getName() + "." + name;
+        MethodHandle handle = handles.get(key);
+        if (handle == null) {
+            handle = MethodHandles.lookup().unreflect(obj.getClass().getDeclaredMethod(name));
+            handles.put(key, handle);
+        }
+        return (T) invoke(handle, obj);
     }
-}
\ No newline at end of file
+
+    /**
+     * Invoking a cached method handle taking a single argument <i>(or a receiver)</i>,
+     * wrapping its exceptions like {@link Method#invoke(Object, Object...)}
+     * @param handle the method handle
+     * @param arg the argument, or the instance for an instance method without parameter
+     * @return the value returned by the method
+     */
+    private static Object invoke(@NotNull final MethodHandle handle, final Object arg) throws InvocationTargetException {
+        try {
+            return handle.invoke(arg);
+        } catch (final Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+}
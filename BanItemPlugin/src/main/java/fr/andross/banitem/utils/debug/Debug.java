@@ -19,7 +19,7 @@ package fr.andross.banitem.utils.debug;
 
 import fr.andross.banitem.BanConfig;
 import fr.andross.banitem.actions.BanAction;
-import fr.andross.banitem.items.meta.MetaType;
+import fr.andross.banitem.items.meta.MetaTypeRegistry;
 import fr.andross.banitem.utils.Chat;
 import fr.andross.banitem.utils.enchantments.EnchantmentHelper;
 import fr.andross.banitem.utils.list.ListType;
@@ -41,7 +41,7 @@ import java.util.stream.Collectors;
 /**
  * A debug class, which can handle and display the nodes
  * Mainly used when loading the plugin, to display any error
- * @version 3.1
+ * @version 3.5
  * @author Andross
  */
 public final class Debug implements Cloneable {
@@ -177,7 +177,7 @@ public final class Debug implements Cloneable {
                         }
                         case METATYPE: {
                             messages.add("&7This meta type is unknown. Valid meta type:");
-                            messages.add("&7>> " + Arrays.stream(MetaType.values()).map(MetaType::name).map(String::toLowerCase).collect(Collectors.joining(",", "", ".")));
+                            messages.add("&7>> " + MetaTypeRegistry.getNames().stream().map(String::toLowerCase).collect(Collectors.joining(",", "", ".")));
                             continue;
                         }
                         case ENCHANTMENT: {
@@ -19,6 +19,7 @@ package fr.andross.banitem.utils.list;
 
 import com.sk89q.worldguard.protection.regions.ProtectedRegion;
 import fr.andross.banitem.BanDatabase;
+import fr.andross.banitem.BanHooks;
 import fr.andross.banitem.BanItem;
 import fr.andross.banitem.actions.BanAction;
 import fr.andross.banitem.items.BannedItem;
@@ -48,7 +49,7 @@ import java.util.stream.Stream;
 /**
  * A powerful listable class which will attempt to create List object from gived data.
  * Mainly used to load configurations.
- * @version 3.1
+ * @version 3.5
  * @author Andross
  */
 public final class Listable {
@@ -157,6 +158,20 @@ public final class Listable {
      */
     @NotNull
     public static List<World> getWorlds(@NotNull final Object obj, @Nullable final Debug d) {
+        return getWorlds(obj, d, Bukkit.getWorlds());
+    }
+
+    /**
+     * Trying to get a list of worlds, among the already loaded worlds.
+     * As the server worlds are not accessed, this can be used asynchronously.
+     * If there is any error, this will be debugged
+     * @param obj object to get a list from
+     * @param d debugger, returning empty list if null and if there is any error
+     * @param loadedWorlds the loaded worlds
+     * @return a list of parsed type
+     */
+    @NotNull
+    public static List<World> getWorlds(@NotNull final Object obj, @Nullable final Debug d, @NotNull final Collection<World> loadedWorlds) {
         final List<World> worlds = new ArrayList<>();
         final List<String> strings = getSplittedStringList(obj).stream().map(Chat::uncolor).collect(Collectors.toList());
         if (strings.isEmpty()) return worlds;
@@ -173,14 +188,14 @@ public final class Listable {
                     continue;
                 }
                 // Getting world
-                Bukkit.getWorlds().stream()
+                loadedWorlds.stream()
                         .filter(w -> pattern.matcher(w.getName()).find())
                         .forEach(worlds::add);
                 continue;
             }
 
             if (worldName.equals("*")) {
-                worlds.addAll(Bukkit.getWorlds());
+                worlds.addAll(loadedWorlds);
                 continue;
             }
 
@@ -188,7 +203,8 @@ public final class Listable {
             if (remove) worldName = worldName.substring(1);
 
             // Getting the world
-            final World w = Bukkit.getWorld(worldName);
+            final String name = worldName;
+            final World w = loadedWorlds.stream().filter(world -> world.getName().equalsIgnoreCase(name)).findFirst().orElse(null);
             if (w == null) {
                 if (d != null)
                     d.clone().add(ListType.WORLD, "&cUnknown world &e&l" + worldName + "&c.").sendDebug();
@@ -341,12 +357,25 @@ public final class Listable {
      */
     @NotNull
     public static List<ProtectedRegion> getRegionsList(@NotNull final BanItem pl, @NotNull final Object obj, @Nullable final Debug d, @NotNull final Collection<World> worlds) {
+        return getRegionsList(pl.getHooks(), obj, d, worlds);
+    }
+
+    /**
+     * Get a list of protected regions, using these hooks
+     * @param hooks the hooks to use, which can be the ones being loaded
+     * @param obj object to get a list from
+     * @param d debugger, returning empty list if null and if there is any error
+     * @param worlds list of worlds where to get the regions
+     * @return a list of regions
+     */
+    @NotNull
+    public static List<ProtectedRegion> getRegionsList(@NotNull final BanHooks hooks, @NotNull final Object obj, @Nullable final Debug d, @NotNull final Collection<World> worlds) {
         final List<ProtectedRegion> list = new ArrayList<>();
         final List<String> strings = getSplittedStringList(obj);
         if (strings.isEmpty()) return list;
 
         // Getting Worldguard hook
-        final IWorldGuardHook hook = pl.getHooks().getWorldGuardHook();
+        final IWorldGuardHook hook = hooks.getWorldGuardHook();
         if (hook == null) return list;
 
         for (String key : strings) {
@@ -0,0 +1,278 @@
+/*
+ * BanItem - Lightweight, powerful & configurable per world ban item plugin
+ * Copyright (C) 2021 André Sustac
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your action) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.andross.banitem;
+
+import fr.andross.banitem.actions.BanAction;
+import fr.andross.banitem.actions.BanActionData;
+import fr.andross.banitem.database.BanIndex;
+import fr.andross.banitem.database.Blacklist;
+import fr.andross.banitem.database.items.Items;
+import fr.andross.banitem.items.BannedItem;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests of the dispatchers running the handlers of an event
+ * @version 3.5
+ * @author Andross
+ */
+class BanListenerTest {
+    private final Listener listener = new Listener() {};
+    private List<String> ran;
+    private BanListener.Dispatcher dispatcher;
+
+    @BeforeAll
+    static void setUpServer() {
+        Stubs.server();
+    }
+
+    @BeforeEach
+    void setUp() {
+        ran = new ArrayList<>();
+        dispatcher = new BanListener.Dispatcher(() -> {
+            throw new AssertionError("The index is only needed for the events happening in a world");
+        });
+    }
+
+    /**
+     * A handler noting its name once run, and cancelling the event if needed
+     */
+    @NotNull
+    private BanListener.Handler handler(@NotNull final String name, final boolean cancel) {
+        return (context, event) -> {
+            ran.add(name);
+            if (cancel) ((Cancellable) event).setCancelled(true);
+        };
+    }
+
+    @Test
+    void allHandlersRunInOrder() {
+        dispatcher.add(BanAction.BREAK, handler("break", false));
+        dispatcher.add(BanAction.PLACE, handler("place", false));
+        dispatcher.add(null, handler("always", false));
+        dispatcher.execute(listener, new TestEvent(false));
+
+        assertEquals(Arrays.asList("break", "place", "always"), ran);
+    }
+
+    @Test
+    void stopsOnceAHandlerCancelled() {
+        dispatcher.add(BanAction.BREAK, handler("break", false));
+        dispatcher.add(BanAction.PLACE, handler("place", true));
+        dispatcher.add(BanAction.DROP, handler("drop", true));
+        final TestEvent event = new TestEvent(false);
+        dispatcher.execute(listener, event);
+
+        assertEquals(Arrays.asList("break", "place"), ran);
+        assertTrue(event.isCancelled());
+    }
+
+    @Test
+    void alreadyCancelledEventsAreCheckedByAllHandlers() {
+        // Only dispatched in maximum priority, the normal priority ignores the cancelled events
+        dispatcher.add(BanAction.BREAK, handler("break", true));
+        dispatcher.add(BanAction.PLACE, handler("place", true));
+        dispatcher.execute(listener, new TestEvent(true));
+
+        assertEquals(Arrays.asList("break", "place"), ran);
+    }
+
+    @Test
+    void eventsNotCancellableAreCheckedByAllHandlers() {
+        dispatcher.add(BanAction.BREAK, (context, event) -> ran.add("break"));
+        dispatcher.add(BanAction.PLACE, (context, event) -> ran.add("place"));
+        dispatcher.execute(listener, new Event() {
+            @NotNull
+            @Override
+            public HandlerList getHandlers() {
+                return TestEvent.HANDLERS;
+            }
+        });
+
+        assertEquals(Arrays.asList("break", "place"), ran);
+    }
+
+    @Test
+    void handlersShareTheSameContext() {
+        final List<BanListener.Context> contexts = new ArrayList<>();
+        dispatcher.add(BanAction.BREAK, (context, event) -> contexts.add(context));
+        dispatcher.add(BanAction.PLACE, (context, event) -> contexts.add(context));
+        dispatcher.execute(listener, new TestEvent(false));
+        dispatcher.execute(listener, new TestEvent(false));
+
+        assertEquals(4, contexts.size());
+        assertSame(contexts.get(0), contexts.get(1));
+        assertSame(contexts.get(2), contexts.get(3));
+        assertNotSame(contexts.get(0), contexts.get(2), "A context is only shared by the handlers of a same event");
+    }
+
+    @Test
+    void noHandler() {
+        final TestEvent event = new TestEvent(false);
+        dispatcher.execute(listener, event);
+
+        assertEquals(Collections.emptyList(), ran);
+        assertFalse(event.isCancelled());
+    }
+
+    /**
+     * A dispatcher using an index of the blacklisted actions of those worlds
+     */
+    @NotNull
+    private BanListener.Dispatcher dispatcher(@NotNull final Map<World, BanAction[]> worlds) {
+        final Blacklist blacklist = new Blacklist(null, null, null, null, null, null, null); // not loading any config
+        for (final Map.Entry<World, BanAction[]> e : worlds.entrySet()) {
+            final Map<BanAction, BanActionData> actions = new EnumMap<>(BanAction.class);
+            for (final BanAction action : e.getValue()) actions.put(action, new BanActionData());
+            final Items items = new Items();
+            items.getItems().put(new BannedItem(Material.STONE), actions);
+            blacklist.put(e.getKey(), items);
+        }
+        final BanIndex index = new BanIndex(blacklist);
+        return new BanListener.Dispatcher(() -> index);
+    }
+
+    @NotNull
+    private static BlockBreakEvent breakIn(@NotNull final World world) {
+        return new BlockBreakEvent(Stubs.block(world), Stubs.player("Andross", world, Collections.emptySet()));
+    }
+
+    @Test
+    void actionsNotUsedInTheWorldAreSkipped() {
+        final World world = Stubs.world("world");
+        final Map<World, BanAction[]> worlds = new HashMap<>();
+        worlds.put(world, new BanAction[]{ BanAction.BREAK, BanAction.DROP });
+        dispatcher = dispatcher(worlds);
+        dispatcher.add(BanAction.BREAK, handler("break", false));
+        dispatcher.add(BanAction.PLACE, handler("place", false));
+        dispatcher.add(BanAction.DROP, handler("drop", false));
+        dispatcher.execute(listener, breakIn(world));
+
+        assertEquals(Arrays.asList("break", "drop"), ran);
+    }
+
+    @Test
+    void actionsAreCheckedPerWorld() {
+        final World world = Stubs.world("world");
+        final World nether = Stubs.world("world_nether");
+        final World empty = Stubs.world("empty");
+        final Map<World, BanAction[]> worlds = new HashMap<>();
+        worlds.put(world, new BanAction[]{ BanAction.BREAK });
+        worlds.put(nether, new BanAction[]{ BanAction.PLACE });
+        dispatcher = dispatcher(worlds);
+        dispatcher.add(BanAction.BREAK, handler("break", false));
+        dispatcher.add(BanAction.PLACE, handler("place", false));
+        dispatcher.add(null, handler("always", false));
+
+        dispatcher.execute(listener, breakIn(world));
+        assertEquals(Arrays.asList("break", "always"), ran);
+        ran.clear();
+        dispatcher.execute(listener, breakIn(nether));
+        assertEquals(Arrays.asList("place", "always"), ran);
+        ran.clear();
+        dispatcher.execute(listener, breakIn(empty));
+        assertEquals(Collections.singletonList("always"), ran);
+    }
+
+    @Test
+    void skippedActionsDoNotStopTheDispatch() {
+        final World world = Stubs.world("world");
+        final Map<World, BanAction[]> worlds = new HashMap<>();
+        worlds.put(world, new BanAction[]{ BanAction.PLACE });
+        dispatcher = dispatcher(worlds);
+        dispatcher.add(BanAction.BREAK, handler("break", true));
+        dispatcher.add(BanAction.PLACE, handler("place", true));
+        final BlockBreakEvent event = breakIn(world);
+        dispatcher.execute(listener, event);
+
+        assertEquals(Collections.singletonList("place"), ran);
+        assertTrue(event.isCancelled());
+    }
+
+    @Test
+    void theCurrentIndexIsUsed() {
+        final World world = Stubs.world("world");
+        final Items items = new Items();
+        final Blacklist blacklist = new Blacklist(null, null, null, null, null, null, null);
+        blacklist.put(world, items);
+        final BanIndex[] index = { new BanIndex(blacklist) };
+        dispatcher = new BanListener.Dispatcher(() -> index[0]);
+        dispatcher.add(BanAction.BREAK, handler("break", false));
+
+        dispatcher.execute(listener, breakIn(world));
+        assertEquals(Collections.emptyList(), ran);
+
+        final Map<BanAction, BanActionData> actions = new EnumMap<>(BanAction.class);
+        actions.put(BanAction.BREAK, new BanActionData());
+        items.getItems().put(new BannedItem(Material.STONE), actions);
+        index[0] = new BanIndex(blacklist);
+        dispatcher.execute(listener, breakIn(world));
+        assertEquals(Collections.singletonList("break"), ran);
+    }
+
+    /**
+     * A cancellable event, happening in no world
+     */
+    private static final class TestEvent extends Event implements Cancellable {
+        private static final HandlerList HANDLERS = new HandlerList();
+        private boolean cancelled;
+
+        private TestEvent(final boolean cancelled) {
+            this.cancelled = cancelled;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public void setCancelled(final boolean cancel) {
+            cancelled = cancel;
+        }
+
+        @NotNull
+        @Override
+        public HandlerList getHandlers() {
+            return HANDLERS;
+        }
+    }
+}
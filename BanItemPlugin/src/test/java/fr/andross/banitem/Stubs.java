@@ -0,0 +1,185 @@
+/*
+ * BanItem - Lightweight, powerful & configurable per world ban item plugin
+ * Copyright (C) 2021 André Sustac
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your action) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.andross.banitem;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.permissions.PermissionAttachmentInfo;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.logging.Logger;
+
+/**
+ * Minimal stubs of the Bukkit interfaces used by the tests, without any server running.
+ * Methods not stubbed return null, false or 0.
+ * A stubbed value can be an {@link Answer}, to compute it from the arguments.
+ * @version 3.5
+ * @author Andross
+ */
+public final class Stubs {
+    private static final String VERSION = "1.18.2-R0.1-SNAPSHOT";
+
+    private Stubs() {
+    }
+
+    /**
+     * Setting a stub server, so the version checks and static Bukkit methods can be used
+     */
+    public static synchronized void server() {
+        if (Bukkit.getServer() != null) return;
+        final Map<String, Object> values = new HashMap<>();
+        values.put("getName", "BanItemTest");
+        values.put("getVersion", "test (MC: 1.18.2)");
+        values.put("getBukkitVersion", VERSION);
+        values.put("getLogger", Logger.getLogger("BanItemTest"));
+        values.put("getWorlds", Collections.emptyList());
+        Bukkit.setServer(stub(Server.class, values));
+    }
+
+    /**
+     * Create a world, from -64 to 319 height
+     * @param name the name of the world
+     * @return a world stub, only equal to itself
+     */
+    @NotNull
+    public static World world(@NotNull final String name) {
+        final Map<String, Object> values = new HashMap<>();
+        values.put("getName", name);
+        values.put("getMinHeight", -64);
+        values.put("getMaxHeight", 320);
+        return stub(World.class, values);
+    }
+
+    /**
+     * Create a player
+     * @param name the name of the player
+     * @return a player stub, with a random unique id
+     */
+    @NotNull
+    public static Player player(@NotNull final String name) {
+        final Map<String, Object> values = new HashMap<>();
+        values.put("getName", name);
+        values.put("getUniqueId", UUID.randomUUID());
+        return stub(Player.class, values);
+    }
+
+    /**
+     * Create a player in a world, with some permissions.
+     * Only the granted permissions are effective, as for a player which is not op with unregistered permissions.
+     * @param name the name of the player
+     * @param world the world of the player
+     * @param permissions the granted permissions
+     * @return a player stub, with a random unique id
+     */
+    @NotNull
+    public static Player player(@NotNull final String name, @NotNull final World world, @NotNull final Set<String> permissions) {
+        final Map<String, Object> values = new HashMap<>();
+        values.put("getName", name);
+        values.put("getUniqueId", UUID.randomUUID());
+        values.put("getWorld", world);
+        values.put("hasPermission", (Answer) (proxy, args) -> args[0] instanceof String && permissions.contains(((String) args[0]).toLowerCase(Locale.ROOT)));
+        values.put("getEffectivePermissions", (Answer) (proxy, args) -> permissions.stream()
+                .map(permission -> new PermissionAttachmentInfo((Player) proxy, permission, null, true))
+                .collect(Collectors.toSet()));
+        return stub(Player.class, values);
+    }
+
+    /**
+     * Create a block
+     * @param world the world of the block
+     * @return a block stub
+     */
+    @NotNull
+    public static Block block(@NotNull final World world) {
+        final Map<String, Object> values = new HashMap<>();
+        values.put("getWorld", world);
+        return stub(Block.class, values);
+    }
+
+    /**
+     * Create an item meta
+     * @param displayName the display name, null if none
+     * @param modelData the custom model data, null if none
+     * @param unbreakable if the item is unbreakable
+     * @return an item meta stub
+     */
+    @NotNull
+    public static ItemMeta meta(@Nullable final String displayName, @Nullable final Integer modelData, final boolean unbreakable) {
+        final Map<String, Object> values = new HashMap<>();
+        values.put("hasDisplayName", displayName != null);
+        values.put("getDisplayName", displayName);
+        values.put("hasCustomModelData", modelData != null);
+        values.put("getCustomModelData", modelData == null ? 0 : modelData);
+        values.put("isUnbreakable", unbreakable);
+        return stub(ItemMeta.class, values);
+    }
+
+    @NotNull
+    private static <T> T stub(@NotNull final Class<T> type, @NotNull final Map<String, Object> values) {
+        final Object stub = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{ type }, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "equals": return proxy == args[0];
+                case "hashCode": return System.identityHashCode(proxy);
+                case "toString": return type.getSimpleName() + values.getOrDefault("getName", "");
+                case "clone": return proxy;
+                default:
+                    if (values.containsKey(method.getName())) {
+                        final Object value = values.get(method.getName());
+                        return value instanceof Answer ? ((Answer) value).answer(proxy, args) : value;
+                    }
+                    return getDefaultValue(method.getReturnType());
+            }
+        });
+        return type.cast(stub);
+    }
+
+    @Nullable
+    private static Object getDefaultValue(@NotNull final Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) return null;
+        if (type == boolean.class) return false;
+        if (type == char.class) return '\0';
+        if (type == byte.class) return (byte) 0;
+        if (type == short.class) return (short) 0;
+        if (type == int.class) return 0;
+        if (type == long.class) return 0L;
+        if (type == float.class) return 0f;
+        return 0d;
+    }
+
+    /**
+     * A stubbed value computed from the arguments of the call
+     */
+    @FunctionalInterface
+    public interface Answer {
+        @Nullable
+        Object answer(@NotNull Object proxy, @Nullable Object[] args);
+    }
+}
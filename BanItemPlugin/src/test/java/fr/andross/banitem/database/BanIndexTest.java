@@ -0,0 +1,285 @@
+/*
+ * BanItem - Lightweight, powerful & configurable per world ban item plugin
+ * Copyright (C) 2021 André Sustac
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your action) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.andross.banitem.database;
+
+import fr.andross.banitem.Stubs;
+import fr.andross.banitem.actions.BanAction;
+import fr.andross.banitem.actions.BanActionData;
+import fr.andross.banitem.database.items.Items;
+import fr.andross.banitem.items.BannedItem;
+import fr.andross.banitem.items.CustomBannedItem;
+import fr.andross.banitem.utils.debug.Debug;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests of the compiled per world and per material blacklist index
+ * @version 3.5
+ * @author Andross
+ */
+class BanIndexTest {
+    private World world, sameItemsWorld, otherWorld, emptyWorld;
+    private Items items, otherItems;
+    private Blacklist blacklist;
+
+    @BeforeAll
+    static void setUpServer() {
+        Stubs.server();
+    }
+
+    @BeforeEach
+    void setUp() {
+        world = Stubs.world("world");
+        sameItemsWorld = Stubs.world("world_nether");
+        otherWorld = Stubs.world("world_the_end");
+        emptyWorld = Stubs.world("empty");
+
+        // Worlds sharing the same items, as for '*' worlds
+        items = new Items();
+        otherItems = new Items();
+        blacklist = new Blacklist(null, null, null, null, null, null, null); // not loading any config
+        blacklist.put(world, items);
+        blacklist.put(sameItemsWorld, items);
+        blacklist.put(otherWorld, otherItems);
+    }
+
+    @NotNull
+    private static Map<BanAction, BanActionData> actions(@NotNull final BanAction... actions) {
+        final Map<BanAction, BanActionData> map = new EnumMap<>(BanAction.class);
+        for (final BanAction action : actions) map.put(action, new BanActionData());
+        return map;
+    }
+
+    @NotNull
+    private static BannedItem item(@NotNull final Material m) {
+        return new BannedItem(m);
+    }
+
+    @Test
+    void plainMaterials() {
+        final Map<BanAction, BanActionData> actions = actions(BanAction.BREAK, BanAction.PLACE);
+        items.getItems().put(item(Material.STONE), actions);
+        final BanIndex index = new BanIndex(blacklist);
+
+        final BanActionData[] row = index.get(world, item(Material.STONE));
+        assertNotNull(row);
+        assertEquals(BanAction.values().length, row.length);
+        assertSame(actions.get(BanAction.BREAK), row[BanAction.BREAK.ordinal()]);
+        assertSame(actions.get(BanAction.PLACE), row[BanAction.PLACE.ordinal()]);
+        assertNull(row[BanAction.DROP.ordinal()]);
+
+        assertSame(actions.get(BanAction.BREAK), index.get(world, item(Material.STONE), BanAction.BREAK));
+        assertNull(index.get(world, item(Material.STONE), BanAction.DROP));
+        assertNull(index.get(world, item(Material.DIRT)));
+        assertNull(index.get(otherWorld, item(Material.STONE)));
+        assertNull(index.get(emptyWorld, item(Material.STONE)));
+    }
+
+    @Test
+    void actionsMap() {
+        final Map<BanAction, BanActionData> actions = actions(BanAction.BREAK, BanAction.PLACE);
+        items.getItems().put(item(Material.STONE), actions);
+        final BanIndex index = new BanIndex(blacklist);
+
+        assertEquals(actions, index.getActions(world, item(Material.STONE)));
+        assertNull(index.getActions(world, item(Material.DIRT)));
+        assertNull(index.getActions(emptyWorld, item(Material.STONE)));
+    }
+
+    @Test
+    void worldsSharingItemsShareTheirTable() {
+        items.getItems().put(item(Material.STONE), actions(BanAction.BREAK));
+        final BanIndex index = new BanIndex(blacklist);
+
+        assertSame(index.get(world, item(Material.STONE)), index.get(sameItemsWorld, item(Material.STONE)));
+    }
+
+    @Test
+    void equalActionsShareTheirRow() {
+        final Map<BanAction, BanActionData> actions = actions(BanAction.BREAK);
+        items.getItems().put(item(Material.STONE), actions);
+        items.getItems().put(item(Material.DIRT), actions);
+        otherItems.getItems().put(item(Material.SAND), actions);
+        final BanIndex index = new BanIndex(blacklist);
+
+        final BanActionData[] row = index.get(world, item(Material.STONE));
+        assertSame(row, index.get(world, item(Material.DIRT)));
+        assertSame(row, index.get(otherWorld, item(Material.SAND)));
+    }
+
+    @Test
+    void activeActions() {
+        items.getItems().put(item(Material.STONE), actions(BanAction.BREAK));
+        otherItems.getItems().put(item(Material.STONE), actions(BanAction.PLACE, BanAction.DROP));
+        final BanIndex index = new BanIndex(blacklist);
+
+        assertTrue(index.isActive(world, BanAction.BREAK));
+        assertFalse(index.isActive(world, BanAction.PLACE));
+        assertTrue(index.isActive(sameItemsWorld, BanAction.BREAK));
+        assertTrue(index.isActive(otherWorld, BanAction.DROP));
+        assertFalse(index.isActive(otherWorld, BanAction.BREAK));
+        assertFalse(index.isActive(emptyWorld, BanAction.BREAK));
+
+        final BanIndex.Rules rules = index.get(otherWorld);
+        assertNotNull(rules);
+        assertEquals(EnumSet.of(BanAction.PLACE, BanAction.DROP), rules.getActions());
+        assertNull(index.get(emptyWorld));
+    }
+
+    @Test
+    void concernedMaterials() {
+        items.getItems().put(item(Material.STONE), actions(BanAction.BREAK));
+        final BanIndex index = new BanIndex(blacklist);
+
+        final BanIndex.Rules rules = index.get(world);
+        assertNotNull(rules);
+        assertTrue(rules.concerns(Material.STONE, BanAction.BREAK));
+        assertFalse(rules.concerns(Material.DIRT, BanAction.BREAK));
+    }
+
+    @Test
+    void materialsWithCustomItemsAreResolvedThroughTheCache() {
+        final Map<BanAction, BanActionData> actions = actions(BanAction.BREAK);
+        items.getItems().put(item(Material.DIAMOND_SWORD), actions);
+
+        // A custom item on the same material, not matching items without model data
+        final YamlConfiguration section = new YamlConfiguration();
+        section.set("material", "diamond_sword");
+        section.set("modeldata-equals", 1);
+        items.getCustomItems().put(new CustomBannedItem("custom", section, new Debug(null, null)), actions(BanAction.USE));
+        final BanIndex index = new BanIndex(blacklist);
+
+        final BanActionData[] row = index.get(world, item(Material.DIAMOND_SWORD));
+        assertNotNull(row);
+        assertSame(actions.get(BanAction.BREAK), row[BanAction.BREAK.ordinal()]);
+        assertNull(row[BanAction.USE.ordinal()]);
+        assertTrue(index.isActive(world, BanAction.USE));
+
+        // Second lookup, from the cache
+        assertSame(row, index.get(world, item(Material.DIAMOND_SWORD)));
+        assertEquals(0.5, index.getCacheHitRate());
+
+        // Plain materials do not use the cache
+        index.get(world, item(Material.STONE));
+        assertEquals(0.5, index.getCacheHitRate());
+    }
+
+    @Test
+    void cachedRowsAreDroppedOnceTheItemsAreModified() {
+        final YamlConfiguration section = new YamlConfiguration();
+        section.set("material", "diamond_sword");
+        section.set("modeldata-equals", 1);
+        final CustomBannedItem custom = new CustomBannedItem("custom", section, new Debug(null, null));
+        items.getCustomItems().put(custom, actions(BanAction.USE));
+        items.getItems().put(item(Material.DIAMOND_SWORD), actions(BanAction.BREAK));
+        final BanIndex index = new BanIndex(blacklist);
+        final BanActionData[] cached = index.get(world, item(Material.DIAMOND_SWORD));
+        assertSame(cached, index.get(world, item(Material.DIAMOND_SWORD)));
+
+        // Replacing the actions of the cached item
+        final Map<BanAction, BanActionData> actions = actions(BanAction.PLACE);
+        items.getItems().put(item(Material.DIAMOND_SWORD), actions);
+        assertFalse(index.isUpToDate());
+
+        final BanIndex rebuilt = new BanIndex(blacklist);
+        final BanActionData[] row = rebuilt.get(world, item(Material.DIAMOND_SWORD));
+        assertNotNull(row);
+        assertSame(actions.get(BanAction.PLACE), row[BanAction.PLACE.ordinal()]);
+        assertNull(row[BanAction.BREAK.ordinal()]);
+        assertEquals(0, rebuilt.getCacheHitRate());
+    }
+
+    @Test
+    void modifiedItemsOutdateTheIndex() {
+        final BanIndex index = new BanIndex(blacklist);
+        assertTrue(index.isUpToDate());
+        items.getItems().put(item(Material.STONE), actions(BanAction.BREAK));
+
+        // Not compiled in this index, but in the rebuilt one
+        assertFalse(index.isUpToDate());
+        assertNull(index.get(world, item(Material.STONE)));
+        final BanIndex rebuilt = new BanIndex(blacklist);
+        assertTrue(rebuilt.isUpToDate());
+        assertNotNull(rebuilt.get(world, item(Material.STONE)));
+
+        items.getItems().remove(item(Material.STONE));
+        assertFalse(rebuilt.isUpToDate());
+    }
+
+    @Test
+    void modifiedBlacklistOutdatesTheIndex() {
+        final BanIndex index = new BanIndex(blacklist);
+        blacklist.addNewBan(emptyWorld, item(Material.STONE), actions(BanAction.BREAK));
+        assertFalse(index.isUpToDate());
+        assertNotNull(new BanIndex(blacklist).get(emptyWorld, item(Material.STONE)));
+
+        final BanIndex added = new BanIndex(blacklist);
+        blacklist.removeBan(Collections.singletonList(emptyWorld), item(Material.STONE));
+        assertFalse(added.isUpToDate());
+        assertNull(new BanIndex(blacklist).get(emptyWorld, item(Material.STONE)));
+
+        final BanIndex removed = new BanIndex(blacklist);
+        blacklist.remove(otherWorld);
+        assertFalse(removed.isUpToDate());
+    }
+
+    @Test
+    void itemsMapsCopiedByTheBlacklistAreObserved() {
+        // Banning in a single world copies the items map it shares with another world
+        blacklist.addNewBan(world, item(Material.STONE), actions(BanAction.BREAK));
+        final Items copy = blacklist.get(world);
+        assertNotSame(items, copy);
+
+        final BanIndex index = new BanIndex(blacklist);
+        copy.getItems().put(item(Material.DIRT), actions(BanAction.BREAK));
+        assertFalse(index.isUpToDate());
+    }
+
+    @Test
+    void modifiedWhitelistOutdatesTheIndex() {
+        final Whitelist whitelist = new Whitelist(null, null, null, null, null, null, null); // not loading any config
+        final WhitelistedWorld ww = whitelist.createNewWhitelistedWorld(emptyWorld, null, null);
+        final BanIndex index = new BanIndex(blacklist, whitelist);
+        assertTrue(index.isUpToDate());
+
+        whitelist.addNewException(ww, item(Material.STONE), actions(BanAction.BREAK));
+        assertFalse(index.isUpToDate());
+
+        final BanIndex rebuilt = new BanIndex(blacklist, whitelist);
+        ww.getItems().remove(item(Material.STONE));
+        assertFalse(rebuilt.isUpToDate());
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * BanItem - Lightweight, powerful & configurable per world ban item plugin
+ * Copyright (C) 2021 André Sustac
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your action) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.andross.banitem.database.items;
+
+import fr.andross.banitem.Stubs;
+import fr.andross.banitem.actions.BanAction;
+import fr.andross.banitem.actions.BanActionData;
+import fr.andross.banitem.items.CustomBannedItem;
+import fr.andross.banitem.items.ItemFeatures;
+import fr.andross.banitem.utils.debug.Debug;
+import org.bukkit.Material;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Tests of the custom items decision tree, and its candidates pruning
+ * @version 3.5
+ * @author Andross
+ */
+class CustomItemsTreeTest {
+
+    @BeforeAll
+    static void setUp() {
+        Stubs.server();
+    }
+
+    @NotNull
+    private static Map.Entry<CustomBannedItem, Map<BanAction, BanActionData>> entry(@NotNull final String name, @NotNull final Object... metas) {
+        final YamlConfiguration section = new YamlConfiguration();
+        section.set("material", "diamond_sword");
+        for (int i = 0; i < metas.length; i += 2)
+            section.set((String) metas[i], metas[i + 1]);
+        final CustomBannedItem item = new CustomBannedItem(name, section, new Debug(null, null));
+        return new AbstractMap.SimpleImmutableEntry<>(item, Collections.<BanAction, BanActionData>emptyMap());
+    }
+
+    @NotNull
+    private static ItemFeatures features(@Nullable final String displayName, @Nullable final Integer modelData, final boolean unbreakable) {
+        return new ItemFeatures(new ItemStack(Material.DIAMOND_SWORD), Stubs.meta(displayName, modelData, unbreakable));
+    }
+
+    @NotNull
+    private static BitSet bits(final int... indexes) {
+        final BitSet bits = new BitSet();
+        for (final int i : indexes) bits.set(i);
+        return bits;
+    }
+
+    /**
+     * 6 custom items by model data (1 to 6), one by display name and one unbreakable
+     */
+    @NotNull
+    private static List<Map.Entry<CustomBannedItem, Map<BanAction, BanActionData>>> getEntries() {
+        final List<Map.Entry<CustomBannedItem, Map<BanAction, BanActionData>>> entries = new ArrayList<>();
+        for (int i = 1; i <= 6; i++)
+            entries.add(entry("model" + i, "modeldata-equals", i));
+        entries.add(entry("excalibur", "displayname-equals", "Excalibur"));
+        entries.add(entry("unbreakable", "unbreakable", true));
+        return entries;
+    }
+
+    @Test
+    void fewItemsAreAllCandidates() {
+        final List<Map.Entry<CustomBannedItem, Map<BanAction, BanActionData>>> entries = new ArrayList<>();
+        for (int i = 1; i <= 3; i++)
+            entries.add(entry("model" + i, "modeldata-equals", i));
+        final CustomItemsTree tree = new CustomItemsTree(entries);
+
+        assertEquals(bits(0, 1, 2), tree.getCandidates(features(null, null, false)));
+        assertSame(entries.get(1), tree.get(features(null, 2, false)));
+        assertNull(tree.get(features(null, 4, false)));
+    }
+
+    @Test
+    void candidatesArePruned() {
+        final CustomItemsTree tree = new CustomItemsTree(getEntries());
+
+        // Branching on the model data, other custom items are in the residual branch
+        assertEquals(bits(2, 6, 7), tree.getCandidates(features(null, 3, false)));
+        assertEquals(bits(6, 7), tree.getCandidates(features(null, null, false)));
+        assertEquals(bits(6, 7), tree.getCandidates(features("Excalibur", 42, true)));
+    }
+
+    @Test
+    void firstMatchingItem() {
+        final List<Map.Entry<CustomBannedItem, Map<BanAction, BanActionData>>> entries = getEntries();
+        final CustomItemsTree tree = new CustomItemsTree(entries);
+
+        assertSame(entries.get(2), tree.get(features(null, 3, false)));
+        assertSame(entries.get(6), tree.get(features("Excalibur", null, false)));
+        assertSame(entries.get(7), tree.get(features(null, null, true)));
+        assertSame(entries.get(6), tree.get(features("Excalibur", null, true))); // in the matching order
+        assertSame(entries.get(0), tree.get(features("Excalibur", 1, true)));
+        assertNull(tree.get(features("Durandal", 42, false)));
+        assertNull(tree.get(features(null, null, false)));
+    }
+
+    @Test
+    void revertedItemsAreAlwaysCandidates() {
+        final List<Map.Entry<CustomBannedItem, Map<BanAction, BanActionData>>> entries = getEntries();
+        entries.add(entry("notmodel1", "modeldata-equals", 1, "reverted", true));
+        final CustomItemsTree tree = new CustomItemsTree(entries);
+
+        assertEquals(bits(0, 6, 7, 8), tree.getCandidates(features(null, 1, false)));
+        assertEquals(bits(4, 6, 7, 8), tree.getCandidates(features(null, 5, false)));
+        assertSame(entries.get(8), tree.get(features(null, 9, false)));
+        assertSame(entries.get(0), tree.get(features(null, 1, false)));
+    }
+
+    @Test
+    void residualItemsAreBranchedOnTheirFeatures() {
+        // Enough display name items in the residual branch of the model data to be branched too
+        final List<Map.Entry<CustomBannedItem, Map<BanAction, BanActionData>>> entries = getEntries();
+        for (int i = 1; i <= 4; i++)
+            entries.add(entry("name" + i, "displayname-equals", "Name" + i));
+        final CustomItemsTree tree = new CustomItemsTree(entries);
+
+        final BitSet candidates = tree.getCandidates(features("Name2", null, false));
+        assertEquals(bits(7, 9), candidates);
+        assertSame(entries.get(9), tree.get(features("Name2", null, false)));
+    }
+
+    @Test
+    void reusedCandidates() {
+        final List<Map.Entry<CustomBannedItem, Map<BanAction, BanActionData>>> entries = getEntries();
+        final CustomItemsTree tree = new CustomItemsTree(entries);
+
+        // Same bit set for each lookup, cleared before, as done by the item probe
+        final BitSet candidates = new BitSet();
+        assertSame(entries.get(2), tree.get(features(null, 3, false), candidates));
+        candidates.clear();
+        assertSame(entries.get(6), tree.get(features("Excalibur", null, false), candidates));
+        assertEquals(tree.getCandidates(features("Excalibur", null, false)), candidates);
+        candidates.clear();
+        assertNull(tree.get(features(null, null, false), candidates));
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * BanItem - Lightweight, powerful & configurable per world ban item plugin
+ * Copyright (C) 2021 André Sustac
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your action) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.andross.banitem.items.meta;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests of the Aho-Corasick automaton of the text matcher
+ * @version 3.5
+ * @author Andross
+ */
+class TextMatcherTest {
+
+    @NotNull
+    private static TextMatcher.Automaton build(@NotNull final String... literals) {
+        final TextMatcher.Automaton automaton = new TextMatcher.Automaton();
+        for (int slot = 0; slot < literals.length; slot++)
+            automaton.add(literals[slot], slot);
+        automaton.build();
+        return automaton;
+    }
+
+    @NotNull
+    private static BitSet scan(@NotNull final TextMatcher.Automaton automaton, @NotNull final String... texts) {
+        final BitSet found = new BitSet();
+        for (final String text : texts)
+            automaton.scan(text, found);
+        return found;
+    }
+
+    @NotNull
+    private static BitSet bits(final int... slots) {
+        final BitSet bits = new BitSet();
+        for (final int slot : slots) bits.set(slot);
+        return bits;
+    }
+
+    @Test
+    void noLiteral() {
+        assertEquals(bits(), scan(build(), "anything"));
+    }
+
+    @Test
+    void singleLiteral() {
+        final TextMatcher.Automaton automaton = build("sword");
+        assertEquals(bits(0), scan(automaton, "sword"));
+        assertEquals(bits(0), scan(automaton, "a legendary sword!"));
+        assertEquals(bits(), scan(automaton, "swor"));
+        assertEquals(bits(), scan(automaton, "s w o r d"));
+        assertEquals(bits(), scan(automaton, ""));
+    }
+
+    @Test
+    void overlappingLiterals() {
+        // Classic example: all literals are found, including suffixes of other literals
+        final TextMatcher.Automaton automaton = build("he", "she", "his", "hers");
+        assertEquals(bits(0, 1, 3), scan(automaton, "ushers"));
+        assertEquals(bits(0, 2), scan(automaton, "this and he"));
+        assertEquals(bits(), scan(automaton, "xyz"));
+    }
+
+    @Test
+    void failureTransitions() {
+        // Mismatching in the middle of a literal must continue from the longest matching suffix
+        final TextMatcher.Automaton automaton = build("abcd", "bce", "ce");
+        assertEquals(bits(1, 2), scan(automaton, "abce"));
+        assertEquals(bits(0), scan(automaton, "xabcdx"));
+        assertEquals(bits(), scan(automaton, "abcabcab"));
+        assertEquals(bits(0), scan(automaton, "ababcabcd"));
+    }
+
+    @Test
+    void literalInsideAnotherLiteral() {
+        final TextMatcher.Automaton automaton = build("diamond sword", "sword", "diamond");
+        assertEquals(bits(0, 1, 2), scan(automaton, "a diamond sword"));
+        assertEquals(bits(1, 2), scan(automaton, "diamond and sword"));
+    }
+
+    @Test
+    void sameLiteralInSeveralSlots() {
+        final TextMatcher.Automaton automaton = new TextMatcher.Automaton();
+        automaton.add("banned", 0);
+        automaton.add("banned", 3);
+        automaton.build();
+        assertEquals(bits(0, 3), scan(automaton, "this is banned"));
+    }
+
+    @Test
+    void emptyLiteralMatchesAnyText() {
+        final TextMatcher.Automaton automaton = build("", "x");
+        assertEquals(bits(0), scan(automaton, ""));
+        assertEquals(bits(0), scan(automaton, "abc"));
+        assertEquals(bits(0, 1), scan(automaton, "abcx"));
+    }
+
+    @Test
+    void colorCodesAndCase() {
+        // Literals are matched as is, color codes included and case sensitive
+        final TextMatcher.Automaton automaton = build("§cBanned", "banned");
+        assertEquals(bits(0), scan(automaton, "§l§cBanned item"));
+        assertEquals(bits(1), scan(automaton, "§cbanned"));
+        assertEquals(bits(), scan(automaton, "BANNED"));
+    }
+
+    @Test
+    void severalTexts() {
+        // Literals are not matched across texts (ex: lore lines)
+        final TextMatcher.Automaton automaton = build("first", "second", "firstsecond");
+        assertEquals(bits(0, 1), scan(automaton, "first", "second"));
+        assertEquals(bits(0, 1, 2), scan(automaton, "firstsecond"));
+    }
+
+    @Test
+    void sameResultAsNaiveSearch() {
+        final Random random = new Random(42);
+        final String alphabet = "abc";
+        for (int run = 0; run < 200; run++) {
+            final String[] literals = new String[1 + random.nextInt(6)];
+            for (int i = 0; i < literals.length; i++)
+                literals[i] = randomString(random, alphabet, 1 + random.nextInt(4));
+            final String text = randomString(random, alphabet, random.nextInt(20));
+
+            final BitSet expected = new BitSet();
+            for (int i = 0; i < literals.length; i++)
+                if (text.contains(literals[i])) expected.set(i);
+            assertEquals(expected, scan(build(literals), text), () -> "Text '" + text + "', literals " + String.join(",", literals));
+        }
+    }
+
+    @NotNull
+    private static String randomString(@NotNull final Random random, @NotNull final String alphabet, final int length) {
+        final StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++)
+            sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        return sb.toString();
+    }
+
+    @Test
+    void multipleScansAccumulate() {
+        final TextMatcher.Automaton automaton = build("lore", "name");
+        final BitSet found = new BitSet();
+        automaton.scan("some lore", found);
+        assertTrue(found.get(0));
+        automaton.scan("a name", found);
+        assertEquals(bits(0, 1), found);
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * BanItem - Lightweight, powerful & configurable per world ban item plugin
+ * Copyright (C) 2021 André Sustac
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your action) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.andross.banitem.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests of the compiled levels table
+ * @version 3.5
+ * @author Andross
+ */
+class LevelTableTest {
+
+    @Test
+    void emptyTable() {
+        final LevelTable<String> table = new LevelTable<>();
+        assertTrue(table.isEmpty());
+        assertFalse(table.matches("sharpness", 1));
+    }
+
+    @Test
+    void anyLevel() {
+        final LevelTable<String> table = new LevelTable<>();
+        table.addAny("sharpness");
+        assertFalse(table.isEmpty());
+        assertTrue(table.matches("sharpness", 0));
+        assertTrue(table.matches("sharpness", 5));
+        assertTrue(table.matches("sharpness", 1000));
+        assertTrue(table.matches("sharpness", -1));
+        assertFalse(table.matches("knockback", 1));
+    }
+
+    @Test
+    void exactLevels() {
+        final LevelTable<String> table = new LevelTable<>();
+        table.addLevel("sharpness", 2);
+        table.addLevel("sharpness", 5);
+        assertTrue(table.matches("sharpness", 2));
+        assertTrue(table.matches("sharpness", 5));
+        assertFalse(table.matches("sharpness", 1));
+        assertFalse(table.matches("sharpness", 3));
+        assertFalse(table.matches("knockback", 2));
+    }
+
+    @Test
+    void exactLevelsOutOfTheBitmask() {
+        final LevelTable<String> table = new LevelTable<>();
+        table.addLevel("sharpness", 63);
+        table.addLevel("sharpness", 64);
+        table.addLevel("sharpness", 1000);
+        table.addLevel("sharpness", -3);
+        assertTrue(table.matches("sharpness", 63));
+        assertTrue(table.matches("sharpness", 64));
+        assertTrue(table.matches("sharpness", 1000));
+        assertTrue(table.matches("sharpness", -3));
+        assertFalse(table.matches("sharpness", 65));
+        assertFalse(table.matches("sharpness", 999));
+        assertFalse(table.matches("sharpness", -2));
+    }
+
+    @Test
+    void interval() {
+        final LevelTable<String> table = new LevelTable<>();
+        table.setInterval("sharpness", 2, 4);
+        assertFalse(table.matches("sharpness", 1));
+        assertTrue(table.matches("sharpness", 2));
+        assertTrue(table.matches("sharpness", 3));
+        assertTrue(table.matches("sharpness", 4));
+        assertFalse(table.matches("sharpness", 5));
+    }
+
+    @Test
+    void lastIntervalWins() {
+        final LevelTable<String> table = new LevelTable<>();
+        table.setInterval("sharpness", 1, 3);
+        table.setInterval("sharpness", 5, 6);
+        assertFalse(table.matches("sharpness", 2));
+        assertTrue(table.matches("sharpness", 5));
+        assertTrue(table.matches("sharpness", 6));
+    }
+
+    @Test
+    void emptyInterval() {
+        final LevelTable<String> table = new LevelTable<>();
+        table.setInterval("sharpness", 4, 2);
+        for (int level = 0; level < 8; level++)
+            assertFalse(table.matches("sharpness", level));
+    }
+
+    @Test
+    void combinedLevels() {
+        final LevelTable<String> table = new LevelTable<>();
+        table.addLevel("sharpness", 1);
+        table.setInterval("sharpness", 3, 4);
+        table.addLevel("sharpness", 100);
+        table.addAny("knockback");
+        assertTrue(table.matches("sharpness", 1));
+        assertFalse(table.matches("sharpness", 2));
+        assertTrue(table.matches("sharpness", 3));
+        assertTrue(table.matches("sharpness", 100));
+        assertTrue(table.matches("knockback", 7));
+    }
+
+    @Test
+    void keysDoNotShareLevels() {
+        final LevelTable<String> table = new LevelTable<>();
+        table.addLevel("sharpness", 1);
+        table.setInterval("knockback", 5, 10);
+        assertFalse(table.matches("sharpness", 5));
+        assertFalse(table.matches("knockback", 1));
+    }
+}
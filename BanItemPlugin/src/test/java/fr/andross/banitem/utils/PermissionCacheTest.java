@@ -0,0 +1,203 @@
+/*
+ * BanItem - Lightweight, powerful & configurable per world ban item plugin
+ * Copyright (C) 2021 André Sustac
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your action) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.andross.banitem.utils;
+
+import fr.andross.banitem.Stubs;
+import fr.andross.banitem.actions.BanAction;
+import fr.andross.banitem.actions.BanData;
+import fr.andross.banitem.actions.BanDataType;
+import org.bukkit.GameMode;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests of the bypass permissions trie, against the permission nodes checked one by one before
+ * @version 3.5
+ * @author Andross
+ */
+class PermissionCacheTest {
+    private static final String[] WORLDS = { "world", "world_nether", "allworlds" };
+    private static final String[] ITEMS = { "stone", "diamond_sword", "allitems" };
+    private static final BanAction[] ACTIONS = { BanAction.PLACE, BanAction.BREAK };
+    private static final BanData CREATIVE = new BanData(BanDataType.GAMEMODE, GameMode.CREATIVE);
+    private static final BanData SURVIVAL = new BanData(BanDataType.GAMEMODE, GameMode.SURVIVAL);
+    private World world;
+    private PermissionCache cache;
+
+    @BeforeAll
+    static void setUpServer() {
+        Stubs.server();
+    }
+
+    @BeforeEach
+    void setUp() {
+        world = Stubs.world("World"); // permissions use the lower cased name
+        cache = new PermissionCache();
+    }
+
+    @NotNull
+    private Player player(@NotNull final String... permissions) {
+        return Stubs.player("Andross", world, new HashSet<>(Arrays.asList(permissions)));
+    }
+
+    /**
+     * The permission nodes checked one by one before the trie, by BanUtils#hasPermission.
+     * The double dots of the allworlds wildcards are fixed, as they could never match.
+     */
+    private static boolean hasNodePermission(@NotNull final Player player, @NotNull final String itemName, @NotNull final BanAction action, @Nullable final BanData... data) {
+        final String world = player.getWorld().getName().toLowerCase();
+        if (player.hasPermission("banitem.bypass.*")) return true;
+        if (player.hasPermission("banitem.bypass." + world + ".*")) return true;
+        if (player.hasPermission("banitem.bypass.allworlds.*")) return true;
+
+        if (!Utils.isNullOrEmpty(data)) {
+            if (player.hasPermission("banitem.bypass." + world + "." + itemName + "." + action.getName() + ".*")) return true;
+            if (player.hasPermission("banitem.bypass.allworlds." + itemName + "." + action.getName() + ".*")) return true;
+            if (player.hasPermission("banitem.bypass." + world + ".allitems." + action.getName() + ".*")) return true;
+            if (player.hasPermission("banitem.bypass.allworlds.allitems." + action.getName() + ".*")) return true;
+            for (final BanData bd : data) {
+                final String dataName = String.valueOf(bd.getObject()).toLowerCase(Locale.ROOT);
+                if (player.hasPermission("banitem.bypass." + world + "." + itemName + "." + action.getName() + "." + dataName)) return true;
+                if (player.hasPermission("banitem.bypass.allworlds." + itemName + "." + action.getName() + "." + dataName)) return true;
+                if (player.hasPermission("banitem.bypass." + world + ".allitems." + action.getName() + "." + dataName)) return true;
+                if (player.hasPermission("banitem.bypass.allworlds.allitems." + action.getName() + "." + dataName)) return true;
+            }
+        } else {
+            if (player.hasPermission("banitem.bypass." + world + "." + itemName + ".*")) return true;
+            if (player.hasPermission("banitem.bypass.allworlds." + itemName + ".*")) return true;
+            if (player.hasPermission("banitem.bypass." + world + "." + itemName + "." + action.getName())) return true;
+            if (player.hasPermission("banitem.bypass.allworlds." + itemName + "." + action.getName())) return true;
+
+            if (player.hasPermission("banitem.bypass." + world + ".allitems.*")) return true;
+            if (player.hasPermission("banitem.bypass.allworlds.allitems.*")) return true;
+            if (player.hasPermission("banitem.bypass." + world + ".allitems." + action.getName())) return true;
+            if (player.hasPermission("banitem.bypass.allworlds.allitems." + action.getName())) return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * All the bypass permissions on those worlds, items, actions and data, with their wildcards
+     */
+    @NotNull
+    private static List<String> getAllPermissions() {
+        final List<String> permissions = new ArrayList<>();
+        permissions.add("banitem.bypass.*");
+        for (final String w : WORLDS) {
+            final String worldNode = "banitem.bypass." + w;
+            permissions.add(worldNode + ".*");
+            for (final String item : ITEMS) {
+                final String itemNode = worldNode + "." + item;
+                permissions.add(itemNode + ".*");
+                for (final BanAction action : ACTIONS) {
+                    final String actionNode = itemNode + "." + action.getName();
+                    permissions.add(actionNode);
+                    permissions.add(actionNode + ".*");
+                    permissions.add(actionNode + "." + CREATIVE.getName());
+                    permissions.add(actionNode + "." + SURVIVAL.getName());
+                }
+            }
+        }
+        return permissions;
+    }
+
+    @Test
+    void sameResultAsThePermissionNodes() {
+        final List<String> all = getAllPermissions();
+        final BanData[][] data = { null, {}, { CREATIVE }, { SURVIVAL }, { CREATIVE, SURVIVAL } };
+        final Random random = new Random(42);
+
+        // Every single permission, then random sets of permissions
+        final List<Set<String>> sets = new ArrayList<>();
+        for (final String permission : all) sets.add(new HashSet<>(Arrays.asList(permission)));
+        for (int run = 0; run < 500; run++) {
+            final Set<String> set = new HashSet<>();
+            for (int i = random.nextInt(4); i >= 0; i--)
+                set.add(all.get(random.nextInt(all.size())));
+            sets.add(set);
+        }
+
+        for (final Set<String> permissions : sets) {
+            final Player player = Stubs.player("Andross", world, permissions);
+            for (final String item : Arrays.asList("stone", "diamond_sword", "dirt"))
+                for (final BanAction action : ACTIONS)
+                    for (final BanData[] d : data)
+                        assertEquals(hasNodePermission(player, item, action, d), cache.hasPermission(player, item, action, d),
+                                () -> "Permissions " + permissions + ", item " + item + ", action " + action.getName() + ", data " + Arrays.toString(d));
+        }
+    }
+
+    @Test
+    void allWorldsWildcards() {
+        assertTrue(cache.hasPermission(player("banitem.bypass.allworlds.stone.*"), "stone", BanAction.PLACE));
+        assertTrue(cache.hasPermission(player("banitem.bypass.allworlds.allitems.*"), "dirt", BanAction.BREAK));
+        assertFalse(cache.hasPermission(player("banitem.bypass.allworlds.stone.*"), "dirt", BanAction.PLACE));
+    }
+
+    @Test
+    void otherWorldsPermissions() {
+        assertFalse(cache.hasPermission(player("banitem.bypass.world_nether.*"), "stone", BanAction.PLACE));
+        assertFalse(cache.hasPermission(player("banitem.bypass.world_nether.stone.place"), "stone", BanAction.PLACE));
+        assertTrue(cache.hasPermission(player("banitem.bypass.world.stone.place"), "stone", BanAction.PLACE));
+    }
+
+    @Test
+    void worldNamesWithDots() {
+        world = Stubs.world("my.world");
+        assertTrue(cache.hasPermission(player("banitem.bypass.my.world.stone.place"), "stone", BanAction.PLACE));
+        assertFalse(cache.hasPermission(player("banitem.bypass.my.stone.place"), "stone", BanAction.PLACE));
+    }
+
+    @Test
+    void globalWildcards() {
+        assertTrue(cache.hasPermission(player("*"), "stone", BanAction.PLACE, CREATIVE));
+        assertTrue(cache.hasPermission(player("banitem.*"), "stone", BanAction.PLACE, CREATIVE));
+        assertFalse(cache.hasPermission(player("banitem.command.*"), "stone", BanAction.PLACE));
+        assertFalse(cache.hasPermission(player(), "stone", BanAction.PLACE));
+    }
+
+    @Test
+    void cachedUntilInvalidated() {
+        final Set<String> permissions = new HashSet<>();
+        final Player player = Stubs.player("Andross", world, permissions);
+        assertFalse(cache.hasPermission(player, "stone", BanAction.PLACE));
+
+        permissions.add("banitem.bypass.world.stone.place");
+        assertFalse(cache.hasPermission(player, "stone", BanAction.PLACE));
+        cache.invalidate(player.getUniqueId());
+        assertTrue(cache.hasPermission(player, "stone", BanAction.PLACE));
+    }
+}
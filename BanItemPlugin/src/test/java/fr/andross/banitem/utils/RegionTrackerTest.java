@@ -0,0 +1,209 @@
+/*
+ * BanItem - Lightweight, powerful & configurable per world ban item plugin
+ * Copyright (C) 2021 André Sustac
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your action) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package fr.andross.banitem.utils;
+
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldguard.protection.regions.ProtectedCuboidRegion;
+import com.sk89q.worldguard.protection.regions.ProtectedRegion;
+import fr.andross.banitem.Stubs;
+import fr.andross.banitem.utils.hooks.IWorldGuardHook;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests of the incremental region tracker, against the standing regions of each location
+ * @version 3.5
+ * @author Andross
+ */
+class RegionTrackerTest {
+    private World world;
+    private Player player;
+    private Hook hook;
+    private RegionTracker tracker;
+
+    @BeforeAll
+    static void setUpServer() {
+        Stubs.server();
+    }
+
+    @BeforeEach
+    void setUp() {
+        world = Stubs.world("world");
+        player = Stubs.player("Andross");
+        hook = new Hook();
+        tracker = new RegionTracker(hook);
+    }
+
+    @NotNull
+    private Location at(final int x, final int y, final int z) {
+        return new Location(world, x, y, z);
+    }
+
+    /**
+     * Moving through those locations, comparing the tracker with the standing regions of each location
+     * @return the amount of region changes
+     */
+    private int walk(@NotNull final Location... path) {
+        int changes = 0;
+        for (int i = 1; i < path.length; i++) {
+            final boolean changed = tracker.move(player, path[i - 1], path[i]);
+            final boolean expected = !hook.getRegions(path[i - 1]).equals(hook.getRegions(path[i]));
+            assertEquals(expected, changed, "Moving from " + path[i - 1] + " to " + path[i]);
+            if (changed) changes++;
+        }
+        return changes;
+    }
+
+    @Test
+    void enteringAndLeavingARegionCoveringWholeChunks() {
+        hook.add("spawn", 0, -64, 0, 31, 319, 31); // chunks 0 and 1, full height
+
+        assertEquals(2, walk(at(-20, 64, 5), at(-10, 64, 5), at(5, 64, 5), at(20, 64, 5), at(40, 64, 5)));
+    }
+
+    @Test
+    void noQueryInsideAChunkWithoutBoundary() {
+        hook.add("spawn", 0, -64, 0, 31, 319, 31);
+        tracker.move(player, at(1, 64, 1), at(2, 64, 1));
+        final int queries = hook.queries;
+
+        assertFalse(tracker.move(player, at(2, 64, 1), at(10, 70, 10)));
+        assertFalse(tracker.move(player, at(10, 70, 10), at(15, -64, 15)));
+        assertEquals(queries, hook.queries);
+    }
+
+    @Test
+    void chunksWithABoundaryAreQueried() {
+        hook.add("house", 2, 60, 2, 9, 80, 9); // inside chunk 0
+
+        assertEquals(4, walk(at(0, 64, 0), at(5, 64, 5), at(12, 64, 5), at(5, 64, 5), at(5, 90, 5)));
+    }
+
+    @Test
+    void outOfTheWorldHeight() {
+        hook.add("spawn", 0, -64, 0, 31, 319, 31);
+
+        // Vertical moves across the world height, in the same chunk
+        assertEquals(4, walk(at(5, 300, 5), at(5, 319, 5), at(5, 320, 5), at(5, 400, 5), at(5, 319, 5), at(5, -65, 5), at(5, -64, 5)));
+    }
+
+    @Test
+    void firstMoveFromOutOfTheWorldHeight() {
+        hook.add("spawn", 0, -64, 0, 31, 319, 31);
+
+        assertEquals(1, walk(at(5, 320, 5), at(5, 319, 5)));
+    }
+
+    @Test
+    void nestedRegions() {
+        hook.add("spawn", 0, -64, 0, 31, 319, 31);
+        hook.add("arena", 16, -64, 0, 31, 319, 15); // chunk 1, inside spawn
+
+        assertEquals(3, walk(at(-5, 64, 5), at(5, 64, 5), at(20, 64, 5), at(5, 64, 5)));
+    }
+
+    @Test
+    void removedPlayersAreTrackedAgain() {
+        hook.add("spawn", 0, -64, 0, 31, 319, 31);
+        assertTrue(tracker.move(player, at(-5, 64, 5), at(5, 64, 5)));
+
+        tracker.remove(player.getUniqueId());
+        assertFalse(tracker.move(player, at(5, 64, 5), at(6, 64, 5)));
+        assertTrue(tracker.move(player, at(6, 64, 5), at(-5, 64, 5)));
+    }
+
+    /**
+     * A worldguard hook with cuboid regions only, counting the standing regions queries
+     */
+    private static final class Hook implements IWorldGuardHook {
+        private final List<ProtectedRegion> regions = new ArrayList<>();
+        private int queries;
+
+        private void add(@NotNull final String id, final int minX, final int minY, final int minZ, final int maxX, final int maxY, final int maxZ) {
+            regions.add(new ProtectedCuboidRegion(id, BlockVector3.at(minX, minY, minZ), BlockVector3.at(maxX, maxY, maxZ)));
+        }
+
+        @NotNull
+        private Set<ProtectedRegion> getRegions(@NotNull final Location loc) {
+            final Set<ProtectedRegion> set = new HashSet<>();
+            for (final ProtectedRegion region : regions)
+                if (contains(region, loc.getBlockX(), loc.getBlockX(), loc.getBlockY(), loc.getBlockY(), loc.getBlockZ(), loc.getBlockZ())) set.add(region);
+            return set;
+        }
+
+        private static boolean contains(@NotNull final ProtectedRegion region, final int minX, final int maxX, final int minY, final int maxY, final int minZ, final int maxZ) {
+            final BlockVector3 min = region.getMinimumPoint();
+            final BlockVector3 max = region.getMaximumPoint();
+            return min.getBlockX() <= minX && max.getBlockX() >= maxX && min.getBlockY() <= minY && max.getBlockY() >= maxY && min.getBlockZ() <= minZ && max.getBlockZ() >= maxZ;
+        }
+
+        @Nullable
+        @Override
+        public ProtectedRegion getProtectedRegion(@NotNull final World world, @NotNull final String regionName) {
+            return regions.stream().filter(r -> r.getId().equalsIgnoreCase(regionName)).findFirst().orElse(null);
+        }
+
+        @NotNull
+        @Override
+        public List<ProtectedRegion> getAllProtectedRegions(@NotNull final World world) {
+            return new ArrayList<>(regions);
+        }
+
+        @NotNull
+        @Override
+        public Set<ProtectedRegion> getStandingRegions(@NotNull final Location loc) {
+            queries++;
+            return getRegions(loc);
+        }
+
+        @NotNull
+        @Override
+        public Set<ProtectedRegion> getChunkRegions(@NotNull final World world, final int chunkX, final int chunkZ, final int minY, final int maxY) {
+            final Set<ProtectedRegion> set = new HashSet<>();
+            for (final ProtectedRegion region : regions) {
+                final BlockVector3 min = region.getMinimumPoint();
+                final BlockVector3 max = region.getMaximumPoint();
+                if (min.getBlockX() <= (chunkX << 4) + 15 && max.getBlockX() >= chunkX << 4
+                        && min.getBlockZ() <= (chunkZ << 4) + 15 && max.getBlockZ() >= chunkZ << 4
+                        && min.getBlockY() <= maxY && max.getBlockY() >= minY)
+                    set.add(region);
+            }
+            return set;
+        }
+
+        @Override
+        public boolean containsChunk(@NotNull final ProtectedRegion region, final int chunkX, final int chunkZ, final int minY, final int maxY) {
+            return contains(region, chunkX << 4, (chunkX << 4) + 15, minY, maxY, chunkZ << 4, (chunkZ << 4) + 15);
+        }
+    }
+}
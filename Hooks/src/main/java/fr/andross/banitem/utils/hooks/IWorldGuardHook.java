@@ -37,4 +37,9 @@ public interface IWorldGuardHook {
     @NotNull
     Set<ProtectedRegion> getStandingRegions(@NotNull final Location loc);
 
+    @NotNull
+    Set<ProtectedRegion> getChunkRegions(@NotNull final World world, final int chunkX, final int chunkZ, final int minY, final int maxY);
+
+    boolean containsChunk(@NotNull final ProtectedRegion region, final int chunkX, final int chunkZ, final int minY, final int maxY);
+
 }
\ No newline at end of file
@@ -17,10 +17,13 @@
  */
 package fr.andross.banitem.utils.hooks;
 
+import com.sk89q.worldedit.BlockVector;
 import com.sk89q.worldguard.bukkit.RegionContainer;
 import com.sk89q.worldguard.bukkit.WorldGuardPlugin;
 import com.sk89q.worldguard.protection.ApplicableRegionSet;
 import com.sk89q.worldguard.protection.managers.RegionManager;
+import com.sk89q.worldguard.protection.regions.GlobalProtectedRegion;
+import com.sk89q.worldguard.protection.regions.ProtectedCuboidRegion;
 import com.sk89q.worldguard.protection.regions.ProtectedRegion;
 import org.bukkit.Location;
 import org.bukkit.World;
@@ -63,5 +66,27 @@ public final class WorldGuard6Hook implements IWorldGuardHook {
         final ApplicableRegionSet applicableRegionSet = regions.getApplicableRegions(loc);
         return applicableRegionSet == null || applicableRegionSet.size() == 0 ? set : applicableRegionSet.getRegions();
     }
-}
 
+    @NotNull
+    @Override
+    public Set<ProtectedRegion> getChunkRegions(@NotNull final World world, final int chunkX, final int chunkZ, final int minY, final int maxY) {
+        final RegionContainer container = WorldGuardPlugin.inst().getRegionContainer();
+        final RegionManager regions = container.get(world);
+        final Set<ProtectedRegion> set = new HashSet<>();
+        if (regions == null) return set;
+        final ProtectedCuboidRegion chunk = new ProtectedCuboidRegion("banitem_chunk", new BlockVector(chunkX << 4, minY, chunkZ << 4), new BlockVector((chunkX << 4) + 15, maxY, (chunkZ << 4) + 15));
+        for (final ProtectedRegion region : regions.getApplicableRegions(chunk).getRegions())
+            if (!(region instanceof GlobalProtectedRegion)) set.add(region);
+        return set;
+    }
+
+    @Override
+    public boolean containsChunk(@NotNull final ProtectedRegion region, final int chunkX, final int chunkZ, final int minY, final int maxY) {
+        if (!(region instanceof ProtectedCuboidRegion)) return false;
+        final BlockVector min = region.getMinimumPoint();
+        final BlockVector max = region.getMaximumPoint();
+        return min.getBlockX() <= chunkX << 4 && max.getBlockX() >= (chunkX << 4) + 15
+                && min.getBlockZ() <= chunkZ << 4 && max.getBlockZ() >= (chunkZ << 4) + 15
+                && min.getBlockY() <= minY && max.getBlockY() >= maxY;
+    }
+}
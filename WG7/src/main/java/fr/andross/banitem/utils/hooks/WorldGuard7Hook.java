@@ -22,6 +22,8 @@ import com.sk89q.worldedit.math.BlockVector3;
 import com.sk89q.worldguard.WorldGuard;
 import com.sk89q.worldguard.protection.ApplicableRegionSet;
 import com.sk89q.worldguard.protection.managers.RegionManager;
+import com.sk89q.worldguard.protection.regions.GlobalProtectedRegion;
+import com.sk89q.worldguard.protection.regions.ProtectedCuboidRegion;
 import com.sk89q.worldguard.protection.regions.ProtectedRegion;
 import com.sk89q.worldguard.protection.regions.RegionContainer;
 import org.bukkit.Location;
@@ -68,4 +70,27 @@ public final class WorldGuard7Hook implements IWorldGuardHook {
         return applicableRegionSet == null || applicableRegionSet.size() == 0 ? set : applicableRegionSet.getRegions();
     }
 
+    @NotNull
+    @Override
+    public Set<ProtectedRegion> getChunkRegions(@NotNull final World world, final int chunkX, final int chunkZ, final int minY, final int maxY) {
+        final RegionContainer container = WorldGuard.getInstance().getPlatform().getRegionContainer();
+        final RegionManager regions = container.get(BukkitAdapter.adapt(world));
+        final Set<ProtectedRegion> set = new HashSet<>();
+        if (regions == null) return set;
+        final ProtectedCuboidRegion chunk = new ProtectedCuboidRegion("banitem_chunk", BlockVector3.at(chunkX << 4, minY, chunkZ << 4), BlockVector3.at((chunkX << 4) + 15, maxY, (chunkZ << 4) + 15));
+        for (final ProtectedRegion region : regions.getApplicableRegions(chunk).getRegions())
+            if (!(region instanceof GlobalProtectedRegion)) set.add(region);
+        return set;
+    }
+
+    @Override
+    public boolean containsChunk(@NotNull final ProtectedRegion region, final int chunkX, final int chunkZ, final int minY, final int maxY) {
+        if (!(region instanceof ProtectedCuboidRegion)) return false;
+        final BlockVector3 min = region.getMinimumPoint();
+        final BlockVector3 max = region.getMaximumPoint();
+        return min.getBlockX() <= chunkX << 4 && max.getBlockX() >= (chunkX << 4) + 15
+                && min.getBlockZ() <= chunkZ << 4 && max.getBlockZ() >= (chunkZ << 4) + 15
+                && min.getBlockY() <= minY && max.getBlockY() >= maxY;
+    }
+
 }